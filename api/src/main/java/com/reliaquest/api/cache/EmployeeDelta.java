@@ -0,0 +1,38 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeChange;
+import lombok.NonNull;
+
+/**
+ * A single change to the employee list, applied to an {@link EmployeeSnapshot} in place of
+ * fetching the whole list again.
+ *
+ * <p>Deltas are idempotent: creating an employee whose ID is already in the snapshot, or deleting
+ * one that is not, leaves the snapshot untouched. That makes it safe to replay a delta on top of a
+ * list that may or may not already reflect it.
+ */
+public sealed interface EmployeeDelta {
+
+    Employee employee();
+
+    /**
+     * @param change    A change reported by the version 1 change log
+     * @return          Returns the {@link EmployeeDelta} applying the <b>change</b>
+     */
+    static EmployeeDelta of(@NonNull EmployeeChange change) {
+        return change.type() == EmployeeChange.Type.CREATED
+                ? new Created(change.employee())
+                : new Deleted(change.employee());
+    }
+
+    /**
+     * @param employee    The {@link Employee} created in the version 1 API
+     */
+    record Created(@NonNull Employee employee) implements EmployeeDelta {}
+
+    /**
+     * @param employee    The {@link Employee} deleted from the version 1 API
+     */
+    record Deleted(@NonNull Employee employee) implements EmployeeDelta {}
+}
@@ -0,0 +1,61 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.model.Employee;
+import java.util.List;
+import java.util.function.Supplier;
+import lombok.NonNull;
+
+/**
+ * Loads the full employee list from the version 1 API on behalf of the {@link EmployeeSnapshotCache}.
+ *
+ * <p>The loader is handed the entity tag of the list the cache already holds, so it can revalidate
+ * it with a conditional request and answer {@link Loaded#notModified()} instead of a new list, or
+ * catch up with the {@link Loaded#changed(List, String) changes} made since.
+ */
+@FunctionalInterface
+public interface EmployeeLoader {
+
+    /**
+     * @param etag    The entity tag of the list held by the current snapshot, <em>null</em> if none
+     * @return        Returns the loaded list, the changes made to the list behind <b>etag</b>, or
+     *                {@link Loaded#notModified()} if that list is still current
+     */
+    Loaded load(String etag);
+
+    /**
+     * @param loader    Fetches the full employee list, without revalidation
+     * @return          Returns an {@link EmployeeLoader} always answering with a new list
+     */
+    static EmployeeLoader unconditional(@NonNull Supplier<List<Employee>> loader) {
+        return etag -> Loaded.of(loader.get(), null);
+    }
+
+    /**
+     * The outcome of a load: either a full list, the changes to the held list, or neither when
+     * the held list is still current.
+     *
+     * @param employees    The loaded employees, <em>null</em> unless a full list was loaded
+     * @param changes      The changes to the held list, <em>null</em> unless only changes were loaded
+     * @param etag         The entity tag of the resulting list, <em>null</em> if the upstream sent none
+     */
+    record Loaded(List<Employee> employees, List<EmployeeDelta> changes, String etag) {
+
+        private static final Loaded NOT_MODIFIED = new Loaded(null, null, null);
+
+        public static Loaded of(@NonNull List<Employee> employees, String etag) {
+            return new Loaded(employees, null, etag);
+        }
+
+        public static Loaded changed(@NonNull List<EmployeeDelta> changes, String etag) {
+            return new Loaded(null, changes, etag);
+        }
+
+        public static Loaded notModified() {
+            return NOT_MODIFIED;
+        }
+
+        public boolean isNotModified() {
+            return employees == null && changes == null;
+        }
+    }
+}
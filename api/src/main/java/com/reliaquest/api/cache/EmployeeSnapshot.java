@@ -0,0 +1,347 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.index.EmployeeFieldIndex;
+import com.reliaquest.api.index.EmployeeFilter;
+import com.reliaquest.api.index.HashTrie;
+import com.reliaquest.api.index.NameTrigramIndex;
+import com.reliaquest.api.index.NameWordIndex;
+import com.reliaquest.api.index.SalaryAggregates;
+import com.reliaquest.api.index.SalaryGroups;
+import com.reliaquest.api.index.SlotVector;
+import com.reliaquest.api.model.Employee;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.NonNull;
+
+/**
+ * An immutable, versioned copy of the full employee list as last seen from the version 1 API.
+ *
+ * <p>Every time the list is replaced the {@link #version} is bumped, so two snapshots with the
+ * same version are guaranteed to hold the same employees. Structures derived from the list, such
+ * as the {@link SalaryAggregates} and {@link SalaryGroups}, are computed once per snapshot and
+ * shared by every read.
+ *
+ * <p>The employees are kept in a {@link SlotVector} and keyed by ID in a {@link HashTrie}, both
+ * persistent, so {@link #apply(EmployeeDelta)} shares all but a path of each with the successor
+ * instead of copying the list. Every employee keeps the slot it was added at, which is what the
+ * name and field indexes refer to, so a deleted employee is found by its ID and removed from the
+ * postings of its own name and fields only. Once most slots are empty the snapshot is compacted by
+ * building its successor from scratch. Employees repeating the ID of an earlier one are dropped
+ * when a snapshot is built, so every employee in the list is found, and removed, by its ID.
+ *
+ * @param version             Monotonically increasing version of this snapshot
+ * @param fetchedAt           The instant the data was last confirmed against the version 1 API
+ * @param etag                The entity tag the version 1 API sent with the list, may be <em>null</em>
+ * @param employees           The unmodifiable list of {@link Employee employees}, by slot
+ * @param salaryAggregates    The highest salary, top earners and salary sketch of the <b>employees</b>
+ * @param salaryGroups        The salary statistics of the <b>employees</b> per title and age band
+ * @param nameIndex           The trigram index over the names of the <b>employees</b>
+ * @param nameWords           The prefix and fuzzy word index over the names of the <b>employees</b>
+ * @param fieldIndex          The salary and title indexes of the <b>employees</b>
+ * @param byId                The slots of the <b>employees</b> keyed by their ID
+ */
+public record EmployeeSnapshot(
+        long version,
+        @NonNull Instant fetchedAt,
+        String etag,
+        @NonNull SlotVector<Employee> employees,
+        @NonNull SalaryAggregates salaryAggregates,
+        @NonNull SalaryGroups salaryGroups,
+        @NonNull NameTrigramIndex nameIndex,
+        @NonNull NameWordIndex nameWords,
+        @NonNull EmployeeFieldIndex fieldIndex,
+        @NonNull HashTrie<UUID, Integer> byId) {
+
+    public static final int TOP_EARNERS = 10;
+
+    private static final int COMPACT_THRESHOLD = 64;
+
+    /**
+     * Creates the first snapshot of a lineage.
+     *
+     * @param employees    The employees returned by the version 1 API
+     * @param fetchedAt    The instant the employees were fetched
+     * @return             Returns a new {@link EmployeeSnapshot} with version <em>1</em>
+     */
+    public static EmployeeSnapshot of(@NonNull List<Employee> employees, @NonNull Instant fetchedAt) {
+        return of(employees, fetchedAt, null);
+    }
+
+    /**
+     * Creates the first snapshot of a lineage.
+     *
+     * @param employees    The employees returned by the version 1 API
+     * @param fetchedAt    The instant the employees were fetched
+     * @param etag         The entity tag sent with the employees, may be <em>null</em>
+     * @return             Returns a new {@link EmployeeSnapshot} with version <em>1</em>
+     */
+    public static EmployeeSnapshot of(@NonNull List<Employee> employees, @NonNull Instant fetchedAt, String etag) {
+        return build(1, fetchedAt, etag, employees);
+    }
+
+    /**
+     * Creates the successor of this snapshot holding the freshly fetched <b>employees</b>.
+     *
+     * @param employees    The employees returned by the version 1 API
+     * @param fetchedAt    The instant the employees were fetched
+     * @return             Returns a new {@link EmployeeSnapshot} with the next version
+     */
+    public EmployeeSnapshot replacedWith(@NonNull List<Employee> employees, @NonNull Instant fetchedAt) {
+        return replacedWith(employees, fetchedAt, null);
+    }
+
+    /**
+     * Creates the successor of this snapshot holding the freshly fetched <b>employees</b>.
+     *
+     * @param employees    The employees returned by the version 1 API
+     * @param fetchedAt    The instant the employees were fetched
+     * @param etag         The entity tag sent with the employees, may be <em>null</em>
+     * @return             Returns a new {@link EmployeeSnapshot} with the next version
+     */
+    public EmployeeSnapshot replacedWith(
+            @NonNull List<Employee> employees, @NonNull Instant fetchedAt, String etag) {
+        return build(version + 1, fetchedAt, etag, employees);
+    }
+
+    /**
+     * Marks this snapshot as confirmed current by the version 1 API at <b>fetchedAt</b>, e.g. after
+     * a <em>304 Not Modified</em>. The version is kept, since the employees did not change.
+     *
+     * @param fetchedAt    The instant the employees were confirmed
+     * @return             Returns this {@link EmployeeSnapshot} with the new <b>fetchedAt</b>
+     */
+    public EmployeeSnapshot revalidatedAt(@NonNull Instant fetchedAt) {
+        return new EmployeeSnapshot(
+                version,
+                fetchedAt,
+                etag,
+                employees,
+                salaryAggregates,
+                salaryGroups,
+                nameIndex,
+                nameWords,
+                fieldIndex,
+                byId);
+    }
+
+    /**
+     * Derives the successor of this snapshot with the specified <b>delta</b> applied.
+     *
+     * <p>The derived structures are patched from the changed {@link Employee} rather than
+     * rebuilt wherever they support it. The successor keeps the {@link #fetchedAt} of this
+     * snapshot, since the rest of the list was not confirmed against the version 1 API.
+     *
+     * @param delta    The change to apply
+     * @return         Returns the next {@link EmployeeSnapshot}, or this one if the delta is a no-op
+     */
+    public EmployeeSnapshot apply(@NonNull EmployeeDelta delta) {
+        var employee = delta.employee();
+        if (employee.id() == null) {
+            return this;
+        }
+        var present = byId.containsKey(employee.id());
+        if (delta instanceof EmployeeDelta.Created) {
+            return present ? this : plus(employee);
+        }
+        return present ? minus(employee.id()) : this;
+    }
+
+    /**
+     * Derives the successor of this snapshot with the specified <b>deltas</b> applied as one
+     * change, as {@link #apply(EmployeeDelta)} does for each of them but with a single version bump.
+     *
+     * @param deltas    The changes to apply, in order
+     * @return          Returns the next {@link EmployeeSnapshot}, or this one if every delta is a no-op
+     */
+    public EmployeeSnapshot applyAll(@NonNull List<EmployeeDelta> deltas) {
+        var applied = this;
+        for (var delta : deltas) {
+            applied = applied.apply(delta);
+        }
+        if (applied == this) {
+            return this;
+        }
+        return new EmployeeSnapshot(
+                version + 1,
+                fetchedAt,
+                etag,
+                applied.employees,
+                applied.salaryAggregates,
+                applied.salaryGroups,
+                applied.nameIndex,
+                applied.nameWords,
+                applied.fieldIndex,
+                applied.byId);
+    }
+
+    /**
+     * Derives the successor of this snapshot with the specified <b>deltas</b> applied, confirmed
+     * current by the version 1 API at <b>fetchedAt</b>. The version is only bumped if a delta
+     * actually changed the employees.
+     *
+     * @param deltas       The changes reported by the version 1 API, in order
+     * @param fetchedAt    The instant the changes were fetched
+     * @param etag         The entity tag of the resulting list, may be <em>null</em>
+     * @return             Returns the synced {@link EmployeeSnapshot}
+     */
+    public EmployeeSnapshot syncedWith(
+            @NonNull List<EmployeeDelta> deltas, @NonNull Instant fetchedAt, String etag) {
+        var synced = this;
+        for (var delta : deltas) {
+            synced = synced.apply(delta);
+        }
+        return new EmployeeSnapshot(
+                synced.version,
+                fetchedAt,
+                etag,
+                synced.employees,
+                synced.salaryAggregates,
+                synced.salaryGroups,
+                synced.nameIndex,
+                synced.nameWords,
+                synced.fieldIndex,
+                synced.byId);
+    }
+
+    /**
+     * Finds the employees whose name contains the specified <b>search</b>, ignoring case.
+     *
+     * @param search    The lowercased substring to search for
+     * @return          Returns the matching {@link Employee employees} in list order
+     */
+    public List<Employee> searchByName(@NonNull String search) {
+        return Arrays.stream(nameIndex.search(search)).mapToObj(employees::slot).toList();
+    }
+
+    /**
+     * Finds the employees with a name word starting with each word of the specified <b>search</b>,
+     * ignoring case.
+     *
+     * @param search    The lowercased prefix to search for
+     * @return          Returns the matching {@link Employee employees} in list order
+     */
+    public List<Employee> searchByNamePrefix(@NonNull String search) {
+        return Arrays.stream(nameWords.prefix(search)).mapToObj(employees::slot).toList();
+    }
+
+    /**
+     * Finds the employees with a name word within <b>maxDistance</b> edits of each word of the
+     * specified <b>search</b>, ignoring case.
+     *
+     * @param search         The lowercased words to search for
+     * @param maxDistance    The maximum Levenshtein distance per word
+     * @return               Returns the matching {@link Employee employees} in list order
+     */
+    public List<Employee> searchByNameFuzzy(@NonNull String search, int maxDistance) {
+        return Arrays.stream(nameWords.fuzzy(search, maxDistance))
+                .mapToObj(employees::slot)
+                .toList();
+    }
+
+    /**
+     * Finds the employees matching the specified <b>filter</b>. The filter is only tested against
+     * the candidates of its most selective indexed clause, if any.
+     *
+     * @param filter    The compiled filter
+     * @return          Returns the matching {@link Employee employees} in list order
+     */
+    public List<Employee> filter(@NonNull EmployeeFilter filter) {
+        var candidates = fieldIndex.candidates(filter);
+        if (candidates == null) {
+            return employees.stream().filter(filter).toList();
+        }
+        var matches = new ArrayList<Employee>();
+        for (var slot : candidates) {
+            var employee = employees.slot(slot);
+            if (filter.test(employee)) {
+                matches.add(employee);
+            }
+        }
+        return Collections.unmodifiableList(matches);
+    }
+
+    /**
+     * @param id    The ID of the employee to find
+     * @return      Returns an {@link Optional} of the {@link Employee} with the specified <b>id</b>
+     */
+    public Optional<Employee> findById(@NonNull UUID id) {
+        var slot = byId.get(id);
+        return slot == null ? Optional.empty() : Optional.of(employees.slot(slot));
+    }
+
+    /**
+     * @param now    The current instant
+     * @return       Returns how long ago this snapshot was fetched
+     */
+    public Duration age(@NonNull Instant now) {
+        return Duration.between(fetchedAt, now);
+    }
+
+    private EmployeeSnapshot plus(Employee employee) {
+        return new EmployeeSnapshot(
+                version + 1,
+                fetchedAt,
+                etag,
+                employees.plus(employee),
+                salaryAggregates.plus(employee),
+                salaryGroups.plus(employee),
+                nameIndex.plus(employee),
+                nameWords.plus(employee),
+                fieldIndex.plus(employee),
+                byId.plus(employee.id(), employees.slots()));
+    }
+
+    private EmployeeSnapshot minus(UUID id) {
+        int slot = byId.get(id);
+        var employee = employees.slot(slot);
+        var remaining = employees.minus(slot);
+        var empty = remaining.slots() - remaining.size();
+        if (empty >= COMPACT_THRESHOLD && empty * 2 > remaining.slots()) {
+            return build(version + 1, fetchedAt, etag, remaining);
+        }
+        return new EmployeeSnapshot(
+                version + 1,
+                fetchedAt,
+                etag,
+                remaining,
+                salaryAggregates.minus(employee, remaining),
+                salaryGroups.minus(employee, remaining),
+                nameIndex.minus(slot),
+                nameWords.minus(slot, employee),
+                fieldIndex.minus(slot, employee),
+                byId.minus(id));
+    }
+
+    private static EmployeeSnapshot build(long version, Instant fetchedAt, String etag, List<Employee> employees) {
+        var list = new ArrayList<Employee>(employees.size());
+        var ids = new HashSet<UUID>(employees.size() * 4 / 3 + 1);
+        var byId = HashTrie.<UUID, Integer>empty();
+        for (var employee : employees) {
+            if (employee == null || (employee.id() != null && !ids.add(employee.id()))) {
+                continue;
+            }
+            if (employee.id() != null) {
+                byId = byId.plus(employee.id(), list.size());
+            }
+            list.add(employee);
+        }
+        return new EmployeeSnapshot(
+                version,
+                fetchedAt,
+                etag,
+                SlotVector.of(list),
+                SalaryAggregates.of(list, TOP_EARNERS),
+                SalaryGroups.of(list),
+                NameTrigramIndex.of(list),
+                NameWordIndex.of(list),
+                EmployeeFieldIndex.of(list),
+                byId);
+    }
+}
@@ -0,0 +1,409 @@
+package com.reliaquest.api.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-through cache holding a single {@link EmployeeSnapshot} of the version 1 employee list.
+ *
+ * <p>A snapshot younger than the configured <em>ttl</em> is served as is. Once it is older than the
+ * <em>ttl</em>, but still within the <em>max-stale</em> window, the stale snapshot keeps being served
+ * while a single background refresh replaces it (stale-while-revalidate). Past that window, callers
+ * block on a synchronous load, or wait for one without blocking with
+ * {@link #getAsync(EmployeeLoader)}, and concurrent callers share the same load.
+ *
+ * <p>Similar to Spring's {@code Cache#get(Object, Callable)}, the loader is supplied by the caller.
+ * It is handed the entity tag of the held list, and a list confirmed unchanged keeps its snapshot
+ * version while its age is reset. A loader reporting only the changes since has them applied as
+ * {@link EmployeeDelta deltas}.
+ *
+ * <p>Writes made through this service are applied to the snapshot as {@link EmployeeDelta deltas}
+ * (write-through), so reads right after a write see it without another upstream call. Deltas
+ * applied while a load is in flight are replayed on top of the loaded list, since the version 1
+ * API may have answered before or after the write.
+ *
+ * <p>The {@link CacheStats} are published as the <b>employee.cache.*</b> counters.
+ */
+@Slf4j
+@Component
+public class EmployeeSnapshotCache implements MeterBinder {
+
+    private final Duration ttl;
+    private final Duration maxStale;
+    private final Clock clock;
+    private final ExecutorService refreshExecutor;
+
+    private final AtomicReference<EmployeeSnapshot> current = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicReference<CompletableFuture<EmployeeSnapshot>> pendingLoad = new AtomicReference<>();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final List<EmployeeDelta> deltasDuringLoad = new ArrayList<>();
+    private boolean loading;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+
+    @Autowired
+    public EmployeeSnapshotCache(
+            @Value("${api.cache.ttl}") long ttl, @Value("${api.cache.max-stale}") long maxStale) {
+        this(Duration.ofMillis(ttl), Duration.ofMillis(maxStale), Clock.systemUTC(), newRefreshExecutor());
+    }
+
+    public EmployeeSnapshotCache(
+            @NonNull Duration ttl,
+            @NonNull Duration maxStale,
+            @NonNull Clock clock,
+            @NonNull ExecutorService refreshExecutor) {
+        this.ttl = ttl;
+        this.maxStale = maxStale;
+        this.clock = clock;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * Returns the current {@link EmployeeSnapshot}, loading it with the specified <b>loader</b>
+     * when there is none, or when the current one is too old to be served.
+     *
+     * @param loader    Fetches or revalidates the full employee list from the version 1 API
+     * @return          Returns the {@link EmployeeSnapshot} to serve the read from
+     */
+    public EmployeeSnapshot get(@NonNull EmployeeLoader loader) {
+        var snapshot = current.get();
+        var served = serve(snapshot, loader);
+        if (served != null) {
+            return served;
+        }
+
+        misses.incrementAndGet();
+        return load(loader, snapshot);
+    }
+
+    /**
+     * Returns the current {@link EmployeeSnapshot} as {@link #get(EmployeeLoader)} does, without
+     * ever blocking the caller on a load. A snapshot that has to be loaded is loaded on the refresh
+     * thread, and concurrent callers share that load, so however many callers wait on the version 1
+     * API, a single thread does.
+     *
+     * @param loader    Fetches or revalidates the full employee list from the version 1 API
+     * @return          Returns a {@link CompletableFuture} of the {@link EmployeeSnapshot} to serve
+     *                  the read from, completed exceptionally if the load fails
+     */
+    public CompletableFuture<EmployeeSnapshot> getAsync(@NonNull EmployeeLoader loader) {
+        var snapshot = current.get();
+        var served = serve(snapshot, loader);
+        if (served != null) {
+            return CompletableFuture.completedFuture(served);
+        }
+
+        misses.incrementAndGet();
+        var load = new CompletableFuture<EmployeeSnapshot>();
+        var shared = pendingLoad.compareAndExchange(null, load);
+        if (shared != null) {
+            return shared;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    var loaded = load(loader, snapshot);
+                    pendingLoad.compareAndSet(load, null);
+                    load.complete(loaded);
+                } catch (RuntimeException ex) {
+                    pendingLoad.compareAndSet(load, null);
+                    load.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            pendingLoad.compareAndSet(load, null);
+            load.completeExceptionally(ex);
+        }
+        return load;
+    }
+
+    /**
+     * Applies the specified <b>delta</b> to the current snapshot, bumping its version. Nothing is
+     * applied when there is no snapshot yet, the next load will reflect the change.
+     *
+     * @param delta    The change made through the version 1 API
+     */
+    public void apply(@NonNull EmployeeDelta delta) {
+        synchronized (deltasDuringLoad) {
+            if (loading) {
+                deltasDuringLoad.add(delta);
+            }
+            var snapshot = current.updateAndGet(previous -> previous == null ? null : previous.apply(delta));
+            if (snapshot != null) {
+                log.debug("Applied {} to employee snapshot, now v{}.", delta, snapshot.version());
+            }
+        }
+    }
+
+    /**
+     * Applies the specified <b>deltas</b> of one batch to the current snapshot, deriving and
+     * publishing it once, with a single version bump. Nothing is applied when there is no snapshot
+     * yet, the next load will reflect the changes.
+     *
+     * @param deltas    The changes made through the version 1 API, in order
+     */
+    public void applyAll(@NonNull List<EmployeeDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        synchronized (deltasDuringLoad) {
+            if (loading) {
+                deltasDuringLoad.addAll(deltas);
+            }
+            var snapshot = current.updateAndGet(previous -> previous == null ? null : previous.applyAll(deltas));
+            if (snapshot != null) {
+                log.debug("Applied {} changes to employee snapshot, now v{}.", deltas.size(), snapshot.version());
+            }
+        }
+    }
+
+    /**
+     * Applies <b>deltas</b> pushed by the version 1 change feed, which moved the employee list from
+     * the entity tag <b>from</b> to <b>to</b>. A snapshot held at either tag is known to be current
+     * once they are applied, so it is confirmed: its age is reset and it takes the tag <b>to</b>.
+     * Any other snapshot only has the deltas applied, and keeps aging towards a regular load. Tags
+     * are compared by {@link EntityTags#matches(String, String) opaque value}, so a snapshot loaded
+     * from a compressed, weakly tagged response is confirmed as well.
+     *
+     * <p>Called with no deltas and equal tags, this confirms a snapshot still at that tag.
+     *
+     * @param deltas    The changes pushed by the feed, in order
+     * @param from      The entity tag of the list before the <b>deltas</b>
+     * @param to        The entity tag of the list after the <b>deltas</b>
+     */
+    public void applyFromFeed(@NonNull List<EmployeeDelta> deltas, @NonNull String from, @NonNull String to) {
+        synchronized (deltasDuringLoad) {
+            if (loading) {
+                deltasDuringLoad.addAll(deltas);
+            }
+            current.updateAndGet(previous -> {
+                if (previous == null) {
+                    return null;
+                }
+                if (EntityTags.matches(from, previous.etag()) || EntityTags.matches(to, previous.etag())) {
+                    return previous.syncedWith(deltas, clock.instant(), to);
+                }
+                var applied = previous;
+                for (var delta : deltas) {
+                    applied = applied.apply(delta);
+                }
+                return applied;
+            });
+        }
+    }
+
+    /**
+     * Marks the current snapshot as too old to be served, so that the next read loads the list
+     * again. The snapshot stays available as {@link #lastGood()}.
+     */
+    public void expire() {
+        synchronized (deltasDuringLoad) {
+            current.updateAndGet(previous -> previous == null ? null : previous.revalidatedAt(Instant.EPOCH));
+        }
+    }
+
+    /**
+     * Returns the current {@link EmployeeSnapshot} if it is still young enough to be served,
+     * without ever loading or refreshing it.
+     *
+     * @return    Returns an {@link Optional} of the current {@link EmployeeSnapshot}
+     */
+    public Optional<EmployeeSnapshot> peek() {
+        var snapshot = current.get();
+        if (snapshot == null || snapshot.age(clock.instant()).compareTo(ttl.plus(maxStale)) > 0) {
+            return Optional.empty();
+        }
+        return Optional.of(snapshot);
+    }
+
+    /**
+     * Returns the last snapshot loaded, however old, without ever loading or refreshing it. Used
+     * as a fallback while the version 1 API is unavailable.
+     *
+     * @return    Returns an {@link Optional} of the last {@link EmployeeSnapshot}
+     */
+    public Optional<EmployeeSnapshot> lastGood() {
+        return Optional.ofNullable(current.get());
+    }
+
+    /**
+     * @param snapshot    The snapshot to check
+     * @return            Returns <em>true</em> if the <b>snapshot</b> is no older than the <em>ttl</em>
+     */
+    public boolean isFresh(@NonNull EmployeeSnapshot snapshot) {
+        return snapshot.age(clock.instant()).compareTo(ttl) <= 0;
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(hits.get(), staleHits.get(), misses.get(), refreshes.get(), refreshFailures.get());
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("employee.cache.hits", hits, AtomicLong::get)
+                .description("Reads served from a cached employee snapshot, fresh or stale")
+                .register(registry);
+        FunctionCounter.builder("employee.cache.stale.hits", staleHits, AtomicLong::get)
+                .description("Reads served from a stale employee snapshot while it was being refreshed")
+                .register(registry);
+        FunctionCounter.builder("employee.cache.misses", misses, AtomicLong::get)
+                .description("Reads that had to wait for an employee snapshot to be loaded")
+                .register(registry);
+        FunctionCounter.builder("employee.cache.refreshes", refreshes, AtomicLong::get)
+                .description("Employee snapshots loaded from the version 1 API")
+                .register(registry);
+        FunctionCounter.builder("employee.cache.refresh.failures", refreshFailures, AtomicLong::get)
+                .description("Background employee snapshot refreshes that failed")
+                .register(registry);
+    }
+
+    /*
+     * Serves the snapshot if it is young enough, refreshing it in the background once stale.
+     * Returns null when it has to be loaded first.
+     */
+    private EmployeeSnapshot serve(EmployeeSnapshot snapshot, EmployeeLoader loader) {
+        if (snapshot == null) {
+            return null;
+        }
+        var age = snapshot.age(clock.instant());
+        if (age.compareTo(ttl) <= 0) {
+            hits.incrementAndGet();
+            return snapshot;
+        }
+        if (age.compareTo(ttl.plus(maxStale)) <= 0) {
+            hits.incrementAndGet();
+            staleHits.incrementAndGet();
+            refreshAsync(loader);
+            return snapshot;
+        }
+        return null;
+    }
+
+    private EmployeeSnapshot load(EmployeeLoader loader, EmployeeSnapshot seen) {
+        loadLock.lock();
+        try {
+            // Another caller may have loaded the snapshot while we were waiting on the lock
+            var snapshot = current.get();
+            if (snapshot != null && snapshot != seen) {
+                return snapshot;
+            }
+            return replace(loader);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void refreshAsync(EmployeeLoader loader) {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            loadLock.lock();
+            try {
+                replace(loader);
+            } catch (RuntimeException ex) {
+                refreshFailures.incrementAndGet();
+                log.warn("Unable to refresh employee snapshot, serving the stale one.", ex);
+            } finally {
+                loadLock.unlock();
+                refreshing.set(false);
+            }
+        });
+    }
+
+    private EmployeeSnapshot replace(EmployeeLoader loader) {
+        synchronized (deltasDuringLoad) {
+            loading = true;
+            deltasDuringLoad.clear();
+        }
+        try {
+            var held = current.get();
+            var loaded = loader.load(held == null ? null : held.etag());
+            EmployeeSnapshot snapshot;
+            synchronized (deltasDuringLoad) {
+                var fetchedAt = clock.instant();
+                var previous = current.get();
+                if (loaded.isNotModified()) {
+                    if (previous == null) {
+                        throw new IllegalStateException("Employee list reported unchanged, but none is held.");
+                    }
+                    snapshot = previous.revalidatedAt(fetchedAt);
+                } else if (loaded.changes() != null) {
+                    if (previous == null) {
+                        throw new IllegalStateException("Employee changes reported, but no list is held.");
+                    }
+                    snapshot = previous.syncedWith(loaded.changes(), fetchedAt, loaded.etag());
+                } else if (previous == null) {
+                    snapshot = EmployeeSnapshot.of(loaded.employees(), fetchedAt, loaded.etag());
+                } else {
+                    snapshot = previous.replacedWith(loaded.employees(), fetchedAt, loaded.etag());
+                }
+                for (var delta : deltasDuringLoad) {
+                    snapshot = snapshot.apply(delta);
+                }
+                current.set(snapshot);
+            }
+            refreshes.incrementAndGet();
+            log.debug(
+                    "Loaded employee snapshot v{} with {} employees.",
+                    snapshot.version(),
+                    snapshot.employees().size());
+            return snapshot;
+        } finally {
+            synchronized (deltasDuringLoad) {
+                loading = false;
+                deltasDuringLoad.clear();
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private static ExecutorService newRefreshExecutor() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "employee-snapshot-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Point in time counters of an {@link EmployeeSnapshotCache}.
+     *
+     * @param hits               Reads served from a cached snapshot, fresh or stale
+     * @param staleHits          Reads served from a stale snapshot while it was being refreshed
+     * @param misses             Reads that had to wait for a snapshot to be loaded
+     * @param refreshes          Snapshots loaded from the version 1 API
+     * @param refreshFailures    Background refreshes that failed
+     */
+    public record CacheStats(long hits, long staleHits, long misses, long refreshes, long refreshFailures) {}
+}
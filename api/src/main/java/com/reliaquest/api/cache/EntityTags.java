@@ -0,0 +1,35 @@
+package com.reliaquest.api.cache;
+
+/**
+ * Comparison of the entity tags of the version 1 employee list.
+ *
+ * <p>The same list may be tagged <em>"v"</em> or, once the response was compressed on its way,
+ * <em>W/"v"</em>, and the change feed names it by the bare event id <em>v</em>. Tags are therefore
+ * compared by their opaque value, as the weak comparison of RFC 9110 does.
+ */
+public final class EntityTags {
+
+    private EntityTags() {}
+
+    /**
+     * @param etag    The entity tag, weak or strong, quoted or not
+     * @return        Returns the opaque value of the <b>etag</b>, without the weak prefix and the
+     *                quotes, or <em>null</em> if the <b>etag</b> is <em>null</em>
+     */
+    public static String opaqueValue(String etag) {
+        if (etag == null) {
+            return null;
+        }
+        var tag = etag.startsWith("W/") ? etag.substring(2) : etag;
+        return tag.length() > 1 && tag.startsWith("\"") && tag.endsWith("\"")
+                ? tag.substring(1, tag.length() - 1)
+                : tag;
+    }
+
+    /**
+     * @return    Returns <em>true</em> if both entity tags are present and have the same opaque value
+     */
+    public static boolean matches(String etag, String other) {
+        return etag != null && other != null && opaqueValue(etag).equals(opaqueValue(other));
+    }
+}
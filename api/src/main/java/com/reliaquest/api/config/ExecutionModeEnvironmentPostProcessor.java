@@ -0,0 +1,58 @@
+package com.reliaquest.api.config;
+
+import java.util.Map;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Configures how the version 2 API executes requests, selected with <em>api.execution.mode</em>:
+ * <ul>
+ *     <li><b>blocking</b> - every request holds a Tomcat platform thread, bounded by
+ *     <em>server.tomcat.threads.max</em></li>
+ *     <li><b>virtual</b> - every request runs on its own virtual thread, so a slow version 1 API parks
+ *     cheap virtual threads instead of exhausting the Tomcat pool, Java 21 or newer</li>
+ *     <li><b>async</b> - reads waiting on a snapshot load are suspended as async requests, releasing
+ *     their Tomcat thread, and share a single loading thread, see
+ *     {@link com.reliaquest.api.web.AsyncSnapshotInterceptor}</li>
+ * </ul>
+ *
+ * <p>The <b>virtual</b> mode is a default for Spring Boot's <em>spring.threads.virtual.enabled</em>,
+ * which also moves the application task executor and scheduler onto virtual threads. Setting that
+ * property explicitly takes precedence over the mode.
+ *
+ * <p>The request path only blocks on {@link java.util.concurrent.locks.ReentrantLock locks},
+ * futures and sockets, none of which pin a virtual thread to its carrier. Upstream concurrency
+ * is still bounded by the connection pool and the upstream budget.
+ *
+ * @implNote Spring Boot ignores <em>spring.threads.virtual.enabled</em> below Java 21, so the
+ * <b>virtual</b> mode fails the startup on an older runtime instead of silently blocking.
+ */
+public class ExecutionModeEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String MODE = "api.execution.mode";
+    static final String VIRTUAL_THREADS = "spring.threads.virtual.enabled";
+
+    private static final String PROPERTY_SOURCE = "apiExecutionMode";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        var mode = environment.getProperty(MODE, "blocking");
+        switch (mode) {
+            case "blocking" -> {}
+            case "virtual" -> {
+                if (Runtime.version().feature() < 21) {
+                    throw new IllegalStateException(
+                            MODE + "=virtual requires Java 21 or newer, running on " + Runtime.version());
+                }
+                environment
+                        .getPropertySources()
+                        .addLast(new MapPropertySource(PROPERTY_SOURCE, Map.of(VIRTUAL_THREADS, "true")));
+            }
+            case "async" -> {}
+            default -> throw new IllegalStateException(
+                    "Unknown " + MODE + " '" + mode + "', expected blocking, virtual or async.");
+        }
+    }
+}
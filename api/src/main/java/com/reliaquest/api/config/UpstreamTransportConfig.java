@@ -0,0 +1,154 @@
+package com.reliaquest.api.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+/**
+ * Configures the HTTP transport used to call the version 1 API.
+ *
+ * <p>The transport is selected with <em>api.http.client</em>:
+ * <ul>
+ *     <li><b>pooled</b> - Apache HttpClient with a tuned connection pool, keep-alive and idle eviction</li>
+ *     <li><b>jdk</b> - the JDK {@link HttpClient}, which can negotiate HTTP/2 with <em>api.http.http2</em></li>
+ *     <li><b>simple</b> - {@link java.net.HttpURLConnection}, the transport used before pooling was added</li>
+ * </ul>
+ *
+ * <p>The latency of the three under concurrent load is compared by the
+ * <em>UpstreamTransportBenchmark</em> of the benchmarks module.
+ */
+@Slf4j
+@Configuration
+public class UpstreamTransportConfig {
+
+    public enum HttpClientType {
+        POOLED,
+        JDK,
+        SIMPLE
+    }
+
+    private final long connectionTimeout;
+    private final long readTimeout;
+    private final HttpClientType httpClient;
+    private final int maxConnections;
+    private final int maxConnectionsPerRoute;
+    private final long keepAlive;
+    private final long idleEviction;
+    private final boolean http2;
+
+    public UpstreamTransportConfig(
+            @Value("${api.connection-timeout}") long connectionTimeout,
+            @Value("${api.read-timeout}") long readTimeout,
+            @Value("${api.http.client}") HttpClientType httpClient,
+            @Value("${api.http.max-connections}") int maxConnections,
+            @Value("${api.http.max-connections-per-route}") int maxConnectionsPerRoute,
+            @Value("${api.http.keep-alive}") long keepAlive,
+            @Value("${api.http.idle-eviction}") long idleEviction,
+            @Value("${api.http.http2}") boolean http2) {
+        this.connectionTimeout = connectionTimeout;
+        this.readTimeout = readTimeout;
+        this.httpClient = httpClient;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.keepAlive = keepAlive;
+        this.idleEviction = idleEviction;
+        this.http2 = http2;
+    }
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager upstreamConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectionTimeout))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(1))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory upstreamRequestFactory(PoolingHttpClientConnectionManager connectionManager) {
+        log.info("Using the {} HTTP client for upstream requests.", httpClient);
+        return switch (httpClient) {
+            case POOLED -> pooledRequestFactory(connectionManager);
+            case JDK -> jdkRequestFactory();
+            case SIMPLE -> simpleRequestFactory();
+        };
+    }
+
+    /**
+     * Exports the state of the upstream connection pool. The gauges read zero unless the
+     * <b>pooled</b> HTTP client is in use.
+     */
+    @Bean
+    public MeterBinder upstreamConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return registry -> {
+            gauge(registry, connectionManager, "leased", "Connections leased to requests", PoolStats::getLeased);
+            gauge(registry, connectionManager, "pending", "Requests waiting for a connection", PoolStats::getPending);
+            gauge(registry, connectionManager, "available", "Idle connections kept for reuse", PoolStats::getAvailable);
+            gauge(registry, connectionManager, "max", "Maximum number of connections", PoolStats::getMax);
+        };
+    }
+
+    private ClientHttpRequestFactory pooledRequestFactory(PoolingHttpClientConnectionManager connectionManager) {
+        var client = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAlive))
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEviction))
+                .build();
+        return new HttpComponentsClientHttpRequestFactory(client);
+    }
+
+    private ClientHttpRequestFactory jdkRequestFactory() {
+        var client = HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectionTimeout))
+                .build();
+        var factory = new JdkClientHttpRequestFactory(client);
+        factory.setReadTimeout(Duration.ofMillis(readTimeout));
+        return factory;
+    }
+
+    private ClientHttpRequestFactory simpleRequestFactory() {
+        var factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout((int) connectionTimeout);
+        factory.setReadTimeout((int) readTimeout);
+        return factory;
+    }
+
+    private static void gauge(
+            MeterRegistry registry,
+            PoolingHttpClientConnectionManager connectionManager,
+            String name,
+            String description,
+            ToDoubleFunction<PoolStats> stat) {
+        Gauge.builder("upstream.http.pool." + name, connectionManager, cm -> stat.applyAsDouble(cm.getTotalStats()))
+                .description(description)
+                .register(registry);
+    }
+}
@@ -5,6 +5,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
@@ -12,23 +14,24 @@ public class WebConfig {
     @Value("${api.server-uri}")
     private String serverUri;
 
-    @Value("${api.connection-timeout}")
-    private long connectionTimeout;
-
-    @Value("${api.read-timeout}")
-    private long readTimeout;
-
     @Value("${api.read-timeout}")
     private long itConnectionTimeout;
 
     @Value("${api.read-timeout}")
     private long itReadTimeout;
 
+    /*
+     * Timeouts are applied by the upstream request factory, see UpstreamTransportConfig. The
+     * response format is negotiated by the wire format interceptor, see WireFormatConfig.
+     */
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public RestTemplate restTemplate(
+            RestTemplateBuilder builder,
+            ClientHttpRequestFactory upstreamRequestFactory,
+            ClientHttpRequestInterceptor upstreamWireFormatInterceptor) {
         return builder.rootUri(serverUri)
-                .setConnectTimeout(Duration.ofMillis(connectionTimeout))
-                .setReadTimeout(Duration.ofMillis(readTimeout))
+                .requestFactory(() -> upstreamRequestFactory)
+                .additionalInterceptors(upstreamWireFormatInterceptor)
                 .build();
     }
 
@@ -0,0 +1,69 @@
+package com.reliaquest.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Configures the format the version 1 API is asked to respond in, selected with
+ * <em>api.wire-format</em>:
+ * <ul>
+ *     <li><b>json</b> - the <em>employee_</em> prefixed JSON</li>
+ *     <li><b>smile</b> - Smile, a binary encoding of the same model that back-references repeated
+ *     field names and is cheaper to parse. JSON is still accepted, as a fallback for a version 1
+ *     API that cannot produce Smile</li>
+ * </ul>
+ *
+ * <p>Only the <em>Accept</em> header of reads is negotiated, request bodies are always sent as JSON.
+ */
+@Slf4j
+@Configuration
+public class WireFormatConfig {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private static final MediaType JSON_FALLBACK = new MediaType(MediaType.APPLICATION_JSON, Map.of("q", "0.5"));
+
+    public enum WireFormat {
+        JSON,
+        SMILE
+    }
+
+    @Value("${api.wire-format}")
+    private WireFormat wireFormat;
+
+    /*
+     * Also lets clients of the version 2 API ask for Smile, JSON stays the default.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+    }
+
+    /**
+     * Replaces the <em>Accept</em> header of every upstream request that accepts JSON with the
+     * configured wire format.
+     */
+    @Bean
+    public ClientHttpRequestInterceptor upstreamWireFormatInterceptor() {
+        log.info("Negotiating the {} wire format with the version 1 API.", wireFormat);
+        var accept = switch (wireFormat) {
+            case JSON -> List.of(MediaType.APPLICATION_JSON);
+            case SMILE -> List.of(APPLICATION_SMILE, JSON_FALLBACK);
+        };
+        return (request, body, execution) -> {
+            if (request.getHeaders().getAccept().stream().anyMatch(MediaType.APPLICATION_JSON::isCompatibleWith)) {
+                request.getHeaders().setAccept(accept);
+            }
+            return execution.execute(request, body);
+        };
+    }
+}
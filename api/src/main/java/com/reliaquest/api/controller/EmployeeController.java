@@ -1,15 +1,25 @@
 package com.reliaquest.api.controller;
 
+import com.reliaquest.api.index.NameWordIndex;
 import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.SalaryStatistics;
 import com.reliaquest.api.service.EmployeeService;
 import com.reliaquest.server.controller.MockEmployeeController;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
+import com.reliaquest.server.model.Response;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v2/employee")
@@ -31,6 +41,35 @@ public class EmployeeController implements IEmployeeController<Employee, CreateM
         return ResponseEntity.ok(employeeService.getAllEmployees());
     }
 
+    /**
+     * Get a list of the employees matching the specified <b>filter</b>, a <em>;</em> separated list
+     * of <em>field:value</em> clauses over <em>title</em>, email <em>domain</em>, and <em>salary</em>
+     * and <em>age</em> ranges, e.g. <em>title:Software Engineer;salary:50000..90000;age:30..</em>.
+     *
+     * @param filter    The filter query
+     * @return          Returns a list of {@link Employee} objects
+     */
+    @GetMapping(params = "filter")
+    public ResponseEntity<List<Employee>> getEmployees(@RequestParam String filter) {
+        return ResponseEntity.ok(employeeService.getEmployees(filter));
+    }
+
+    /**
+     * Stream <em>all</em> employees, optionally filtered by name, as a JSON array.
+     *
+     * <p>Unlike {@link #getAllEmployees()} no list is copied for the response, the employees are
+     * written one at a time, see {@link EmployeeService#streamEmployees(String, java.io.OutputStream)}.
+     *
+     * @param search    The optional case-insensitive name substring to filter employees by
+     * @return          Returns a JSON array of {@link Employee} objects
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEmployees(@RequestParam(required = false) String search) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> employeeService.streamEmployees(search, out));
+    }
+
     /**
      * Get a list of employees whose names match the specified <b>searchString</b>.
      *
@@ -43,6 +82,33 @@ public class EmployeeController implements IEmployeeController<Employee, CreateM
         return ResponseEntity.ok(employeeService.getEmployeesByNameSearch(searchString));
     }
 
+    /**
+     * Get a list of employees whose names match the specified <b>searchString</b> in the specified
+     * <b>mode</b>: <em>substring</em>, <em>prefix</em> or <em>fuzzy</em>.
+     *
+     * @param searchString  The search string to filter employees by
+     * @param mode          How names are matched
+     * @param distance      The maximum edit distance per word in fuzzy mode, one by default
+     * @return              Returns a list of {@link Employee} objects
+     */
+    @GetMapping(value = "/search/{searchString}", params = "mode")
+    public ResponseEntity<List<Employee>> getEmployeesByNameSearch(
+            @PathVariable String searchString,
+            @RequestParam String mode,
+            @RequestParam(defaultValue = "1") int distance) {
+        EmployeeService.SearchMode searchMode;
+        try {
+            searchMode = EmployeeService.SearchMode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown search mode '" + mode + "'.");
+        }
+        if (distance < 0 || distance > NameWordIndex.MAX_DISTANCE) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "Distance must be between 0 and " + NameWordIndex.MAX_DISTANCE + ".");
+        }
+        return ResponseEntity.ok(employeeService.getEmployeesByNameSearch(searchString, searchMode, distance));
+    }
+
     /**
      * Get an employee by their unique identifier.
      *
@@ -79,6 +145,60 @@ public class EmployeeController implements IEmployeeController<Employee, CreateM
         return ResponseEntity.ok(employeeService.getTopTenHighestEarningEmployeeNames());
     }
 
+    /**
+     * Get the <em>top k</em> highest earning employees.
+     *
+     * @param k     The number of employees to return, ten by default
+     * @return      Returns a {@linkplain List} of {@link Employee} objects, highest salary first
+     */
+    @GetMapping("/topEarners")
+    public ResponseEntity<List<Employee>> getTopEarners(@RequestParam(defaultValue = "10") int k) {
+        if (k < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "k must be at least 1.");
+        }
+        return ResponseEntity.ok(employeeService.getTopEarners(k));
+    }
+
+    /**
+     * Get the salary percentiles of all employees, estimated within 1%.
+     *
+     * @param p     The percentiles to estimate, between 0 and 100, the median, p90 and p99 by default
+     * @return      Returns the estimated salary keyed by percentile, e.g. <em>p50</em>
+     */
+    @GetMapping("/salaryPercentiles")
+    public ResponseEntity<Map<String, Integer>> getSalaryPercentiles(
+            @RequestParam(defaultValue = "50,90,99") List<Double> p) {
+        if (p.stream().anyMatch(percentile -> percentile == null || !(percentile >= 0 && percentile <= 100))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Percentiles must be between 0 and 100.");
+        }
+        var percentiles = new LinkedHashMap<String, Integer>();
+        employeeService
+                .getSalaryPercentiles(p)
+                .forEach((percentile, salary) -> percentiles.put(
+                        "p" + BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString(), salary));
+        return ResponseEntity.ok(percentiles);
+    }
+
+    /**
+     * Get the count, total, minimum, maximum and average salary per title.
+     *
+     * @return      Returns the {@link SalaryStatistics} keyed by title
+     */
+    @GetMapping("/salaryStatistics/byTitle")
+    public ResponseEntity<Map<String, SalaryStatistics>> getSalaryStatisticsByTitle() {
+        return ResponseEntity.ok(employeeService.getSalaryStatisticsByTitle());
+    }
+
+    /**
+     * Get the count, total, minimum, maximum and average salary per age band, e.g. <em>30-39</em>.
+     *
+     * @return      Returns the {@link SalaryStatistics} keyed by age band, youngest first
+     */
+    @GetMapping("/salaryStatistics/byAgeBand")
+    public ResponseEntity<Map<String, SalaryStatistics>> getSalaryStatisticsByAgeBand() {
+        return ResponseEntity.ok(employeeService.getSalaryStatisticsByAgeBand());
+    }
+
     /**
      * Create a new employee.
      *
@@ -93,6 +213,19 @@ public class EmployeeController implements IEmployeeController<Employee, CreateM
                 .body(employee);
     }
 
+    /**
+     * Create a batch of new employees, using a single call to api version 1.
+     *
+     * @param employeeInputs    The {@link CreateMockEmployeeInput inputs} of the employees to create
+     * @return                  Returns a {@link Response} per input, in input order, holding the
+     *                          created {@link Employee} or the reason it was not created
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<Response<Employee>>> createEmployees(
+            @RequestBody List<CreateMockEmployeeInput> employeeInputs) {
+        return ResponseEntity.ok(employeeService.createEmployees(employeeInputs));
+    }
+
     /**
      * Delete an employee by their unique identifier.
      *
@@ -106,4 +239,16 @@ public class EmployeeController implements IEmployeeController<Employee, CreateM
     public ResponseEntity<String> deleteEmployeeById(@PathVariable String id) {
         return ResponseEntity.ok(employeeService.deleteEmployee(id));
     }
+
+    /**
+     * Delete a batch of employees by their unique identifiers, using a single call to api version 1.
+     *
+     * @param ids   The unique identifiers of the employees to delete
+     * @return      Returns a {@link Response} per identifier, in input order, holding the deleted
+     *              employee's name or the reason it was not deleted
+     */
+    @DeleteMapping("/batch")
+    public ResponseEntity<List<Response<String>>> deleteEmployees(@RequestBody List<String> ids) {
+        return ResponseEntity.ok(employeeService.deleteEmployees(ids));
+    }
 }
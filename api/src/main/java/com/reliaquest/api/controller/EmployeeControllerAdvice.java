@@ -1,10 +1,19 @@
 package com.reliaquest.api.controller;
 
+import com.reliaquest.api.index.MalformedFilterException;
+import com.reliaquest.api.upstream.UpstreamRateLimitedException;
+import com.reliaquest.api.upstream.UpstreamUnavailableException;
 import com.reliaquest.server.model.Response;
+import java.time.Duration;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ResponseStatusException;
 
 @Slf4j
 @ControllerAdvice
@@ -15,4 +24,49 @@ public class EmployeeControllerAdvice {
         log.error("Error handling web request.", ex);
         return ResponseEntity.internalServerError().body(Response.error(ex.getMessage()));
     }
+
+    @ExceptionHandler
+    protected ResponseEntity<?> handleResponseStatus(ResponseStatusException ex) {
+        log.debug("Rejected web request: {}", ex.getReason());
+        return ResponseEntity.status(ex.getStatusCode()).body(Response.error(ex.getReason()));
+    }
+
+    @ExceptionHandler
+    protected ResponseEntity<?> handleMalformedFilter(MalformedFilterException ex) {
+        log.debug("Rejected web request: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body(Response.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler
+    protected ResponseEntity<?> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        log.debug("Rejected web request, invalid parameter '{}'.", ex.getName());
+        return ResponseEntity.badRequest().body(Response.error("Invalid value for parameter '" + ex.getName() + "'."));
+    }
+
+    @ExceptionHandler
+    protected ResponseEntity<?> handleMissingParameter(MissingServletRequestParameterException ex) {
+        log.debug("Rejected web request, missing parameter '{}'.", ex.getParameterName());
+        return ResponseEntity.badRequest()
+                .body(Response.error("Missing required parameter '" + ex.getParameterName() + "'."));
+    }
+
+    @ExceptionHandler
+    protected ResponseEntity<?> handleRateLimited(UpstreamRateLimitedException ex) {
+        log.warn("Upstream rate limited web request, retry after {}.", ex.getRetryAfter());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(ex.getRetryAfter()))
+                .body(Response.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler
+    protected ResponseEntity<?> handleUnavailable(UpstreamUnavailableException ex) {
+        log.warn("Upstream unavailable for web request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(ex.getRetryAfter()))
+                .body(Response.error(ex.getMessage()));
+    }
+
+    private static String retryAfterSeconds(Duration retryAfter) {
+        return String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+    }
 }
@@ -0,0 +1,214 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.model.Employee;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import lombok.NonNull;
+
+/**
+ * Immutable per-field indexes of an employee list, used to plan an {@link EmployeeFilter}:
+ * <ul>
+ *     <li>the slots of the employees sorted by salary, so the employees in a salary range are
+ *     found and counted with two binary searches</li>
+ *     <li>the ascending slots of the employees per lowercased title</li>
+ * </ul>
+ *
+ * <p>The slots are those of the {@link SlotVector} of the list, which do not shift when an
+ * employee is removed.
+ *
+ * <p>{@link #candidates(EmployeeFilter)} drives the filter from the most selective indexed
+ * clause, whose size is known exactly before any employee is tested. The remaining clauses are
+ * checked by the filter itself.
+ *
+ * <p>{@link #plus(Employee)} and {@link #minus(int, Employee)} derive the indexes of the next
+ * employee list without sorting again. They insert into or remove from the salary order with one
+ * array copy, and touch the changed employee's title only.
+ */
+public final class EmployeeFieldIndex {
+
+    private final int[] salaries;
+    private final int[] bySalary;
+    private final HashTrie<String, int[]> byTitle;
+    private final int size;
+    private final int slots;
+
+    private EmployeeFieldIndex(
+            int[] salaries, int[] bySalary, HashTrie<String, int[]> byTitle, int size, int slots) {
+        this.salaries = salaries;
+        this.bySalary = bySalary;
+        this.byTitle = byTitle;
+        this.size = size;
+        this.slots = slots;
+    }
+
+    /**
+     * Builds the indexes of the specified <b>employees</b>.
+     *
+     * @param employees    The employee list, in order
+     * @return             Returns a new instance of {@link EmployeeFieldIndex}
+     */
+    public static EmployeeFieldIndex of(@NonNull List<Employee> employees) {
+        var packed = new long[employees.size()];
+        var count = 0;
+        for (int position = 0; position < employees.size(); position++) {
+            var salary = employees.get(position).salary();
+            if (salary != null) {
+                packed[count++] = ((long) salary << 32) | position;
+            }
+        }
+        Arrays.sort(packed, 0, count);
+        var salaries = new int[count];
+        var bySalary = new int[count];
+        for (int i = 0; i < count; i++) {
+            salaries[i] = (int) (packed[i] >> 32);
+            bySalary[i] = (int) packed[i];
+        }
+
+        var builders = new HashMap<String, IntList>();
+        for (int position = 0; position < employees.size(); position++) {
+            var title = lowerTitle(employees.get(position));
+            if (title != null) {
+                builders.computeIfAbsent(title, ignored -> new IntList()).add(position);
+            }
+        }
+        var byTitle = HashTrie.<String, int[]>empty();
+        for (var entry : builders.entrySet()) {
+            byTitle = byTitle.plus(entry.getKey(), entry.getValue().toArray());
+        }
+        return new EmployeeFieldIndex(salaries, bySalary, byTitle, employees.size(), employees.size());
+    }
+
+    /**
+     * Selects the employees to test against the specified <b>filter</b>, from the indexed clause
+     * matching the fewest employees.
+     *
+     * @param filter    The compiled filter
+     * @return          Returns the candidate slots in ascending order, or <em>null</em> when no
+     *                  indexed clause narrows the list and every employee has to be tested
+     */
+    public int[] candidates(@NonNull EmployeeFilter filter) {
+        int[] best = null;
+        var bestSize = size;
+        if (filter.title() != null) {
+            var positions = byTitle.getOrDefault(filter.title(), Postings.NONE);
+            if (positions.length < bestSize) {
+                best = positions;
+                bestSize = positions.length;
+            }
+        }
+        if (filter.salaryBounded()) {
+            var from = lowerBound(salaries, filter.minSalary());
+            var to = upperBound(salaries, filter.maxSalary());
+            if (to - from < bestSize) {
+                best = Arrays.copyOfRange(bySalary, from, to);
+                Arrays.sort(best);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Derives the indexes after the specified <b>employee</b> was appended to the list.
+     *
+     * @param employee    The created employee
+     * @return            Returns the updated {@link EmployeeFieldIndex}
+     */
+    public EmployeeFieldIndex plus(@NonNull Employee employee) {
+        var slot = slots;
+        var nextSalaries = salaries;
+        var nextBySalary = bySalary;
+        if (employee.salary() != null) {
+            var at = upperBound(salaries, employee.salary());
+            nextSalaries = insert(salaries, at, employee.salary());
+            nextBySalary = insert(bySalary, at, slot);
+        }
+
+        var nextByTitle = byTitle;
+        var title = lowerTitle(employee);
+        if (title != null) {
+            nextByTitle = byTitle.plus(title, Postings.plus(byTitle.getOrDefault(title, Postings.NONE), slot));
+        }
+        return new EmployeeFieldIndex(nextSalaries, nextBySalary, nextByTitle, size + 1, slot + 1);
+    }
+
+    /**
+     * Derives the indexes after the specified <b>employee</b> was removed from the list.
+     *
+     * @param slot        The slot of the deleted employee
+     * @param employee    The deleted employee
+     * @return            Returns the updated {@link EmployeeFieldIndex}
+     */
+    public EmployeeFieldIndex minus(int slot, @NonNull Employee employee) {
+        var nextSalaries = salaries;
+        var nextBySalary = bySalary;
+        if (employee.salary() != null) {
+            var from = lowerBound(salaries, employee.salary());
+            var at = Arrays.binarySearch(bySalary, from, upperBound(salaries, employee.salary()), slot);
+            if (at >= 0) {
+                nextSalaries = remove(salaries, at);
+                nextBySalary = remove(bySalary, at);
+            }
+        }
+
+        var nextByTitle = byTitle;
+        var title = lowerTitle(employee);
+        if (title != null) {
+            var remaining = Postings.minus(byTitle.getOrDefault(title, Postings.NONE), slot);
+            nextByTitle = remaining.length == 0 ? byTitle.minus(title) : byTitle.plus(title, remaining);
+        }
+        return new EmployeeFieldIndex(nextSalaries, nextBySalary, nextByTitle, size - 1, slots);
+    }
+
+    private static int[] insert(int[] values, int at, int value) {
+        var inserted = new int[values.length + 1];
+        System.arraycopy(values, 0, inserted, 0, at);
+        inserted[at] = value;
+        System.arraycopy(values, at, inserted, at + 1, values.length - at);
+        return inserted;
+    }
+
+    private static int[] remove(int[] values, int at) {
+        var removed = new int[values.length - 1];
+        System.arraycopy(values, 0, removed, 0, at);
+        System.arraycopy(values, at + 1, removed, at, removed.length - at);
+        return removed;
+    }
+
+    /**
+     * @return    Returns the index of the first value not less than <b>key</b>
+     */
+    private static int lowerBound(int[] values, int key) {
+        int low = 0, high = values.length;
+        while (low < high) {
+            var mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return    Returns the index of the first value greater than <b>key</b>
+     */
+    private static int upperBound(int[] values, int key) {
+        int low = 0, high = values.length;
+        while (low < high) {
+            var mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String lowerTitle(Employee employee) {
+        return employee.title() == null ? null : employee.title().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,159 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.model.Employee;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.function.Predicate;
+import lombok.NonNull;
+
+/**
+ * A compiled filter over the fields of an {@link Employee}, parsed from a query such as
+ * <em>title:Software Engineer;domain:company.com;salary:50000..90000;age:30..</em>.
+ *
+ * <p>The query is a <em>;</em> separated list of <em>field:value</em> clauses, each field at most
+ * once, and an employee matches when every clause does:
+ * <ul>
+ *     <li><b>title</b> - the title, ignoring case</li>
+ *     <li><b>domain</b> - the domain of the email address, ignoring case</li>
+ *     <li><b>salary</b> and <b>age</b> - an inclusive range <em>min..max</em>, where either bound
+ *     may be left out, or a single value</li>
+ * </ul>
+ *
+ * <p>Parsing compiles every clause into primitive bounds and lowercased strings, so
+ * {@link #test(Employee)} is one fused check per employee rather than a chain of predicates.
+ * Which employees are tested at all is left to the {@link EmployeeFieldIndex}.
+ */
+public final class EmployeeFilter implements Predicate<Employee> {
+
+    private final String title;
+    private final String domainSuffix;
+    private final boolean salaryBounded;
+    private final int minSalary;
+    private final int maxSalary;
+    private final boolean ageBounded;
+    private final int minAge;
+    private final int maxAge;
+
+    private EmployeeFilter(Clauses clauses) {
+        this.title = clauses.title;
+        this.domainSuffix = clauses.domain == null ? null : "@" + clauses.domain;
+        this.salaryBounded = clauses.salary != null;
+        this.minSalary = salaryBounded ? clauses.salary[0] : Integer.MIN_VALUE;
+        this.maxSalary = salaryBounded ? clauses.salary[1] : Integer.MAX_VALUE;
+        this.ageBounded = clauses.age != null;
+        this.minAge = ageBounded ? clauses.age[0] : Integer.MIN_VALUE;
+        this.maxAge = ageBounded ? clauses.age[1] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Parses and compiles the specified <b>query</b>.
+     *
+     * @param query    The filter query
+     * @return         Returns the compiled {@link EmployeeFilter}
+     * @throws MalformedFilterException    If the query is empty or malformed
+     */
+    public static EmployeeFilter parse(@NonNull String query) {
+        var clauses = new Clauses();
+        var fields = new HashSet<String>();
+        for (var clause : query.split(";")) {
+            if (clause.isBlank()) {
+                continue;
+            }
+            var colon = clause.indexOf(':');
+            if (colon < 0) {
+                throw new MalformedFilterException("Filter clause '" + clause.trim() + "' is not field:value.");
+            }
+            var field = clause.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            var value = clause.substring(colon + 1).trim();
+            if (value.isEmpty()) {
+                throw new MalformedFilterException("Filter field '" + field + "' has no value.");
+            }
+            if (!fields.add(field)) {
+                throw new MalformedFilterException("Filter field '" + field + "' is repeated.");
+            }
+            switch (field) {
+                case "title" -> clauses.title = value.toLowerCase(Locale.ROOT);
+                case "domain" -> clauses.domain = value.toLowerCase(Locale.ROOT);
+                case "salary" -> clauses.salary = range(field, value);
+                case "age" -> clauses.age = range(field, value);
+                default -> throw new MalformedFilterException("Unknown filter field '" + field + "'.");
+            }
+        }
+        if (fields.isEmpty()) {
+            throw new MalformedFilterException("Filter cannot be empty.");
+        }
+        return new EmployeeFilter(clauses);
+    }
+
+    @Override
+    public boolean test(Employee employee) {
+        if (salaryBounded) {
+            var salary = employee.salary();
+            if (salary == null || salary < minSalary || salary > maxSalary) {
+                return false;
+            }
+        }
+        if (ageBounded) {
+            var age = employee.age();
+            if (age == null || age < minAge || age > maxAge) {
+                return false;
+            }
+        }
+        if (title != null && (employee.title() == null || !employee.title().equalsIgnoreCase(title))) {
+            return false;
+        }
+        return domainSuffix == null || endsWithIgnoreCase(employee.email(), domainSuffix);
+    }
+
+    /**
+     * @return    Returns the lowercased title to match, or <em>null</em>
+     */
+    String title() {
+        return title;
+    }
+
+    boolean salaryBounded() {
+        return salaryBounded;
+    }
+
+    int minSalary() {
+        return minSalary;
+    }
+
+    int maxSalary() {
+        return maxSalary;
+    }
+
+    private static int[] range(String field, String value) {
+        var dots = value.indexOf("..");
+        try {
+            if (dots < 0) {
+                var exact = Integer.parseInt(value);
+                return new int[] {exact, exact};
+            }
+            var min = value.substring(0, dots).trim();
+            var max = value.substring(dots + 2).trim();
+            var range = new int[] {
+                min.isEmpty() ? Integer.MIN_VALUE : Integer.parseInt(min),
+                max.isEmpty() ? Integer.MAX_VALUE : Integer.parseInt(max)
+            };
+            if (range[0] > range[1]) {
+                throw new MalformedFilterException("Filter field '" + field + "' has an empty range.");
+            }
+            return range;
+        } catch (NumberFormatException e) {
+            throw new MalformedFilterException("Filter field '" + field + "' is not a number or min..max range.");
+        }
+    }
+
+    private static boolean endsWithIgnoreCase(String value, String suffix) {
+        return value != null && value.regionMatches(true, value.length() - suffix.length(), suffix, 0, suffix.length());
+    }
+
+    private static final class Clauses {
+        private String title;
+        private String domain;
+        private int[] salary;
+        private int[] age;
+    }
+}
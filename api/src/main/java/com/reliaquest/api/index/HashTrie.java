@@ -0,0 +1,322 @@
+package com.reliaquest.api.index;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+import lombok.NonNull;
+
+/**
+ * Immutable hash array mapped trie, the persistent map behind the snapshot and index lookups.
+ *
+ * <p>Keys are spread over a tree of 32-way nodes by five bits of their hash per level, every node
+ * holding only the branches in use, as flagged by its bitmap. {@link #plus(Object, Object)} and
+ * {@link #minus(Object)} copy the few nodes on the path to the key and share every other node with
+ * this map, so deriving the next map costs O(log32 n) instead of a copy of every entry. Keys whose
+ * hashes fully collide are kept together in a collision node.
+ *
+ * <p>Neither keys nor values may be <em>null</em>.
+ *
+ * @param <K>    The type of the keys
+ * @param <V>    The type of the values
+ */
+public final class HashTrie<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final Object[] NO_ENTRIES = new Object[0];
+    private static final HashTrie<?, ?> EMPTY = new HashTrie<>(new BitmapNode(0, NO_ENTRIES), 0);
+
+    private final Node root;
+    private final int size;
+
+    private HashTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> HashTrie<K, V> empty() {
+        return (HashTrie<K, V>) EMPTY;
+    }
+
+    /**
+     * @param entries    The entries to copy
+     * @return           Returns a new {@link HashTrie} holding the specified <b>entries</b>
+     */
+    public static <K, V> HashTrie<K, V> of(@NonNull Map<K, V> entries) {
+        var trie = HashTrie.<K, V>empty();
+        for (var entry : entries.entrySet()) {
+            trie = trie.plus(entry.getKey(), entry.getValue());
+        }
+        return trie;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param key    The key to look up
+     * @return       Returns the value of the specified <b>key</b>, or <em>null</em> if it is absent
+     */
+    @SuppressWarnings("unchecked")
+    public V get(@NonNull K key) {
+        return (V) root.find(0, hash(key), key);
+    }
+
+    public V getOrDefault(@NonNull K key, V defaultValue) {
+        var value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    public boolean containsKey(@NonNull K key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @param key      The key to map
+     * @param value    The value to map the <b>key</b> to
+     * @return         Returns the {@link HashTrie} with the entry added or replaced, or this one if
+     *                 the <b>key</b> already maps to the very same <b>value</b>
+     */
+    public HashTrie<K, V> plus(@NonNull K key, @NonNull V value) {
+        var added = new boolean[1];
+        var next = root.plus(0, hash(key), key, value, added);
+        return next == root ? this : new HashTrie<>(next, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * @param key    The key to remove
+     * @return       Returns the {@link HashTrie} without the <b>key</b>, or this one if it is absent
+     */
+    public HashTrie<K, V> minus(@NonNull K key) {
+        var next = root.minus(0, hash(key), key);
+        if (next == root) {
+            return this;
+        }
+        return next == null ? empty() : new HashTrie<>(next, size - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(@NonNull BiConsumer<? super K, ? super V> action) {
+        root.forEach((BiConsumer<Object, Object>) action);
+    }
+
+    private static int hash(Object key) {
+        var hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static Object[] replaced(Object[] array, int index, Object value) {
+        var copy = array.clone();
+        copy[index] = value;
+        return copy;
+    }
+
+    private interface Node {
+
+        Object find(int shift, int hash, Object key);
+
+        /**
+         * @return    Returns the node with the entry added or replaced, this node if nothing changed
+         */
+        Node plus(int shift, int hash, Object key, Object value, boolean[] added);
+
+        /**
+         * @return    Returns the node without the key, this node if it is absent, or <em>null</em> if
+         *            the node is left empty
+         */
+        Node minus(int shift, int hash, Object key);
+
+        void forEach(BiConsumer<Object, Object> action);
+    }
+
+    /*
+     * A node holding a key and value pair per branch in use, or a null key and the child node the
+     * branch leads to.
+     */
+    private static final class BitmapNode implements Node {
+        private final int bitmap;
+        private final Object[] array;
+
+        private BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            var bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            var at = 2 * Integer.bitCount(bitmap & (bit - 1));
+            var existing = array[at];
+            if (existing == null) {
+                return ((Node) array[at + 1]).find(shift + BITS, hash, key);
+            }
+            return key.equals(existing) ? array[at + 1] : null;
+        }
+
+        @Override
+        public Node plus(int shift, int hash, Object key, Object value, boolean[] added) {
+            var bit = bit(hash, shift);
+            var at = 2 * Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                var next = new Object[array.length + 2];
+                System.arraycopy(array, 0, next, 0, at);
+                next[at] = key;
+                next[at + 1] = value;
+                System.arraycopy(array, at, next, at + 2, array.length - at);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, next);
+            }
+
+            var existing = array[at];
+            Node child;
+            if (existing == null) {
+                child = ((Node) array[at + 1]).plus(shift + BITS, hash, key, value, added);
+                if (child == array[at + 1]) {
+                    return this;
+                }
+            } else if (key.equals(existing)) {
+                return array[at + 1] == value ? this : new BitmapNode(bitmap, replaced(array, at + 1, value));
+            } else {
+                added[0] = true;
+                child = pair(shift + BITS, hash(existing), existing, array[at + 1], hash, key, value);
+            }
+            var next = replaced(array, at, null);
+            next[at + 1] = child;
+            return new BitmapNode(bitmap, next);
+        }
+
+        @Override
+        public Node minus(int shift, int hash, Object key) {
+            var bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            var at = 2 * Integer.bitCount(bitmap & (bit - 1));
+            var existing = array[at];
+            if (existing == null) {
+                var child = ((Node) array[at + 1]).minus(shift + BITS, hash, key);
+                if (child == array[at + 1]) {
+                    return this;
+                }
+                if (child != null) {
+                    return new BitmapNode(bitmap, replaced(array, at + 1, child));
+                }
+            } else if (!key.equals(existing)) {
+                return this;
+            }
+
+            if (bitmap == bit) {
+                return null;
+            }
+            var next = new Object[array.length - 2];
+            System.arraycopy(array, 0, next, 0, at);
+            System.arraycopy(array, at + 2, next, at, array.length - at - 2);
+            return new BitmapNode(bitmap ^ bit, next);
+        }
+
+        @Override
+        public void forEach(BiConsumer<Object, Object> action) {
+            for (int at = 0; at < array.length; at += 2) {
+                if (array[at] == null) {
+                    ((Node) array[at + 1]).forEach(action);
+                } else {
+                    action.accept(array[at], array[at + 1]);
+                }
+            }
+        }
+
+        private static Node pair(
+                int shift, int hash1, Object key1, Object value1, int hash2, Object key2, Object value2) {
+            if (hash1 == hash2) {
+                return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+            }
+            var added = new boolean[1];
+            return new BitmapNode(0, NO_ENTRIES)
+                    .plus(shift, hash1, key1, value1, added)
+                    .plus(shift, hash2, key2, value2, added);
+        }
+    }
+
+    /*
+     * The key and value pairs of keys sharing the same full hash.
+     */
+    private static final class CollisionNode implements Node {
+        private final int hash;
+        private final Object[] array;
+
+        private CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            if (hash != this.hash) {
+                return null;
+            }
+            var at = indexOf(key);
+            return at < 0 ? null : array[at + 1];
+        }
+
+        @Override
+        public Node plus(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                return new BitmapNode(bit(this.hash, shift), new Object[] {null, this})
+                        .plus(shift, hash, key, value, added);
+            }
+            var at = indexOf(key);
+            if (at >= 0) {
+                return array[at + 1] == value ? this : new CollisionNode(hash, replaced(array, at + 1, value));
+            }
+            var next = new Object[array.length + 2];
+            System.arraycopy(array, 0, next, 0, array.length);
+            next[array.length] = key;
+            next[array.length + 1] = value;
+            added[0] = true;
+            return new CollisionNode(hash, next);
+        }
+
+        @Override
+        public Node minus(int shift, int hash, Object key) {
+            var at = indexOf(key);
+            if (at < 0) {
+                return this;
+            }
+            if (array.length == 2) {
+                return null;
+            }
+            var next = new Object[array.length - 2];
+            System.arraycopy(array, 0, next, 0, at);
+            System.arraycopy(array, at + 2, next, at, array.length - at - 2);
+            return new CollisionNode(hash, next);
+        }
+
+        @Override
+        public void forEach(BiConsumer<Object, Object> action) {
+            for (int at = 0; at < array.length; at += 2) {
+                action.accept(array[at], array[at + 1]);
+            }
+        }
+
+        private int indexOf(Object key) {
+            for (int at = 0; at < array.length; at += 2) {
+                if (key.equals(array[at])) {
+                    return at;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.reliaquest.api.index;
+
+import java.util.Arrays;
+
+/**
+ * Minimal growable list of primitive <em>int</em> values, used while building the indexes
+ * to avoid boxing every position.
+ */
+final class IntList {
+
+    private int[] values = new int[8];
+    private int size;
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int last() {
+        return values[size - 1];
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,14 @@
+package com.reliaquest.api.index;
+
+import lombok.NonNull;
+
+/**
+ * Thrown when a filter query cannot be parsed into an {@link EmployeeFilter}. The message names the
+ * offending clause and is safe to report to the client.
+ */
+public class MalformedFilterException extends IllegalArgumentException {
+
+    public MalformedFilterException(@NonNull String message) {
+        super(message);
+    }
+}
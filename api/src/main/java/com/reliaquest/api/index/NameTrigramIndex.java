@@ -0,0 +1,175 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.model.Employee;
+import io.micrometer.common.util.StringUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.NonNull;
+
+/**
+ * Immutable trigram inverted index over the lowercased names of an employee list.
+ *
+ * <p>Every distinct three character sequence of a name maps to the ascending slots, as kept by the
+ * {@link SlotVector} of the list, of the employees whose name contains it. A substring query of
+ * three characters or more intersects the posting lists of its own trigrams, and only the
+ * surviving candidates are verified with {@link String#contains(CharSequence)}. Shorter queries
+ * have no trigram to look up, and fall back to scanning the lowercased names, which are computed
+ * once per employee.
+ *
+ * <p>{@link #plus(Employee)} and {@link #minus(int)} patch the posting lists of the trigrams of the
+ * changed employee's name only. Both the names and the postings are persistent structures, so the
+ * rest of the index is shared with the next one.
+ */
+public final class NameTrigramIndex {
+
+    private static final int GRAM = 3;
+
+    private final SlotVector<String> lowerNames;
+    private final HashTrie<Long, int[]> postings;
+
+    private NameTrigramIndex(SlotVector<String> lowerNames, HashTrie<Long, int[]> postings) {
+        this.lowerNames = lowerNames;
+        this.postings = postings;
+    }
+
+    /**
+     * Builds the index of the specified <b>employees</b>.
+     *
+     * @param employees    The employee list, in order
+     * @return             Returns a new instance of {@link NameTrigramIndex}
+     */
+    public static NameTrigramIndex of(@NonNull List<Employee> employees) {
+        var lowerNames = new ArrayList<String>(employees.size());
+        var builders = new HashMap<Long, IntList>();
+        for (var employee : employees) {
+            var lowerName = lowerName(employee);
+            for (var trigram : trigrams(lowerName)) {
+                builders.computeIfAbsent(trigram, ignored -> new IntList()).add(lowerNames.size());
+            }
+            lowerNames.add(lowerName);
+        }
+
+        var postings = HashTrie.<Long, int[]>empty();
+        for (var entry : builders.entrySet()) {
+            postings = postings.plus(entry.getKey(), entry.getValue().toArray());
+        }
+        return new NameTrigramIndex(SlotVector.of(lowerNames), postings);
+    }
+
+    /**
+     * Finds the slots of the employees whose lowercased name contains the specified <b>search</b>.
+     *
+     * @param search    The lowercased substring to search for
+     * @return          Returns the matching slots in ascending order
+     */
+    public int[] search(@NonNull String search) {
+        if (search.length() < GRAM) {
+            return scan(search);
+        }
+
+        var lists = trigrams(search).stream()
+                .map(trigram -> postings.getOrDefault(trigram, Postings.NONE))
+                .sorted(Comparator.comparingInt(positions -> positions.length))
+                .toList();
+        var candidates = lists.get(0);
+        for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists.get(i));
+        }
+
+        var matches = new IntList();
+        for (var slot : candidates) {
+            if (lowerNames.slot(slot).contains(search)) {
+                matches.add(slot);
+            }
+        }
+        return matches.toArray();
+    }
+
+    /**
+     * Derives the index after the specified <b>employee</b> was appended to the list.
+     *
+     * @param employee    The created employee
+     * @return            Returns the updated {@link NameTrigramIndex}
+     */
+    public NameTrigramIndex plus(@NonNull Employee employee) {
+        var slot = lowerNames.slots();
+        var lowerName = lowerName(employee);
+        var nextPostings = postings;
+        for (var trigram : trigrams(lowerName)) {
+            var slots = Postings.plus(postings.getOrDefault(trigram, Postings.NONE), slot);
+            nextPostings = nextPostings.plus(trigram, slots);
+        }
+        return new NameTrigramIndex(lowerNames.plus(lowerName), nextPostings);
+    }
+
+    /**
+     * Derives the index after the employee at the specified <b>slot</b> was removed from the list.
+     *
+     * @param slot    The slot of the deleted employee
+     * @return        Returns the updated {@link NameTrigramIndex}
+     */
+    public NameTrigramIndex minus(int slot) {
+        var lowerName = lowerNames.slot(slot);
+        if (lowerName == null) {
+            return this;
+        }
+        var nextPostings = postings;
+        for (var trigram : trigrams(lowerName)) {
+            var slots = Postings.minus(postings.getOrDefault(trigram, Postings.NONE), slot);
+            nextPostings = slots.length == 0 ? nextPostings.minus(trigram) : nextPostings.plus(trigram, slots);
+        }
+        return new NameTrigramIndex(lowerNames.minus(slot), nextPostings);
+    }
+
+    private int[] scan(String search) {
+        var matches = new IntList();
+        lowerNames.forEachSlot((lowerName, slot) -> {
+            if (!lowerName.isEmpty() && lowerName.contains(search)) {
+                matches.add(slot);
+            }
+        });
+        return matches.toArray();
+    }
+
+    /*
+     * Blank names are kept as the empty string, since an empty slot marks a removed employee.
+     */
+    private static String lowerName(Employee employee) {
+        return StringUtils.isBlank(employee.name()) ? "" : employee.name().toLowerCase();
+    }
+
+    private static Set<Long> trigrams(String lowerName) {
+        if (lowerName.length() < GRAM) {
+            return Set.of();
+        }
+        var trigrams = new HashSet<Long>();
+        for (int i = 0; i + GRAM <= lowerName.length(); i++) {
+            trigrams.add(((long) lowerName.charAt(i) << 32)
+                    | ((long) lowerName.charAt(i + 1) << 16)
+                    | lowerName.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        var result = new int[Math.min(left.length, right.length)];
+        int i = 0, j = 0, size = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+}
@@ -0,0 +1,339 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.model.Employee;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+import lombok.NonNull;
+
+/**
+ * Immutable word index over the lowercased names of an employee list, answering prefix and fuzzy
+ * searches.
+ *
+ * <p>Every distinct word of the names maps to the ascending slots, as kept by the {@link SlotVector}
+ * of the list, of the employees whose name contains it. The words are kept twice:
+ * <ul>
+ *     <li>sorted, so the words starting with a prefix are one binary search and a contiguous run</li>
+ *     <li>in a BK-tree keyed by Levenshtein distance, so only the subtrees that can hold a word
+ *     within the requested distance are visited, instead of every word</li>
+ * </ul>
+ *
+ * <p>A name matches when every word of the query matches some word of the name. Names repeat far
+ * fewer words than there are employees, so both structures stay small at any list size.
+ *
+ * <p>{@link #plus(Employee)} and {@link #minus(int, Employee)} patch the posting lists of the
+ * changed employee's name words only, in a persistent map shared with the next index. New words
+ * are inserted into a path copy of the tree. Words no longer used stay in both structures, where
+ * they match no employee, until they are the majority and the words are rebuilt from the postings.
+ */
+public final class NameWordIndex {
+
+    public static final int MAX_DISTANCE = 2;
+
+    private static final Node[] LEAF = new Node[0];
+
+    private final String[] words;
+    private final Node tree;
+    private final HashTrie<String, int[]> postings;
+    private final int slots;
+
+    private NameWordIndex(String[] words, Node tree, HashTrie<String, int[]> postings, int slots) {
+        this.words = words;
+        this.tree = tree;
+        this.postings = postings;
+        this.slots = slots;
+    }
+
+    /**
+     * Builds the index of the specified <b>employees</b>.
+     *
+     * @param employees    The employee list, in order
+     * @return             Returns a new instance of {@link NameWordIndex}
+     */
+    public static NameWordIndex of(@NonNull List<Employee> employees) {
+        return withWordsOf(postings(employees), employees.size());
+    }
+
+    /**
+     * Finds the slots of the employees whose name has a word starting with each word of the
+     * specified <b>search</b>.
+     *
+     * @param search    The lowercased prefix to search for
+     * @return          Returns the matching slots in ascending order
+     */
+    public int[] prefix(@NonNull String search) {
+        int[] matches = null;
+        for (var prefix : words(search)) {
+            var positions = new IntList();
+            for (int i = lowerBound(prefix); i < words.length && words[i].startsWith(prefix); i++) {
+                addAll(positions, postings.getOrDefault(words[i], Postings.NONE));
+            }
+            matches = matches == null ? union(positions) : intersect(matches, union(positions));
+            if (matches.length == 0) {
+                break;
+            }
+        }
+        return matches == null ? Postings.NONE : matches;
+    }
+
+    /**
+     * Finds the slots of the employees whose name has a word within <b>maxDistance</b> edits of
+     * each word of the specified <b>search</b>.
+     *
+     * @param search         The lowercased words to search for
+     * @param maxDistance    The maximum Levenshtein distance, up to {@value #MAX_DISTANCE}
+     * @return               Returns the matching slots in ascending order
+     */
+    public int[] fuzzy(@NonNull String search, int maxDistance) {
+        if (maxDistance < 0 || maxDistance > MAX_DISTANCE) {
+            throw new IllegalArgumentException("Distance must be between 0 and " + MAX_DISTANCE + ".");
+        }
+        int[] matches = null;
+        for (var word : words(search)) {
+            var positions = new IntList();
+            within(word, maxDistance, match -> addAll(positions, postings.getOrDefault(match, Postings.NONE)));
+            matches = matches == null ? union(positions) : intersect(matches, union(positions));
+            if (matches.length == 0) {
+                break;
+            }
+        }
+        return matches == null ? Postings.NONE : matches;
+    }
+
+    /**
+     * Derives the index after the specified <b>employee</b> was appended to the list.
+     *
+     * @param employee    The created employee
+     * @return            Returns the updated {@link NameWordIndex}
+     */
+    public NameWordIndex plus(@NonNull Employee employee) {
+        var slot = slots;
+        var nextWords = words;
+        var nextTree = tree;
+        var nextPostings = postings;
+        for (var word : words(lowerName(employee))) {
+            var current = nextPostings.get(word);
+            if (current == null) {
+                var found = Arrays.binarySearch(nextWords, word);
+                if (found < 0) {
+                    var at = -found - 1;
+                    var inserted = new String[nextWords.length + 1];
+                    System.arraycopy(nextWords, 0, inserted, 0, at);
+                    inserted[at] = word;
+                    System.arraycopy(nextWords, at, inserted, at + 1, nextWords.length - at);
+                    nextWords = inserted;
+                    nextTree = insert(nextTree, word);
+                }
+            }
+            nextPostings = nextPostings.plus(word, Postings.plus(current == null ? Postings.NONE : current, slot));
+        }
+        return new NameWordIndex(nextWords, nextTree, nextPostings, slot + 1);
+    }
+
+    /**
+     * Derives the index after the specified <b>employee</b> was removed from the list.
+     *
+     * @param slot        The slot of the deleted employee
+     * @param employee    The deleted employee
+     * @return            Returns the updated {@link NameWordIndex}
+     */
+    public NameWordIndex minus(int slot, @NonNull Employee employee) {
+        var nextPostings = postings;
+        for (var word : words(lowerName(employee))) {
+            var remaining = Postings.minus(nextPostings.getOrDefault(word, Postings.NONE), slot);
+            nextPostings = remaining.length == 0 ? nextPostings.minus(word) : nextPostings.plus(word, remaining);
+        }
+        if (nextPostings.size() * 2 < words.length) {
+            return withWordsOf(nextPostings, slots);
+        }
+        return new NameWordIndex(words, tree, nextPostings, slots);
+    }
+
+    /*
+     * Builds the sorted words and the tree of the words in the specified postings.
+     */
+    private static NameWordIndex withWordsOf(HashTrie<String, int[]> postings, int slots) {
+        var words = new String[postings.size()];
+        var count = new int[1];
+        postings.forEach((word, ignored) -> words[count[0]++] = word);
+        Arrays.sort(words);
+
+        Node tree = null;
+        for (var word : words) {
+            tree = tree == null ? new Node(word, LEAF) : insertInPlace(tree, word);
+        }
+        return new NameWordIndex(words, tree, postings, slots);
+    }
+
+    private void within(String word, int maxDistance, Consumer<String> matches) {
+        if (tree == null) {
+            return;
+        }
+        var pending = new ArrayDeque<Node>();
+        pending.push(tree);
+        while (!pending.isEmpty()) {
+            var node = pending.pop();
+            var distance = distance(node.word, word);
+            if (distance <= maxDistance) {
+                matches.accept(node.word);
+            }
+            var to = Math.min(node.children.length - 1, distance + maxDistance);
+            for (int d = Math.max(1, distance - maxDistance); d <= to; d++) {
+                if (node.children[d] != null) {
+                    pending.push(node.children[d]);
+                }
+            }
+        }
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0, high = words.length;
+        while (low < high) {
+            var mid = (low + high) >>> 1;
+            if (words[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static HashTrie<String, int[]> postings(List<Employee> employees) {
+        var builders = new HashMap<String, IntList>();
+        var slot = 0;
+        for (var employee : employees) {
+            for (var word : words(lowerName(employee))) {
+                var slots = builders.computeIfAbsent(word, ignored -> new IntList());
+                if (slots.size() == 0 || slots.last() != slot) {
+                    slots.add(slot);
+                }
+            }
+            slot++;
+        }
+        var postings = HashTrie.<String, int[]>empty();
+        for (var entry : builders.entrySet()) {
+            postings = postings.plus(entry.getKey(), entry.getValue().toArray());
+        }
+        return postings;
+    }
+
+    private static Node insert(Node node, String word) {
+        if (node == null) {
+            return new Node(word, LEAF);
+        }
+        var distance = distance(node.word, word);
+        if (distance == 0) {
+            return node;
+        }
+        var children = Arrays.copyOf(node.children, Math.max(node.children.length, distance + 1));
+        children[distance] = insert(children[distance], word);
+        return new Node(node.word, children);
+    }
+
+    private static Node insertInPlace(Node node, String word) {
+        var current = node;
+        while (true) {
+            var distance = distance(current.word, word);
+            if (distance == 0) {
+                return node;
+            }
+            if (distance >= current.children.length) {
+                current.children = Arrays.copyOf(current.children, distance + 1);
+            }
+            if (current.children[distance] == null) {
+                current.children[distance] = new Node(word, LEAF);
+                return node;
+            }
+            current = current.children[distance];
+        }
+    }
+
+    /**
+     * Levenshtein distance of two words, with two rolling rows.
+     */
+    static int distance(String left, String right) {
+        if (left.length() < right.length()) {
+            return distance(right, left);
+        }
+        var previous = new int[right.length() + 1];
+        var current = new int[right.length() + 1];
+        for (int j = 0; j <= right.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= left.length(); i++) {
+            current[0] = i;
+            var c = left.charAt(i - 1);
+            for (int j = 1; j <= right.length(); j++) {
+                var substitution = previous[j - 1] + (c == right.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            var swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[right.length()];
+    }
+
+    private static String[] words(String lowerName) {
+        if (lowerName == null || lowerName.isBlank()) {
+            return new String[0];
+        }
+        return lowerName.trim().split("\\s+");
+    }
+
+    private static String lowerName(Employee employee) {
+        return employee == null || employee.name() == null ? null : employee.name().toLowerCase();
+    }
+
+    private static void addAll(IntList list, int[] positions) {
+        for (var position : positions) {
+            list.add(position);
+        }
+    }
+
+    private static int[] union(IntList positions) {
+        var sorted = positions.toArray();
+        Arrays.sort(sorted);
+        var size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, size);
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        var result = new int[Math.min(left.length, right.length)];
+        int i = 0, j = 0, size = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * BK-tree node, whose child at index <em>d</em> holds the words at distance <em>d</em> from
+     * its own. The children are only grown while the index is built, and copied afterwards.
+     */
+    private static final class Node {
+        private final String word;
+        private Node[] children;
+
+        private Node(String word, Node[] children) {
+            this.word = word;
+            this.children = children;
+        }
+    }
+}
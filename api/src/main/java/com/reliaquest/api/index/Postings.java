@@ -0,0 +1,40 @@
+package com.reliaquest.api.index;
+
+import java.util.Arrays;
+
+/**
+ * Copy-on-write edits of the ascending slot arrays the indexes keep per key.
+ */
+final class Postings {
+
+    static final int[] NONE = new int[0];
+
+    private Postings() {}
+
+    /**
+     * @return    Returns a copy of <b>slots</b> with <b>slot</b> appended, or <b>slots</b> if it is
+     *            already the last one
+     */
+    static int[] plus(int[] slots, int slot) {
+        if (slots.length > 0 && slots[slots.length - 1] == slot) {
+            return slots;
+        }
+        var appended = Arrays.copyOf(slots, slots.length + 1);
+        appended[slots.length] = slot;
+        return appended;
+    }
+
+    /**
+     * @return    Returns a copy of <b>slots</b> without <b>slot</b>, or <b>slots</b> if it is absent
+     */
+    static int[] minus(int[] slots, int slot) {
+        var at = Arrays.binarySearch(slots, slot);
+        if (at < 0) {
+            return slots;
+        }
+        var removed = new int[slots.length - 1];
+        System.arraycopy(slots, 0, removed, 0, at);
+        System.arraycopy(slots, at + 1, removed, at, removed.length - at);
+        return removed;
+    }
+}
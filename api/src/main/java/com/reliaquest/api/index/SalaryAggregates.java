@@ -0,0 +1,199 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.model.Employee;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import lombok.NonNull;
+
+/**
+ * Immutable salary aggregates of an employee list: the highest salary, the <em>top N</em> highest
+ * earners and a {@link SalarySketch} of the salary distribution.
+ *
+ * <p>The top earners are kept in a min-heap bounded to <em>N</em> entries, with the lowest ranked
+ * earner at its head. Both answers are computed once when the aggregates are built, so reading them
+ * is constant time and allocation free.
+ *
+ * <p>{@link #plus(Employee)} and {@link #minus(Employee, List)} derive the aggregates of the next
+ * employee list incrementally. A created employee only touches the heap when it outranks its head.
+ * A deleted employee only forces the heap to be rebuilt from the remaining list when it was one of
+ * the top earners. The sketch is adjusted by the changed salary either way, never rebuilt.
+ *
+ * <p>Employees with the same salary keep the order of the employee list, the earliest ranking higher.
+ * The same bounded heap selects the top earners for any other <em>k</em> with {@link #top(List, int)}.
+ */
+public final class SalaryAggregates {
+
+    private static final Comparator<Ranked> LOWEST_RANK_FIRST =
+            Comparator.comparingInt(Ranked::salary).thenComparing(Ranked::ordinal, Comparator.reverseOrder());
+
+    private final int limit;
+    private final PriorityQueue<Ranked> heap;
+    private final long nextOrdinal;
+    private final SalarySketch sketch;
+    private final int highestSalary;
+    private final List<Employee> topEmployees;
+    private final List<String> topNames;
+
+    private SalaryAggregates(int limit, PriorityQueue<Ranked> heap, long nextOrdinal, SalarySketch sketch) {
+        this.limit = limit;
+        this.heap = heap;
+        this.nextOrdinal = nextOrdinal;
+        this.sketch = sketch;
+
+        this.topEmployees = ranked(heap);
+        this.highestSalary = topEmployees.isEmpty() ? 0 : topEmployees.get(0).salary();
+        this.topNames = topEmployees.stream().map(Employee::name).toList();
+    }
+
+    /**
+     * Builds the aggregates of the specified <b>employees</b>.
+     *
+     * @param employees    The employee list, in order
+     * @param limit        The number of top earners to keep
+     * @return             Returns a new instance of {@link SalaryAggregates}
+     */
+    public static SalaryAggregates of(@NonNull List<Employee> employees, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1.");
+        }
+        var heap = new PriorityQueue<>(limit + 1, LOWEST_RANK_FIRST);
+        var salaries = new int[employees.size()];
+        var salaryCount = 0;
+        long ordinal = 0;
+        for (var employee : employees) {
+            offer(heap, employee, ordinal++, limit);
+            if (employee != null && employee.salary() != null) {
+                salaries[salaryCount++] = employee.salary();
+            }
+        }
+        var sketch = SalarySketch.of(Arrays.copyOf(salaries, salaryCount));
+        return new SalaryAggregates(limit, heap, ordinal, sketch);
+    }
+
+    /**
+     * Selects the <em>top k</em> earners of the specified <b>employees</b> with a min-heap bounded
+     * to <b>k</b> entries, in <em>O(n log k)</em>. Ties keep the order of the employee list.
+     *
+     * @param employees    The employee list, in order
+     * @param k            The number of top earners to select
+     * @return             Returns the top earners, highest salary first
+     */
+    public static List<Employee> top(@NonNull List<Employee> employees, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1.");
+        }
+        return ranked(rank(employees, k));
+    }
+
+    /**
+     * @return    Returns the highest salary, or <em>0</em> when there are no salaries
+     */
+    public int highestSalary() {
+        return highestSalary;
+    }
+
+    /**
+     * @return    Returns the names of the top earners, highest salary first
+     */
+    public List<String> topNames() {
+        return topNames;
+    }
+
+    /**
+     * @return    Returns the top earners, highest salary first
+     */
+    public List<Employee> topEmployees() {
+        return topEmployees;
+    }
+
+    /**
+     * @return    Returns the number of top earners kept
+     */
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * @return    Returns the {@link SalarySketch} of every salary in the employee list
+     */
+    public SalarySketch salarySketch() {
+        return sketch;
+    }
+
+    /**
+     * Derives the aggregates after the specified <b>employee</b> was appended to the list.
+     *
+     * @param employee    The created employee
+     * @return            Returns the updated {@link SalaryAggregates}
+     */
+    public SalaryAggregates plus(@NonNull Employee employee) {
+        if (employee.salary() == null) {
+            return new SalaryAggregates(limit, heap, nextOrdinal + 1, sketch);
+        }
+        var nextSketch = sketch.plus(employee.salary());
+        var candidate = new Ranked(employee, nextOrdinal);
+        if (heap.size() >= limit && LOWEST_RANK_FIRST.compare(candidate, heap.peek()) <= 0) {
+            return new SalaryAggregates(limit, heap, nextOrdinal + 1, nextSketch);
+        }
+        var next = new PriorityQueue<>(heap);
+        offer(next, employee, nextOrdinal, limit);
+        return new SalaryAggregates(limit, next, nextOrdinal + 1, nextSketch);
+    }
+
+    /**
+     * Derives the aggregates after the specified <b>employee</b> was removed from the list.
+     *
+     * @param employee     The deleted employee
+     * @param remaining    The employee list without the deleted employee, in order
+     * @return             Returns the updated {@link SalaryAggregates}
+     */
+    public SalaryAggregates minus(@NonNull Employee employee, @NonNull List<Employee> remaining) {
+        var nextSketch = employee.salary() == null ? sketch : sketch.minus(employee.salary());
+        var ranked = heap.stream().anyMatch(r -> Objects.equals(r.employee().id(), employee.id()));
+        if (ranked) {
+            return new SalaryAggregates(limit, rank(remaining, limit), remaining.size(), nextSketch);
+        }
+        if (employee.salary() == null) {
+            return this;
+        }
+        return new SalaryAggregates(limit, heap, nextOrdinal, nextSketch);
+    }
+
+    private static PriorityQueue<Ranked> rank(List<Employee> employees, int limit) {
+        var heap = new PriorityQueue<>(Math.min(limit, employees.size()) + 1, LOWEST_RANK_FIRST);
+        long ordinal = 0;
+        for (var employee : employees) {
+            offer(heap, employee, ordinal++, limit);
+        }
+        return heap;
+    }
+
+    private static List<Employee> ranked(PriorityQueue<Ranked> heap) {
+        var ranked = new ArrayList<>(heap);
+        ranked.sort(LOWEST_RANK_FIRST.reversed());
+        return ranked.stream().map(Ranked::employee).toList();
+    }
+
+    private static void offer(PriorityQueue<Ranked> heap, Employee employee, long ordinal, int limit) {
+        if (employee == null || employee.salary() == null) {
+            return;
+        }
+        var candidate = new Ranked(employee, ordinal);
+        if (heap.size() < limit) {
+            heap.add(candidate);
+        } else if (LOWEST_RANK_FIRST.compare(candidate, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(candidate);
+        }
+    }
+
+    private record Ranked(Employee employee, long ordinal) {
+        int salary() {
+            return employee.salary();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.model.Employee;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import lombok.NonNull;
+
+/**
+ * Immutable salary accumulators of an employee list, grouped by title and by age band.
+ *
+ * <p>Every group is a {@link SalaryStats}, so reading the statistics is linear in the number of
+ * groups rather than in the number of employees. Age bands are {@value #AGE_BAND_WIDTH} years
+ * wide and held in an array indexed by band, titles in a {@link HashTrie}.
+ *
+ * <p>{@link #plus(Employee)} and {@link #minus(Employee, List)} derive the groups of the next
+ * employee list by replacing the accumulators of the changed employee's title and age band, which
+ * copies the path to the title in the trie rather than every title. Only removing the last salary
+ * at the minimum or maximum of a group rescans the list, for that group. Employees without a
+ * salary are not counted, those without a title or age only in the other grouping.
+ */
+public final class SalaryGroups {
+
+    public static final int AGE_BAND_WIDTH = 10;
+
+    private static final SalaryGroups EMPTY = new SalaryGroups(HashTrie.empty(), new SalaryStats[0]);
+
+    private final HashTrie<String, SalaryStats> byTitle;
+    private final SalaryStats[] byAgeBand;
+
+    private SalaryGroups(HashTrie<String, SalaryStats> byTitle, SalaryStats[] byAgeBand) {
+        this.byTitle = byTitle;
+        this.byAgeBand = byAgeBand;
+    }
+
+    /**
+     * Builds the groups of the specified <b>employees</b> in a single pass.
+     *
+     * @param employees    The employee list
+     * @return             Returns a new instance of {@link SalaryGroups}
+     */
+    public static SalaryGroups of(@NonNull List<Employee> employees) {
+        var byTitle = HashTrie.<String, SalaryStats>empty();
+        var byAgeBand = new SalaryStats[0];
+        for (var employee : employees) {
+            if (employee == null || employee.salary() == null) {
+                continue;
+            }
+            int salary = employee.salary();
+            if (employee.title() != null) {
+                var title = employee.title();
+                byTitle = byTitle.plus(title, byTitle.getOrDefault(title, SalaryStats.EMPTY).plus(salary));
+            }
+            var band = band(employee);
+            if (band >= 0) {
+                byAgeBand = withBand(byAgeBand, band);
+                byAgeBand[band] = byAgeBand[band].plus(salary);
+            }
+        }
+        return byTitle.isEmpty() && byAgeBand.length == 0
+                ? EMPTY
+                : new SalaryGroups(byTitle, byAgeBand);
+    }
+
+    /**
+     * @return    Returns the salary statistics per title, sorted by title
+     */
+    public Map<String, SalaryStats> byTitle() {
+        var titles = new TreeMap<String, SalaryStats>();
+        byTitle.forEach(titles::put);
+        return titles;
+    }
+
+    /**
+     * @return    Returns the salary statistics per non-empty age band, keyed by its label, e.g.
+     *            <em>30-39</em>, youngest first
+     */
+    public Map<String, SalaryStats> byAgeBand() {
+        var bands = new LinkedHashMap<String, SalaryStats>();
+        for (int band = 0; band < byAgeBand.length; band++) {
+            if (byAgeBand[band].count() > 0) {
+                var from = band * AGE_BAND_WIDTH;
+                bands.put(from + "-" + (from + AGE_BAND_WIDTH - 1), byAgeBand[band]);
+            }
+        }
+        return bands;
+    }
+
+    /**
+     * Derives the groups after the specified <b>employee</b> was appended to the list.
+     *
+     * @param employee    The created employee
+     * @return            Returns the updated {@link SalaryGroups}
+     */
+    public SalaryGroups plus(@NonNull Employee employee) {
+        if (employee.salary() == null) {
+            return this;
+        }
+        int salary = employee.salary();
+        var nextByTitle = byTitle;
+        if (employee.title() != null) {
+            nextByTitle = byTitle.plus(
+                    employee.title(),
+                    byTitle.getOrDefault(employee.title(), SalaryStats.EMPTY).plus(salary));
+        }
+        var nextByAgeBand = byAgeBand;
+        var band = band(employee);
+        if (band >= 0) {
+            nextByAgeBand = withBand(byAgeBand.clone(), band);
+            nextByAgeBand[band] = nextByAgeBand[band].plus(salary);
+        }
+        return new SalaryGroups(nextByTitle, nextByAgeBand);
+    }
+
+    /**
+     * Derives the groups after the specified <b>employee</b> was removed from the list.
+     *
+     * @param employee     The deleted employee
+     * @param remaining    The employee list without the deleted employee
+     * @return             Returns the updated {@link SalaryGroups}
+     */
+    public SalaryGroups minus(@NonNull Employee employee, @NonNull List<Employee> remaining) {
+        if (employee.salary() == null) {
+            return this;
+        }
+        int salary = employee.salary();
+        var nextByTitle = byTitle;
+        var title = employee.title();
+        if (title != null && byTitle.containsKey(title)) {
+            var stats = byTitle.get(title);
+            var next = stats.canRemove(salary)
+                    ? stats.minus(salary)
+                    : rebuild(remaining, e -> Objects.equals(title, e.title()));
+            nextByTitle = next.count() == 0 ? byTitle.minus(title) : byTitle.plus(title, next);
+        }
+        var nextByAgeBand = byAgeBand;
+        var band = band(employee);
+        if (band >= 0 && band < byAgeBand.length) {
+            var stats = byAgeBand[band];
+            nextByAgeBand = byAgeBand.clone();
+            nextByAgeBand[band] = stats.canRemove(salary)
+                    ? stats.minus(salary)
+                    : rebuild(remaining, e -> band(e) == band);
+        }
+        return new SalaryGroups(nextByTitle, nextByAgeBand);
+    }
+
+    private static SalaryStats rebuild(List<Employee> employees, Predicate<Employee> group) {
+        var stats = SalaryStats.EMPTY;
+        for (var employee : employees) {
+            if (employee != null && employee.salary() != null && group.test(employee)) {
+                stats = stats.plus(employee.salary());
+            }
+        }
+        return stats;
+    }
+
+    private static SalaryStats[] withBand(SalaryStats[] bands, int band) {
+        if (band < bands.length) {
+            return bands;
+        }
+        var grown = Arrays.copyOf(bands, band + 1);
+        Arrays.fill(grown, bands.length, grown.length, SalaryStats.EMPTY);
+        return grown;
+    }
+
+    private static int band(Employee employee) {
+        var age = employee.age();
+        return age == null || age < 0 ? -1 : age / AGE_BAND_WIDTH;
+    }
+}
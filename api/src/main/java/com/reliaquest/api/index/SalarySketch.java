@@ -0,0 +1,212 @@
+package com.reliaquest.api.index;
+
+/**
+ * Immutable, mergeable quantile sketch of salaries, in the manner of DDSketch: every salary is
+ * counted in a logarithmic bucket, so any quantile is answered within the relative accuracy of
+ * the sketch, however many salaries were added.
+ *
+ * <p>Bucket <em>i</em> holds the salaries in <em>(&gamma;<sup>i-1</sup>, &gamma;<sup>i</sup>]</em> with
+ * <em>&gamma; = (1 + &alpha;) / (1 - &alpha;)</em>. At the default accuracy of 1% the salaries between 10k and 10M
+ * span about 350 buckets, so the sketch of a million employees is a few kilobytes, queries are
+ * linear in the number of buckets, and {@link #plus(int)}, {@link #minus(int)} and
+ * {@link #merge(SalarySketch)} copy that array at most.
+ *
+ * <p>Salaries below one are counted in a separate zero bucket.
+ */
+public final class SalarySketch {
+
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    private static final SalarySketch EMPTY = new SalarySketch(DEFAULT_RELATIVE_ACCURACY, 0, new long[0], 0, 0);
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final int offset;
+    private final long[] counts;
+    private final long zeroCount;
+    private final long count;
+
+    private SalarySketch(double relativeAccuracy, int offset, long[] counts, long zeroCount, long count) {
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.offset = offset;
+        this.counts = counts;
+        this.zeroCount = zeroCount;
+        this.count = count;
+    }
+
+    /**
+     * @return    Returns an empty sketch with the {@link #DEFAULT_RELATIVE_ACCURACY default accuracy}
+     */
+    public static SalarySketch empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param relativeAccuracy    The relative accuracy of the quantiles, between 0 and 1 exclusive
+     * @return                    Returns an empty sketch with the specified accuracy
+     */
+    public static SalarySketch empty(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1.");
+        }
+        return new SalarySketch(relativeAccuracy, 0, new long[0], 0, 0);
+    }
+
+    /**
+     * Builds the sketch of the specified <b>salaries</b> in a single pass.
+     *
+     * @param salaries    The salaries to count
+     * @return            Returns a new {@link SalarySketch} with the default accuracy
+     */
+    public static SalarySketch of(int[] salaries) {
+        var empty = empty();
+        if (salaries.length == 0) {
+            return empty;
+        }
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        long zeroCount = 0;
+        for (var salary : salaries) {
+            if (salary < 1) {
+                zeroCount++;
+                continue;
+            }
+            var index = empty.index(salary);
+            min = Math.min(min, index);
+            max = Math.max(max, index);
+        }
+        if (zeroCount == salaries.length) {
+            return new SalarySketch(empty.relativeAccuracy, 0, new long[0], zeroCount, zeroCount);
+        }
+        var counts = new long[max - min + 1];
+        for (var salary : salaries) {
+            if (salary >= 1) {
+                counts[empty.index(salary) - min]++;
+            }
+        }
+        return new SalarySketch(empty.relativeAccuracy, min, counts, zeroCount, salaries.length);
+    }
+
+    /**
+     * @return    Returns the number of salaries counted
+     */
+    public long count() {
+        return count;
+    }
+
+    public double relativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    /**
+     * Estimates the salary at quantile <b>q</b>, within the relative accuracy of the sketch.
+     *
+     * @param q    The quantile, between 0 and 1 inclusive
+     * @return     Returns the estimated salary, or <em>0</em> when the sketch is empty
+     */
+    public int quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1.");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        var rank = (long) Math.floor(q * (count - 1));
+        if (rank < zeroCount) {
+            return 0;
+        }
+        var seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return (int) Math.round(value(i + offset));
+            }
+        }
+        return (int) Math.round(value(counts.length - 1 + offset));
+    }
+
+    /**
+     * @param salary    The salary to add
+     * @return          Returns the sketch with the <b>salary</b> counted once more
+     */
+    public SalarySketch plus(int salary) {
+        return adjust(salary, 1);
+    }
+
+    /**
+     * @param salary    The salary to remove, which must have been counted
+     * @return          Returns the sketch with the <b>salary</b> counted once less
+     */
+    public SalarySketch minus(int salary) {
+        return adjust(salary, -1);
+    }
+
+    /**
+     * Merges two sketches of the same accuracy, as if every salary of both had been counted by one.
+     *
+     * @param other    The sketch to merge with
+     * @return         Returns the merged {@link SalarySketch}
+     */
+    public SalarySketch merge(SalarySketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Only sketches of the same accuracy can be merged.");
+        }
+        if (other.counts.length == 0 || counts.length == 0) {
+            var buckets = counts.length == 0 ? other : this;
+            return new SalarySketch(
+                    relativeAccuracy,
+                    buckets.offset,
+                    buckets.counts,
+                    zeroCount + other.zeroCount,
+                    count + other.count);
+        }
+        var min = Math.min(offset, other.offset);
+        var max = Math.max(offset + counts.length, other.offset + other.counts.length);
+        var merged = new long[max - min];
+        for (int i = 0; i < counts.length; i++) {
+            merged[offset - min + i] += counts[i];
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            merged[other.offset - min + i] += other.counts[i];
+        }
+        return new SalarySketch(relativeAccuracy, min, merged, zeroCount + other.zeroCount, count + other.count);
+    }
+
+    private SalarySketch adjust(int salary, int delta) {
+        if (salary < 1) {
+            if (zeroCount + delta < 0) {
+                throw new IllegalArgumentException("Salary " + salary + " was not counted.");
+            }
+            return new SalarySketch(relativeAccuracy, offset, counts, zeroCount + delta, count + delta);
+        }
+        var index = index(salary);
+        var min = counts.length == 0 ? index : Math.min(offset, index);
+        var max = counts.length == 0 ? index + 1 : Math.max(offset + counts.length, index + 1);
+        var adjusted = new long[max - min];
+        if (counts.length > 0) {
+            System.arraycopy(counts, 0, adjusted, offset - min, counts.length);
+        }
+        adjusted[index - min] += delta;
+        if (adjusted[index - min] < 0) {
+            throw new IllegalArgumentException("Salary " + salary + " was not counted.");
+        }
+        return new SalarySketch(relativeAccuracy, min, adjusted, zeroCount, count + delta);
+    }
+
+    private int index(int salary) {
+        return (int) Math.ceil(Math.log(salary) / logGamma);
+    }
+
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    @Override
+    public String toString() {
+        return "SalarySketch[count=%d, buckets=%d, relativeAccuracy=%s]"
+                .formatted(count, counts.length, relativeAccuracy);
+    }
+}
@@ -0,0 +1,75 @@
+package com.reliaquest.api.index;
+
+/**
+ * Immutable salary accumulator of one group of employees, holding primitives only.
+ *
+ * <p>Besides the count, sum, minimum and maximum it counts how many salaries equal the minimum and
+ * the maximum, so a removed salary only invalidates the accumulator when it was the last one at
+ * either extreme, see {@link #canRemove(int)}.
+ *
+ * @param count       The number of salaries
+ * @param sum         The sum of the salaries
+ * @param min         The lowest salary
+ * @param minCount    The number of salaries equal to <b>min</b>
+ * @param max         The highest salary
+ * @param maxCount    The number of salaries equal to <b>max</b>
+ */
+public record SalaryStats(long count, long sum, int min, long minCount, int max, long maxCount) {
+
+    public static final SalaryStats EMPTY = new SalaryStats(0, 0, 0, 0, 0, 0);
+
+    /**
+     * @return    Returns the average salary, or <em>0</em> when the group is empty
+     */
+    public double average() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @param salary    The salary to add
+     * @return          Returns the accumulator with the <b>salary</b> counted
+     */
+    public SalaryStats plus(int salary) {
+        if (count == 0) {
+            return new SalaryStats(1, salary, salary, 1, salary, 1);
+        }
+        var nextMin = Math.min(min, salary);
+        var nextMax = Math.max(max, salary);
+        return new SalaryStats(
+                count + 1,
+                sum + salary,
+                nextMin,
+                salary < min ? 1 : salary == min ? minCount + 1 : minCount,
+                nextMax,
+                salary > max ? 1 : salary == max ? maxCount + 1 : maxCount);
+    }
+
+    /**
+     * @param salary    The counted salary to remove
+     * @return          Returns whether {@link #minus(int)} can remove the <b>salary</b> without a
+     *                  rebuild, i.e. it is not the last salary at the minimum or maximum
+     */
+    public boolean canRemove(int salary) {
+        return count == 1 || ((salary != min || minCount > 1) && (salary != max || maxCount > 1));
+    }
+
+    /**
+     * @param salary    The counted salary to remove, see {@link #canRemove(int)}
+     * @return          Returns the accumulator without the <b>salary</b>
+     */
+    public SalaryStats minus(int salary) {
+        if (!canRemove(salary)) {
+            throw new IllegalStateException("Salary " + salary + " is the last one at an extreme.");
+        }
+        if (count == 1) {
+            return EMPTY;
+        }
+        return new SalaryStats(
+                count - 1,
+                sum - salary,
+                min,
+                salary == min ? minCount - 1 : minCount,
+                max,
+                salary == max ? maxCount - 1 : maxCount);
+    }
+}
@@ -0,0 +1,249 @@
+package com.reliaquest.api.index;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+import lombok.NonNull;
+
+/**
+ * Immutable list whose elements keep the slot they were appended at, the persistent backing of a
+ * snapshot's employee list.
+ *
+ * <p>Removing an element empties its slot instead of shifting the elements after it, so the indexes
+ * of the list can refer to the elements by slot and be patched for the one removed element only.
+ * As a list the vector holds the elements in slot order, skipping the empty slots.
+ *
+ * <p>The slots are the leaves of a 32-way trie whose nodes count the elements below them.
+ * {@link #plus(Object)} and {@link #minus(int)} copy the nodes on the path to one slot and share
+ * every other node with this vector, and {@link #get(int)} finds the element at a list position by
+ * descending the counts, all in O(log32 n).
+ *
+ * @param <E>    The type of the elements
+ */
+public final class SlotVector<E> extends AbstractList<E> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final SlotVector<?> EMPTY = new SlotVector<>(null, 0, 0, 0);
+
+    private final Node root;
+    private final int shift;
+    private final int slots;
+    private final int size;
+
+    private SlotVector(Node root, int shift, int slots, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.slots = slots;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> SlotVector<E> empty() {
+        return (SlotVector<E>) EMPTY;
+    }
+
+    /**
+     * Builds the vector of the specified <b>elements</b> bottom up, the element at each position
+     * taking the slot of the same number.
+     *
+     * @param elements    The elements, in order, none of them <em>null</em>
+     * @return            Returns a new {@link SlotVector}
+     */
+    public static <E> SlotVector<E> of(@NonNull Collection<? extends E> elements) {
+        var level = new ArrayList<Node>(elements.size() / WIDTH + 1);
+        var children = new Object[WIDTH];
+        var filled = 0;
+        for (var element : elements) {
+            children[filled++] = Objects.requireNonNull(element);
+            if (filled == WIDTH) {
+                level.add(new Node(children, WIDTH));
+                children = new Object[WIDTH];
+                filled = 0;
+            }
+        }
+        if (filled > 0) {
+            level.add(new Node(children, filled));
+        }
+        if (level.isEmpty()) {
+            return empty();
+        }
+
+        var shift = 0;
+        while (level.size() > 1) {
+            var parents = new ArrayList<Node>(level.size() / WIDTH + 1);
+            for (int from = 0; from < level.size(); from += WIDTH) {
+                var group = new Object[WIDTH];
+                var count = 0;
+                for (int i = from; i < Math.min(from + WIDTH, level.size()); i++) {
+                    group[i - from] = level.get(i);
+                    count += level.get(i).count;
+                }
+                parents.add(new Node(group, count));
+            }
+            level = parents;
+            shift += BITS;
+        }
+        return new SlotVector<>(level.get(0), shift, elements.size(), elements.size());
+    }
+
+    /**
+     * @return    Returns the number of slots ever taken, which is the slot of the next appended element
+     */
+    public int slots() {
+        return slots;
+    }
+
+    /**
+     * @param slot    The slot to read
+     * @return        Returns the element at the specified <b>slot</b>, or <em>null</em> if it is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E slot(int slot) {
+        if (slot < 0 || slot >= slots) {
+            return null;
+        }
+        return (E) leaf(slot)[slot & MASK];
+    }
+
+    /**
+     * @param element    The element to append
+     * @return           Returns the {@link SlotVector} with the <b>element</b> at slot {@link #slots()}
+     */
+    public SlotVector<E> plus(@NonNull E element) {
+        var nextRoot = root;
+        var nextShift = shift;
+        if (root != null && slots == 1L << (shift + BITS)) {
+            var children = new Object[WIDTH];
+            children[0] = root;
+            nextRoot = new Node(children, root.count);
+            nextShift += BITS;
+        }
+        return new SlotVector<>(set(nextRoot, nextShift, slots, element, 1), nextShift, slots + 1, size + 1);
+    }
+
+    /**
+     * @param slot    The slot to empty
+     * @return        Returns the {@link SlotVector} without the element at the specified <b>slot</b>,
+     *                or this one if the slot is already empty
+     */
+    public SlotVector<E> minus(int slot) {
+        if (slot(slot) == null) {
+            return this;
+        }
+        return new SlotVector<>(set(root, shift, slot, null, -1), shift, slots, size - 1);
+    }
+
+    /**
+     * Performs the specified <b>action</b> for every element, in slot order, with its slot.
+     *
+     * @param action    The action to perform
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachSlot(@NonNull ObjIntConsumer<? super E> action) {
+        for (int from = 0; from < slots; from += WIDTH) {
+            var leaf = leaf(from);
+            for (int i = 0; i < WIDTH && from + i < slots; i++) {
+                if (leaf[i] != null) {
+                    action.accept((E) leaf[i], from + i);
+                }
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        var node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            for (var child : node.children) {
+                var count = child == null ? 0 : ((Node) child).count;
+                if (index < count) {
+                    node = (Node) child;
+                    break;
+                }
+                index -= count;
+            }
+        }
+        for (var element : node.children) {
+            if (element != null && index-- == 0) {
+                return (E) element;
+            }
+        }
+        throw new IllegalStateException("Slot counts are inconsistent.");
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int next = advance(0);
+
+            @Override
+            public boolean hasNext() {
+                return next < slots;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (next >= slots) {
+                    throw new NoSuchElementException();
+                }
+                var element = (E) leaf(next)[next & MASK];
+                next = advance(next + 1);
+                return element;
+            }
+        };
+    }
+
+    private int advance(int from) {
+        while (from < slots) {
+            var leaf = leaf(from);
+            for (int i = from & MASK; i < WIDTH && from < slots; i++, from++) {
+                if (leaf[i] != null) {
+                    return from;
+                }
+            }
+        }
+        return slots;
+    }
+
+    private Object[] leaf(int slot) {
+        var node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Node) node.children[(slot >>> level) & MASK];
+        }
+        return node.children;
+    }
+
+    private static Node set(Node node, int shift, int slot, Object value, int delta) {
+        var children = node == null ? new Object[WIDTH] : node.children.clone();
+        var i = (slot >>> shift) & MASK;
+        children[i] = shift == 0 ? value : set((Node) children[i], shift - BITS, slot, value, delta);
+        return new Node(children, (node == null ? 0 : node.count) + delta);
+    }
+
+    /*
+     * A trie node, whose children are the elements on the leaf level and nodes above it.
+     */
+    private static final class Node {
+        private final Object[] children;
+        private final int count;
+
+        private Node(Object[] children, int count) {
+            this.children = children;
+            this.count = count;
+        }
+    }
+}
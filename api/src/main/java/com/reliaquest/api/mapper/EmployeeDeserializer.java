@@ -1,48 +1,96 @@
 package com.reliaquest.api.mapper;
 
-import com.fasterxml.jackson.core.JacksonException;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.impl.NullsConstantProvider;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.reliaquest.api.model.Employee;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import org.springframework.util.StringUtils;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
 
+/**
+ * Deserializes the <em>employee_</em> prefixed wire format of the version 1 API straight into an
+ * {@link Employee}, in a single pass over the tokens and without building an intermediate tree.
+ *
+ * <p>The prefix is optional and matched ignoring case, so <em>employee_name</em>,
+ * <em>Employee_Name</em> and <em>name</em> all map to {@link Employee#name()}. Unknown fields
+ * are skipped.
+ */
 public class EmployeeDeserializer extends StdDeserializer<Employee> {
 
-    private final String PREFIX = "employee_";
+    private static final String PREFIX = "employee_";
+
+    private enum Property {
+        ID,
+        NAME,
+        SALARY,
+        AGE,
+        TITLE,
+        EMAIL
+    }
+
+    private static final Map<String, Property> PROPERTIES = new HashMap<>();
+
+    static {
+        for (var property : Property.values()) {
+            var name = property.name().toLowerCase(Locale.ROOT);
+            PROPERTIES.put(name, property);
+            PROPERTIES.put(PREFIX + name, property);
+        }
+    }
 
     public EmployeeDeserializer() {
         super(Employee.class);
     }
 
     @Override
-    public Employee deserialize(JsonParser p, DeserializationContext ctxt) throws IOException, JacksonException {
-        JsonNode node = p.getCodec().readTree(p);
-        ObjectMapper mapper = (ObjectMapper) p.getCodec();
-
-        List<String> names = new ArrayList<>();
-        ObjectNode modifiedNode = mapper.createObjectNode();
-        node.fieldNames().forEachRemaining(names::add);
-        names.stream()
-                .filter(name -> StringUtils.startsWithIgnoreCase(name, PREFIX))
-                .forEach(name -> {
-                    String stripped = name.substring(PREFIX.length());
-                    ((ObjectNode) node).set(stripped, node.get(name));
-                    ((ObjectNode) node).remove(name);
-
-                    modifiedNode.set(stripped, node.get(name));
-                });
-
-        // If using this deserializer, this will need to be changed to prevent infinite recursion
-        return mapper.treeToValue(modifiedNode, Employee.class);
+    public Employee deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        var token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        }
+
+        var builder = Employee.builder();
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            var property = property(p.currentName());
+            token = p.nextToken();
+            if (property == null) {
+                p.skipChildren();
+                continue;
+            }
+            switch (property) {
+                case ID -> builder.id(parseUuid(p, ctxt));
+                case NAME -> builder.name(_parseString(p, ctxt, NullsConstantProvider.nuller()));
+                case SALARY -> builder.salary(_parseInteger(p, ctxt, Integer.class));
+                case AGE -> builder.age(_parseInteger(p, ctxt, Integer.class));
+                case TITLE -> builder.title(_parseString(p, ctxt, NullsConstantProvider.nuller()));
+                case EMAIL -> builder.email(_parseString(p, ctxt, NullsConstantProvider.nuller()));
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            return (Employee) ctxt.handleUnexpectedToken(Employee.class, p);
+        }
+        return builder.build();
+    }
+
+    private static Property property(String field) {
+        var property = PROPERTIES.get(field);
+        return property != null ? property : PROPERTIES.get(field.toLowerCase(Locale.ROOT));
+    }
+
+    private UUID parseUuid(JsonParser p, DeserializationContext ctxt) throws IOException {
+        var value = _parseString(p, ctxt, NullsConstantProvider.nuller());
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return (UUID) ctxt.handleWeirdStringValue(UUID.class, value, "not a valid UUID");
+        }
     }
-    //    setSerializationInclusion(JsonInclude.Include.NON_NULL);
-    //    configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-    //    configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
 }
@@ -0,0 +1,7 @@
+package com.reliaquest.api.model;
+
+import com.reliaquest.server.model.Response;
+import java.util.List;
+import org.springframework.core.ParameterizedTypeReference;
+
+public class DeleteEmployeeBatchResponseType extends ParameterizedTypeReference<Response<List<Response<Boolean>>>> {}
@@ -1,12 +1,15 @@
 package com.reliaquest.api.model;
 
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.reliaquest.api.mapper.EmployeeDeserializer;
 import java.util.UUID;
 import lombok.Builder;
 
 @Builder(toBuilder = true)
 @JsonNaming(Employee.PrefixNamingStrategy.class)
+@JsonDeserialize(using = EmployeeDeserializer.class)
 public record Employee(UUID id, String name, Integer salary, Integer age, String title, String email) {
     static class PrefixNamingStrategy extends PropertyNamingStrategies.NamingBase {
         public static final String PREFIX = "employee_";
@@ -0,0 +1,16 @@
+package com.reliaquest.api.model;
+
+/**
+ * A single entry of the version 1 employee change log.
+ *
+ * @param sequence    The position of the change in the log
+ * @param type        Whether the employee was created or deleted
+ * @param employee    The employee as created, or as it was when deleted
+ */
+public record EmployeeChange(long sequence, Type type, Employee employee) {
+
+    public enum Type {
+        CREATED,
+        DELETED
+    }
+}
@@ -0,0 +1,13 @@
+package com.reliaquest.api.model;
+
+import java.util.List;
+
+/**
+ * The changes made to the version 1 employees after a given sequence number.
+ *
+ * @param epoch       Identifies the version 1 instance the sequence numbers belong to
+ * @param sequence    The sequence number of the latest change
+ * @param resync      Whether the requested changes are no longer retained upstream
+ * @param changes     The changes in sequence order
+ */
+public record EmployeeChanges(String epoch, long sequence, boolean resync, List<EmployeeChange> changes) {}
@@ -0,0 +1,6 @@
+package com.reliaquest.api.model;
+
+import com.reliaquest.server.model.Response;
+import org.springframework.core.ParameterizedTypeReference;
+
+public class EmployeeChangesResponseType extends ParameterizedTypeReference<Response<EmployeeChanges>> {}
@@ -0,0 +1,12 @@
+package com.reliaquest.api.model;
+
+/**
+ * The salary statistics of a group of employees.
+ *
+ * @param count      The number of employees with a salary
+ * @param total      The sum of their salaries
+ * @param min        The lowest salary
+ * @param max        The highest salary
+ * @param average    The average salary
+ */
+public record SalaryStatistics(long count, long total, int min, int max, double average) {}
@@ -1,19 +1,54 @@
 package com.reliaquest.api.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.reliaquest.api.cache.EmployeeDelta;
+import com.reliaquest.api.cache.EmployeeLoader;
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.cache.EmployeeSnapshotCache;
+import com.reliaquest.api.cache.EntityTags;
+import com.reliaquest.api.config.WireFormatConfig;
+import com.reliaquest.api.index.EmployeeFilter;
+import com.reliaquest.api.index.NameWordIndex;
+import com.reliaquest.api.index.SalaryAggregates;
+import com.reliaquest.api.index.SalaryGroups;
+import com.reliaquest.api.index.SalarySketch;
+import com.reliaquest.api.index.SalaryStats;
+import com.reliaquest.api.model.DeleteEmployeeBatchResponseType;
 import com.reliaquest.api.model.DeleteEmployeeResponseType;
 import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeBatchResponseType;
+import com.reliaquest.api.model.EmployeeChanges;
+import com.reliaquest.api.model.EmployeeChangesResponseType;
 import com.reliaquest.api.model.EmployeeResponseType;
 import com.reliaquest.api.model.EmployeesResponseType;
+import com.reliaquest.api.model.SalaryStatistics;
+import com.reliaquest.api.upstream.InFlightRequests;
+import com.reliaquest.api.upstream.UpstreamGuard;
+import com.reliaquest.api.upstream.UpstreamRateLimitedException;
+import com.reliaquest.api.upstream.UpstreamUnavailableException;
+import com.reliaquest.api.web.AsyncSnapshotInterceptor;
+import com.reliaquest.api.web.ServedSnapshot;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.Response;
 import io.micrometer.common.util.StringUtils;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.MissingResourceException;
-import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,29 +56,106 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EmployeeService {
+    private static final SmileFactory SMILE_FACTORY = new SmileFactory();
+
+    /**
+     * How {@link #getEmployeesByNameSearch(String, SearchMode, int)} matches names.
+     */
+    public enum SearchMode {
+        /** The name contains the search string. */
+        SUBSTRING,
+        /** Every word of the search string starts a word of the name. */
+        PREFIX,
+        /** Every word of the search string is within a few edits of a word of the name. */
+        FUZZY
+    }
+
     private final RestTemplate restTemplate;
+    private final EmployeeSnapshotCache snapshotCache;
+    private final InFlightRequests inFlightRequests;
+    private final UpstreamGuard upstreamGuard;
+    private final ObjectMapper objectMapper;
 
     /**
      * Retrieves a list of all {@link Employee employees} from the version 1 API.
      *
+     * <p>The list is served from the cached {@link EmployeeSnapshot}, and only
+     * fetched from the version 1 API when the snapshot is missing or expired.
+     *
      * @return    Returns a list of {@link Employee} objects
      */
     public List<Employee> getAllEmployees() {
-        return get("/employee", new EmployeesResponseType());
+        return snapshot().employees();
+    }
+
+    /**
+     * Retrieves the {@link Employee employees} matching the specified <b>filter</b> query, e.g.
+     * <em>title:Software Engineer;salary:50000..90000</em>.
+     *
+     * <p>The query is compiled once into an {@link EmployeeFilter}, and evaluated against the
+     * cached {@link EmployeeSnapshot} starting from its most selective indexed field.
+     *
+     * @param filter    The filter query, see {@link EmployeeFilter} for the grammar
+     * @return          Returns a list of matching {@link Employee} objects in list order
+     */
+    public List<Employee> getEmployees(@NonNull String filter) {
+        var compiled = EmployeeFilter.parse(filter);
+        return snapshot().filter(compiled);
+    }
+
+    /**
+     * Writes all {@link Employee employees}, optionally filtered by name, to the specified
+     * <b>out</b> as a JSON array, one employee at a time.
+     *
+     * <p>The employees are written from an {@link EmployeeSnapshot}, without copying its list. When
+     * none is held, the snapshot is loaded first, parsing the version 1 response token by token
+     * rather than through a {@link Response} wrapper, and the last good snapshot is written if the
+     * version 1 API fails. Nothing is written before the snapshot is resolved, so a failed load is
+     * reported as an error rather than as a truncated array, and the upstream permits of the load
+     * are released before the client is written to, however slowly it reads.
+     *
+     * @param search    The case-insensitive name substring to filter by, URL encoded, may be
+     *                  <em>null</em>
+     * @param out       The stream to write the JSON array to, left open
+     * @throws IOException    If writing to <b>out</b> fails
+     */
+    public void streamEmployees(String search, @NonNull OutputStream out) throws IOException {
+        var lowerSearch = StringUtils.isBlank(search)
+                ? null
+                : URLDecoder.decode(search, StandardCharsets.UTF_8).toLowerCase();
+        var snapshot = snapshotCache
+                .peek()
+                .orElseGet(() -> snapshot(etag -> etag != null ? fetchAllEmployees(etag) : parseAllEmployees()));
+        var employees = lowerSearch == null ? snapshot.employees() : snapshot.searchByName(lowerSearch);
+        try (var generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            for (var employee : employees) {
+                generator.writeObject(employee);
+            }
+            generator.writeEndArray();
+        }
     }
 
     /**
      * This method returns a list of {@link Employee employees} from the
      * version 1 API whose names match the specified <b>searchString</b>.
      *
+     * <p>Matching names are looked up in the trigram index of the {@link EmployeeSnapshot}.
+     *
      * @param searchString    The search string to filter employees by
      * @return                Returns a list of {@link Employee} objects
      */
@@ -52,12 +164,33 @@ public class EmployeeService {
             throw new IllegalArgumentException("Search string cannot be empty.");
         }
         var search = URLDecoder.decode(searchString, StandardCharsets.UTF_8).toLowerCase();
-        var employees = getAllEmployees();
-        return employees.stream()
-                .filter(Objects::nonNull)
-                .filter(e -> StringUtils.isNotBlank(e.name()))
-                .filter(e -> e.name().toLowerCase().contains(search))
-                .toList();
+        return snapshot().searchByName(search);
+    }
+
+    /**
+     * This method returns a list of {@link Employee employees} whose names match the specified
+     * <b>searchString</b> in the specified <b>mode</b>.
+     *
+     * <p>Prefix and fuzzy matches are looked up in the word index of the {@link EmployeeSnapshot},
+     * so neither compares the search string against every name.
+     *
+     * @param searchString    The search string to filter employees by
+     * @param mode            How names are matched
+     * @param maxDistance     The maximum edit distance per word in {@link SearchMode#FUZZY fuzzy} mode,
+     *                        up to {@value NameWordIndex#MAX_DISTANCE}
+     * @return                Returns a list of {@link Employee} objects in list order
+     */
+    public List<Employee> getEmployeesByNameSearch(
+            @NonNull String searchString, @NonNull SearchMode mode, int maxDistance) {
+        if (StringUtils.isBlank(searchString)) {
+            throw new IllegalArgumentException("Search string cannot be empty.");
+        }
+        var search = URLDecoder.decode(searchString, StandardCharsets.UTF_8).toLowerCase();
+        return switch (mode) {
+            case SUBSTRING -> snapshot().searchByName(search);
+            case PREFIX -> snapshot().searchByNamePrefix(search);
+            case FUZZY -> snapshot().searchByNameFuzzy(search, maxDistance);
+        };
     }
 
     /**
@@ -66,47 +199,134 @@ public class EmployeeService {
      *
      * <p>The ID must be a valid {@linkplain UUID}.
      *
+     * <p>The employee is looked up in the current {@link EmployeeSnapshot} first, and only
+     * fetched from the version 1 API when there is no snapshot or the ID is not in it. If the
+     * version 1 API is unavailable, the last snapshot is searched regardless of its age.
+     *
      * @param id    The ID of the employee to retrieve
      * @return      Returns an instance of {@link Employee}
      */
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     public Employee getEmployee(@NonNull String id) {
-        UUID.fromString(id);
-        return get("/employee/" + id, new EmployeeResponseType());
+        var uuid = UUID.fromString(id);
+        var snapshot = AsyncSnapshotInterceptor.preloaded().or(snapshotCache::peek);
+        var cached = snapshot.flatMap(held -> held.findById(uuid));
+        if (cached.isPresent()) {
+            ServedSnapshot.record(snapshot.get(), !snapshotCache.isFresh(snapshot.get()));
+            return cached.get();
+        }
+        try {
+            return get("/employee/" + id, new EmployeeResponseType());
+        } catch (RuntimeException ex) {
+            var lastGood = snapshotCache.lastGood();
+            var employee = lastGood.flatMap(snapshot -> snapshot.findById(uuid));
+            if (employee.isEmpty() || !isUpstreamFailure(ex)) {
+                throw ex;
+            }
+            log.warn("Upstream unavailable, serving employee {} from the last snapshot.", id);
+            ServedSnapshot.record(lastGood.get(), true);
+            return employee.get();
+        }
     }
 
     /**
      * This method retrieves the <em>highest</em> salary of all employees from the version 1 API.
      *
+     * <p>The highest salary is precomputed once per {@link EmployeeSnapshot}.
+     *
      * @return    Returns the highest salary integer of all employees
      */
     public Integer getHighestSalary() {
-        return getAllEmployees().stream()
-                .map(Employee::salary)
-                .filter(Objects::nonNull)
-                .max(Integer::compareTo)
-                .orElse(0);
+        return snapshot().salaryAggregates().highestSalary();
     }
 
     /**
      * This method retrieves the <em>top ten</em> highest earning employee names from the version 1 API.
      *
+     * <p>The top earners are precomputed once per {@link EmployeeSnapshot}.
+     *
      * @return    Returns a list of the top ten highest earning employee names
      */
     public List<String> getTopTenHighestEarningEmployeeNames() {
-        return getAllEmployees().stream()
-                .filter(Objects::nonNull)
-                .filter(e -> e.salary() != null)
-                .sorted((e1, e2) -> e2.salary().compareTo(e1.salary()))
-                .limit(10)
-                .map(Employee::name)
-                .toList();
+        return snapshot().salaryAggregates().topNames();
+    }
+
+    /**
+     * This method retrieves the <em>top k</em> highest earning {@link Employee employees}.
+     *
+     * <p>Up to the precomputed top earners of the {@link EmployeeSnapshot} are served as is. A larger
+     * <b>k</b> is selected from the snapshot with a bounded heap, in <em>O(n log k)</em>. Employees
+     * with the same salary keep the order of the employee list.
+     *
+     * @param k    The number of top earners, at least one
+     * @return     Returns the top earners, highest salary first
+     */
+    public List<Employee> getTopEarners(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1.");
+        }
+        var snapshot = snapshot();
+        var aggregates = snapshot.salaryAggregates();
+        if (k <= aggregates.limit()) {
+            var top = aggregates.topEmployees();
+            return top.subList(0, Math.min(k, top.size()));
+        }
+        return SalaryAggregates.top(snapshot.employees(), k);
+    }
+
+    /**
+     * This method estimates the specified salary <b>percentiles</b> of all employees.
+     *
+     * <p>The percentiles are read from the {@link SalarySketch} of the {@link EmployeeSnapshot}, so
+     * they cost the same at any list size and are within 1% of the exact salaries.
+     *
+     * @param percentiles    The percentiles, between 0 and 100 inclusive
+     * @return               Returns the estimated salary per percentile, in the requested order
+     */
+    public Map<Double, Integer> getSalaryPercentiles(@NonNull List<Double> percentiles) {
+        if (percentiles.isEmpty()) {
+            throw new IllegalArgumentException("At least one percentile is required.");
+        }
+        for (var percentile : percentiles) {
+            if (percentile == null || !(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Percentiles must be between 0 and 100.");
+            }
+        }
+        var sketch = snapshot().salaryAggregates().salarySketch();
+        var result = new LinkedHashMap<Double, Integer>();
+        for (var percentile : percentiles) {
+            result.put(percentile, sketch.quantile(percentile / 100));
+        }
+        return result;
+    }
+
+    /**
+     * This method retrieves the count, total, minimum, maximum and average salary per <b>title</b>.
+     *
+     * <p>The statistics are accumulated per title by the {@link EmployeeSnapshot}, so this is linear
+     * in the number of titles rather than employees.
+     *
+     * @return    Returns the {@link SalaryStatistics} per title, sorted by title
+     */
+    public Map<String, SalaryStatistics> getSalaryStatisticsByTitle() {
+        return toStatistics(snapshot().salaryGroups().byTitle());
+    }
+
+    /**
+     * This method retrieves the count, total, minimum, maximum and average salary per <b>age band</b>
+     * of {@value SalaryGroups#AGE_BAND_WIDTH} years.
+     *
+     * @return    Returns the {@link SalaryStatistics} per age band, e.g. <em>30-39</em>, youngest first
+     */
+    public Map<String, SalaryStatistics> getSalaryStatisticsByAgeBand() {
+        return toStatistics(snapshot().salaryGroups().byAgeBand());
     }
 
     /**
      * This method creates a new {@link Employee employee} leveraging the version 1 API
      * by supplying the expected <b>input</b> parameters.
      *
+     * <p>The created employee is applied to the cached {@link EmployeeSnapshot}.
+     *
      * @param input    The input fields required to create the employee
      * @return         Returns an instance of the created {@link Employee}
      * @see CreateMockEmployeeInput
@@ -116,14 +336,17 @@ public class EmployeeService {
         headers.setContentType(MediaType.APPLICATION_JSON);
         HttpEntity<CreateMockEmployeeInput> request = new HttpEntity<>(input, headers);
 
-        var response = restTemplate
-                .exchange("/employee", HttpMethod.POST, request, new EmployeeResponseType())
+        var response = exchange("/employee", HttpMethod.POST, request, new EmployeeResponseType())
                 .getBody();
         if (response == null || StringUtils.isNotBlank(response.error())) {
             throw new IllegalStateException("Unable to create employee.");
         }
 
-        return response.data();
+        var employee = response.data();
+        if (employee != null) {
+            snapshotCache.apply(new EmployeeDelta.Created(employee));
+        }
+        return employee;
     }
 
     /**
@@ -132,6 +355,11 @@ public class EmployeeService {
      *
      * <p>The ID must be a valid {@linkplain UUID}.
      *
+     * <p>The version 1 API deletes employees by name. The name is resolved with
+     * {@link #getEmployee(String)}, which avoids an upstream call when the employee
+     * is in the current {@link EmployeeSnapshot}. The deleted employee is then removed
+     * from the snapshot.
+     *
      * @param id    The ID of the employee to delete
      * @return      Returns the name of the deleted employee
      */
@@ -152,10 +380,10 @@ public class EmployeeService {
         deleteInput.setName(employee.name());
         HttpEntity<DeleteMockEmployeeInput> request = new HttpEntity<>(deleteInput, headers);
 
-        var result = restTemplate
-                .exchange("/employee", HttpMethod.DELETE, request, new DeleteEmployeeResponseType())
+        var result = exchange("/employee", HttpMethod.DELETE, request, new DeleteEmployeeResponseType())
                 .getBody();
         if (result != null && Boolean.TRUE.equals(result.data())) {
+            snapshotCache.apply(new EmployeeDelta.Deleted(employee));
             return employee.name();
         }
 
@@ -163,6 +391,273 @@ public class EmployeeService {
         throw new MissingResourceException("Unable to delete employee", EmployeeService.class.getName(), id);
     }
 
+    /**
+     * Creates the {@link Employee employees} described by <b>inputs</b> with a single call to the
+     * version 1 batch API. Each input is validated upstream on its own, so one invalid input does
+     * not fail the others. The created employees are added to the snapshot as one change.
+     *
+     * @param inputs    The {@link CreateMockEmployeeInput inputs} of the employees to create
+     * @return          Returns a {@link Response} per input, in input order, holding the created
+     *                  {@link Employee} or the reason it was not created
+     */
+    public List<Response<Employee>> createEmployees(@NonNull List<CreateMockEmployeeInput> inputs) {
+        if (inputs.isEmpty()) {
+            return List.of();
+        }
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<List<CreateMockEmployeeInput>> request = new HttpEntity<>(inputs, headers);
+
+        var response = exchange("/employee/batch", HttpMethod.POST, request, new EmployeeBatchResponseType())
+                .getBody();
+        if (response == null || response.data() == null || response.data().size() != inputs.size()) {
+            throw new IllegalStateException("Unable to create employees.");
+        }
+
+        var created = new ArrayList<EmployeeDelta>(inputs.size());
+        for (var result : response.data()) {
+            if (result.data() != null) {
+                created.add(new EmployeeDelta.Created(result.data()));
+            }
+        }
+        snapshotCache.applyAll(created);
+        return response.data();
+    }
+
+    /**
+     * Deletes the {@link Employee employees} whose IDs match the specified <b>ids</b> with a single
+     * call to the version 1 batch API.
+     *
+     * <p>The names the version 1 API deletes by are resolved against one {@link EmployeeSnapshot},
+     * loaded at most once for the whole batch, rather than with an upstream call per ID. IDs that
+     * are not valid {@linkplain UUID UUIDs}, or do not match an employee, are reported without
+     * being sent upstream. The deleted employees are removed from the snapshot as one change.
+     *
+     * @param ids    The IDs of the employees to delete
+     * @return       Returns a {@link Response} per ID, in input order, holding the name of the
+     *               deleted employee or the reason it was not deleted
+     */
+    public List<Response<String>> deleteEmployees(@NonNull List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        var snapshot = snapshot();
+        var employees = new ArrayList<Employee>(ids.size());
+        var results = new ArrayList<Response<String>>(ids.size());
+        for (var id : ids) {
+            var employee = parseId(id).flatMap(snapshot::findById).orElse(null);
+            employees.add(employee);
+            if (employee == null) {
+                results.add(Response.error("Employee not found."));
+            } else if (StringUtils.isBlank(employee.name())) {
+                results.add(Response.error("Employee name cannot be empty."));
+            } else {
+                results.add(null);
+            }
+        }
+
+        var inputs = new ArrayList<DeleteMockEmployeeInput>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (results.get(i) == null) {
+                var deleteInput = new DeleteMockEmployeeInput();
+                deleteInput.setName(employees.get(i).name());
+                inputs.add(deleteInput);
+            }
+        }
+        if (inputs.isEmpty()) {
+            return results;
+        }
+
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<List<DeleteMockEmployeeInput>> request = new HttpEntity<>(inputs, headers);
+        var response = exchange("/employee/batch", HttpMethod.DELETE, request, new DeleteEmployeeBatchResponseType())
+                .getBody();
+        if (response == null || response.data() == null || response.data().size() != inputs.size()) {
+            throw new IllegalStateException("Unable to delete employees.");
+        }
+
+        var deleted = response.data().iterator();
+        var removed = new ArrayList<EmployeeDelta>(inputs.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (results.get(i) != null) {
+                continue;
+            }
+            var employee = employees.get(i);
+            var result = deleted.next();
+            if (Boolean.TRUE.equals(result.data())) {
+                removed.add(new EmployeeDelta.Deleted(employee));
+                results.set(i, Response.handledWith(employee.name()));
+            } else {
+                results.set(i, Response.error(result.error() != null ? result.error() : "Unable to delete employee."));
+            }
+        }
+        snapshotCache.applyAll(removed);
+        return results;
+    }
+
+    private static Optional<UUID> parseId(String id) {
+        try {
+            return Optional.of(UUID.fromString(id));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Fetches the full employee list for the {@link EmployeeSnapshotCache}, reading the version 1
+     * response token by token.
+     */
+    private EmployeeLoader.Loaded parseAllEmployees() {
+        return upstreamGuard.execute(HttpMethod.GET, "/employee", () -> restTemplate.execute(
+                "/employee",
+                HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                response -> EmployeeLoader.Loaded.of(
+                        readEmployees(response), response.getHeaders().getETag())));
+    }
+
+    /**
+     * Reads the <em>data</em> array of a version 1 {@link Response} from the <b>response</b> body,
+     * one {@link Employee} at a time. The body is read as JSON or Smile, according to its content
+     * type.
+     */
+    private List<Employee> readEmployees(ClientHttpResponse response) throws IOException {
+        var smile = WireFormatConfig.APPLICATION_SMILE.isCompatibleWith(
+                response.getHeaders().getContentType());
+        try (var parser = smile
+                ? SMILE_FACTORY.createParser(response.getBody())
+                : objectMapper.createParser(response.getBody())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new MissingResourceException(
+                        "Unable to retrieve resource.", EmployeeService.class.getName(), "/employee");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_ARRAY && "data".equals(field)) {
+                    var employees = new ArrayList<Employee>();
+                    for (var token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                        if (token == null) {
+                            throw new JsonEOFException(parser, null, "Version 1 employee list ended early.");
+                        }
+                        if (token == JsonToken.START_OBJECT) {
+                            employees.add(objectMapper.readValue(parser, Employee.class));
+                        }
+                    }
+                    log.debug("Read {} employees from the version 1 API.", employees.size());
+                    return employees;
+                }
+                parser.skipChildren();
+            }
+        }
+        throw new MissingResourceException(
+                "Unable to retrieve resource.", EmployeeService.class.getName(), "/employee");
+    }
+
+    private static Map<String, SalaryStatistics> toStatistics(Map<String, SalaryStats> groups) {
+        var statistics = new LinkedHashMap<String, SalaryStatistics>();
+        groups.forEach((group, stats) -> statistics.put(
+                group,
+                new SalaryStatistics(stats.count(), stats.sum(), stats.min(), stats.max(), stats.average())));
+        return statistics;
+    }
+
+    /**
+     * Loads the {@link EmployeeSnapshot} reads are served from without blocking the caller, see
+     * {@link EmployeeSnapshotCache#getAsync(EmployeeLoader)}. If it cannot be loaded because the
+     * version 1 API is unavailable, the last snapshot is served instead, however old.
+     *
+     * @return    Returns a {@link CompletableFuture} of the {@link EmployeeSnapshot} to serve reads from
+     */
+    public CompletableFuture<EmployeeSnapshot> getSnapshotAsync() {
+        return snapshotCache.getAsync(this::fetchAllEmployees).exceptionally(ex -> {
+            var cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            var lastGood = snapshotCache.lastGood();
+            if (lastGood.isEmpty() || !(cause instanceof RuntimeException failure) || !isUpstreamFailure(failure)) {
+                throw ex instanceof CompletionException completion ? completion : new CompletionException(ex);
+            }
+            log.warn("Upstream unavailable, serving employee snapshot v{}.", lastGood.get().version());
+            return lastGood.get();
+        });
+    }
+
+    /**
+     * Returns the {@link EmployeeSnapshot} to serve a read from. If it cannot be loaded because
+     * the version 1 API is unavailable, the last snapshot is served instead, however old.
+     */
+    private EmployeeSnapshot snapshot() {
+        return snapshot(this::fetchAllEmployees);
+    }
+
+    private EmployeeSnapshot snapshot(EmployeeLoader loader) {
+        var preloaded = AsyncSnapshotInterceptor.preloaded();
+        if (preloaded.isPresent()) {
+            ServedSnapshot.record(preloaded.get(), !snapshotCache.isFresh(preloaded.get()));
+            return preloaded.get();
+        }
+        try {
+            var snapshot = snapshotCache.get(loader);
+            ServedSnapshot.record(snapshot, !snapshotCache.isFresh(snapshot));
+            return snapshot;
+        } catch (RuntimeException ex) {
+            var lastGood = snapshotCache.lastGood();
+            if (lastGood.isEmpty() || !isUpstreamFailure(ex)) {
+                throw ex;
+            }
+            log.warn("Upstream unavailable, serving employee snapshot v{}.", lastGood.get().version());
+            ServedSnapshot.record(lastGood.get(), true);
+            return lastGood.get();
+        }
+    }
+
+    /**
+     * Brings the held employee list up to date. When its <b>etag</b> carries a change log position,
+     * only the changes made since are fetched. Otherwise, or when those changes are no longer
+     * retained upstream, the full list is fetched, revalidated with <em>If-None-Match</em> so that
+     * a <em>304</em> spares the transfer of an unchanged list.
+     */
+    private EmployeeLoader.Loaded fetchAllEmployees(String etag) {
+        var changes = ChangeCursor.parse(etag).flatMap(this::fetchChanges);
+        if (changes.isPresent()) {
+            return changes.get();
+        }
+
+        HttpEntity<?> request = null;
+        if (etag != null) {
+            var headers = new HttpHeaders();
+            headers.setIfNoneMatch(etag);
+            request = new HttpEntity<>(headers);
+        }
+        var conditional = request;
+        var response = inFlightRequests.execute(
+                "/employee", () -> exchange("/employee", HttpMethod.GET, conditional, new EmployeesResponseType()));
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            return EmployeeLoader.Loaded.notModified();
+        }
+        var employees = unwrap("/employee", response);
+        return EmployeeLoader.Loaded.of(employees == null ? List.of() : employees, response.getHeaders().getETag());
+    }
+
+    private Optional<EmployeeLoader.Loaded> fetchChanges(ChangeCursor cursor) {
+        var path = "/employee/changes?since=" + cursor.sequence();
+        EmployeeChanges changes;
+        try {
+            changes = get(path, new EmployeeChangesResponseType());
+        } catch (HttpClientErrorException | MissingResourceException ex) {
+            log.debug("Employee change log unavailable, fetching the full list.");
+            return Optional.empty();
+        }
+        if (changes == null || changes.resync() || !cursor.epoch().equals(changes.epoch())) {
+            return Optional.empty();
+        }
+        if (changes.changes().isEmpty()) {
+            return Optional.of(EmployeeLoader.Loaded.notModified());
+        }
+        var deltas = changes.changes().stream().map(EmployeeDelta::of).toList();
+        var etag = new ChangeCursor(changes.epoch(), changes.sequence()).toEntityTag();
+        return Optional.of(EmployeeLoader.Loaded.changed(deltas, etag));
+    }
+
     /**
      * This method makes a GET REST call to the specified <b>path</b> and returns the response
      * cast as the specified generic <b>type</b> <em>T</em>. This method will unpackage the request
@@ -170,17 +665,75 @@ public class EmployeeService {
      *
      * <p>All requests from the version 1 API are wrapped in a {@link Response} object.
      *
+     * <p>Concurrent calls for the same <b>path</b> are coalesced into a single upstream request,
+     * see {@link InFlightRequests}.
+     *
      * @param path      The path to be appended to the base URL
      * @param type      The parameterized type to cast the response to
      * @return          Returns an instance of the generic type <em>T</em>
      * @param <T>       The generic type to cast the response to
      */
     private <T> T get(@NonNull String path, @NonNull ParameterizedTypeReference<Response<T>> type) {
-        var response = restTemplate.exchange(path, HttpMethod.GET, null, type);
+        var response = inFlightRequests.execute(path, () -> exchange(path, HttpMethod.GET, null, type));
+        return unwrap(path, response);
+    }
+
+    private static <T> T unwrap(String path, ResponseEntity<Response<T>> response) {
         var body = response.hasBody() ? response.getBody() : null;
         if (body == null || StringUtils.isNotBlank(body.error())) {
             throw new MissingResourceException("Unable to retrieve resource.", EmployeeService.class.getName(), path);
         }
         return body.data();
     }
+
+    /**
+     * This method sends a request to the version 1 API through the {@link UpstreamGuard}, once
+     * the bulkhead, the circuit breaker and the budget all permit it. A 429 from the version 1 API
+     * surfaces as an {@link UpstreamRateLimitedException} carrying the time until the budget refills.
+     *
+     * @param path       The path to be appended to the base URL
+     * @param method     The HTTP method of the request
+     * @param request    The request entity, may be <em>null</em>
+     * @param type       The parameterized type to cast the response to
+     * @return           Returns the {@link ResponseEntity} of the version 1 API
+     * @param <T>        The generic type to cast the response to
+     */
+    private <T> ResponseEntity<T> exchange(
+            String path, HttpMethod method, HttpEntity<?> request, ParameterizedTypeReference<T> type) {
+        return upstreamGuard.execute(method, path, () -> restTemplate.exchange(path, method, request, type));
+    }
+
+    private static boolean isUpstreamFailure(RuntimeException ex) {
+        return ex instanceof UpstreamUnavailableException
+                || ex instanceof UpstreamRateLimitedException
+                || (ex instanceof RestClientException && !(ex instanceof HttpClientErrorException));
+    }
+
+    /**
+     * Position in the version 1 change log, carried by the entity tag of the employee list in the
+     * form <em>"&lt;epoch&gt;-&lt;sequence&gt;"</em>.
+     */
+    private record ChangeCursor(String epoch, long sequence) {
+
+        static Optional<ChangeCursor> parse(String etag) {
+            var value = EntityTags.opaqueValue(etag);
+            if (value == null) {
+                return Optional.empty();
+            }
+            var dash = value.lastIndexOf('-');
+            if (dash <= 0) {
+                return Optional.empty();
+            }
+            try {
+                var sequence = Long.parseLong(value.substring(dash + 1));
+                return Optional.of(new ChangeCursor(value.substring(0, dash), sequence));
+            } catch (NumberFormatException ignored) {
+                return Optional.empty();
+            }
+        }
+
+        String toEntityTag() {
+            return "\"%s-%d\"".formatted(epoch, sequence);
+        }
+    }
 }
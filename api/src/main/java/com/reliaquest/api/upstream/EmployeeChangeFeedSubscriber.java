@@ -0,0 +1,279 @@
+package com.reliaquest.api.upstream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.cache.EmployeeDelta;
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.cache.EmployeeSnapshotCache;
+import com.reliaquest.api.cache.EntityTags;
+import com.reliaquest.api.model.EmployeeChange;
+import com.reliaquest.api.model.EmployeeChanges;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Keeps the {@link EmployeeSnapshotCache} current by subscribing to the server-sent change feed of
+ * the version 1 API, instead of polling it. Each pushed change is applied to the snapshot as it
+ * happens, and every change or heartbeat confirms a snapshot whose entity tag matches the feed
+ * position, so reads are served from memory without calling the version 1 API while the feed is
+ * connected.
+ *
+ * <p>The feed is resumed after a disconnect by sending the last event id, or the entity tag of the
+ * current snapshot, as <em>Last-Event-ID</em>. When the version 1 API can no longer replay from
+ * there, the snapshot is expired and the next read loads the list again. If the feed stays down
+ * the snapshot simply ages, and the cache falls back to its regular loads.
+ *
+ * <p>Every connection attempt is a version 1 request, so it goes through the {@link UpstreamGuard}
+ * like any other: it is counted by the bulkhead, the circuit breaker and the metrics, and taken from
+ * the budget. Only the connect is guarded, the feed is consumed once the guard is released.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "api.change-feed.enabled", havingValue = "true")
+public class EmployeeChangeFeedSubscriber implements MeterBinder {
+
+    private static final String PATH = "/employee/changes/stream";
+
+    private final EmployeeSnapshotCache snapshotCache;
+    private final UpstreamGuard upstreamGuard;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI uri;
+    private final Duration reconnectDelay;
+
+    private volatile Thread thread;
+    private volatile boolean connected;
+    private volatile String lastEventId;
+
+    public EmployeeChangeFeedSubscriber(
+            EmployeeSnapshotCache snapshotCache,
+            UpstreamGuard upstreamGuard,
+            ObjectMapper objectMapper,
+            @Value("${api.server-uri}") String serverUri,
+            @Value("${api.connection-timeout}") long connectionTimeout,
+            @Value("${api.change-feed.reconnect-delay}") long reconnectDelay) {
+        this.snapshotCache = snapshotCache;
+        this.upstreamGuard = upstreamGuard;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectionTimeout))
+                .build();
+        this.uri = URI.create(serverUri + PATH);
+        this.reconnectDelay = Duration.ofMillis(reconnectDelay);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(this::run, "employee-change-feed");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("upstream.change.feed.connected", this, subscriber -> subscriber.isConnected() ? 1 : 0)
+                .description("Whether the version 1 change feed is connected")
+                .register(registry);
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Duration delay;
+            try {
+                delay = subscribe();
+            } catch (UpstreamRateLimitedException e) {
+                delay = e.getRetryAfter();
+            } catch (UpstreamUnavailableException e) {
+                log.warn("Change feed not connected, reconnecting in {}: {}", e.getRetryAfter(), e.getMessage());
+                delay = e.getRetryAfter();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Change feed failed, reconnecting in {}: {}", reconnectDelay, e.getMessage());
+                delay = reconnectDelay;
+            } finally {
+                connected = false;
+            }
+
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Connects to the feed and consumes it until the version 1 API closes it.
+     *
+     * @return    Returns how long to wait before connecting again
+     */
+    private Duration subscribe() throws IOException {
+        var request = HttpRequest.newBuilder(uri).header("Accept", "text/event-stream");
+        var resumeFrom = resumeFrom();
+        if (resumeFrom != null) {
+            request.header("Last-Event-ID", resumeFrom);
+        }
+
+        var response = upstreamGuard.execute(HttpMethod.GET, PATH, () -> connect(request.build()));
+        connected = true;
+        log.info("Connected to the change feed at {}", resumeFrom);
+        try (var lines = response.body()) {
+            consume(lines);
+        }
+        log.info("Change feed closed at {}", lastEventId);
+        return Duration.ZERO;
+    }
+
+    /**
+     * Sends the feed <b>request</b>, failing as a {@link RestTemplate} call would on anything but a
+     * <em>200</em>, so that the {@link UpstreamGuard} classifies the outcome the same way.
+     */
+    private HttpResponse<Stream<String>> connect(HttpRequest request) {
+        HttpResponse<Stream<String>> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+        } catch (IOException e) {
+            throw new ResourceAccessException("Unable to connect to the change feed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while connecting to the change feed.");
+        }
+        if (response.statusCode() == HttpStatus.OK.value()) {
+            return response;
+        }
+
+        response.body().close();
+        var status = HttpStatusCode.valueOf(response.statusCode());
+        var headers = new HttpHeaders();
+        response.headers().map().forEach(headers::addAll);
+        var message = "Change feed responded with " + response.statusCode();
+        throw status.is5xxServerError()
+                ? HttpServerErrorException.create(message, status, "", headers, null, null)
+                : HttpClientErrorException.create(message, status, "", headers, null, null);
+    }
+
+    private String resumeFrom() {
+        if (lastEventId != null) {
+            return lastEventId;
+        }
+        return snapshotCache
+                .lastGood()
+                .map(EmployeeSnapshot::etag)
+                .map(EntityTags::opaqueValue)
+                .orElse(null);
+    }
+
+    /**
+     * Reads the <em>text/event-stream</em> <b>lines</b>, dispatching every event once its terminating
+     * blank line is read. Comment lines are the heartbeats of the feed.
+     */
+    void consume(Stream<String> lines) throws JsonProcessingException {
+        String id = null;
+        String event = null;
+        var data = new StringBuilder();
+        for (var iterator = lines.iterator(); iterator.hasNext(); ) {
+            var line = iterator.next();
+            if (line.isEmpty()) {
+                if (!data.isEmpty()) {
+                    dispatch(id, event, data.toString());
+                }
+                id = null;
+                event = null;
+                data.setLength(0);
+                continue;
+            }
+            if (line.startsWith(":")) {
+                onHeartbeat();
+                continue;
+            }
+
+            var colon = line.indexOf(':');
+            var field = colon < 0 ? line : line.substring(0, colon);
+            var value = colon < 0 ? "" : line.substring(colon + 1);
+            if (value.startsWith(" ")) {
+                value = value.substring(1);
+            }
+            switch (field) {
+                case "id" -> id = value;
+                case "event" -> event = value;
+                case "data" -> {
+                    if (!data.isEmpty()) {
+                        data.append('\n');
+                    }
+                    data.append(value);
+                }
+                default -> {}
+            }
+        }
+    }
+
+    private void dispatch(String id, String event, String data) throws JsonProcessingException {
+        if ("position".equals(event)) {
+            var position = objectMapper.readValue(data, EmployeeChanges.class);
+            if (position.resync()) {
+                log.info("Change feed cannot resume from {}, expiring the snapshot", lastEventId);
+                snapshotCache.expire();
+            }
+            lastEventId = id;
+            snapshotCache.applyFromFeed(List.of(), toEntityTag(id), toEntityTag(id));
+        } else if ("change".equals(event)) {
+            var change = objectMapper.readValue(data, EmployeeChange.class);
+            var from = lastEventId;
+            lastEventId = id;
+            snapshotCache.applyFromFeed(
+                    List.of(EmployeeDelta.of(change)), from == null ? "" : toEntityTag(from), toEntityTag(id));
+        } else {
+            log.debug("Ignoring change feed event {}", event);
+        }
+    }
+
+    private void onHeartbeat() {
+        var id = lastEventId;
+        if (id != null) {
+            snapshotCache.applyFromFeed(List.of(), toEntityTag(id), toEntityTag(id));
+        }
+    }
+
+    private static String toEntityTag(String eventId) {
+        return '"' + eventId + '"';
+    }
+}
@@ -0,0 +1,80 @@
+package com.reliaquest.api.upstream;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry of upstream requests that are currently in flight, keyed by upstream path.
+ *
+ * <p>The first caller for a key performs the request on its own thread. Every caller arriving for
+ * the same key while that request is still running waits on the same future instead of sending an
+ * identical request, and receives the same result or the same exception. The key is released as
+ * soon as the request completes, so results are never reused after the fact.
+ */
+@Slf4j
+@Component
+public class InFlightRequests {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Executes the specified <b>request</b>, unless a request with the same <b>key</b> is already
+     * in flight, in which case its outcome is shared.
+     *
+     * @param key        The key identifying identical requests, usually the upstream path
+     * @param request    The request to perform
+     * @return           Returns the result of the request
+     * @param <T>        The result type of the request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(@NonNull String key, @NonNull Supplier<T> request) {
+        var future = new CompletableFuture<Object>();
+        var existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            log.debug("Joining in-flight request: {}", key);
+            return (T) await(existing);
+        }
+
+        try {
+            var result = request.get();
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * @return    Returns the number of distinct requests currently in flight
+     */
+    public int size() {
+        return inFlight.size();
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new CompletionException(ex.getCause());
+        }
+    }
+}
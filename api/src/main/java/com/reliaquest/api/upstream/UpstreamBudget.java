@@ -0,0 +1,299 @@
+package com.reliaquest.api.upstream;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Client side token bucket guarding the request quota of the version 1 API.
+ *
+ * <p>The version 1 API lets a fixed number of requests through and then refuses every request
+ * until a backoff window has passed since the last one it allowed. The bucket mirrors that: it holds
+ * <em>capacity</em> tokens and, once empty, refills all of them <em>window</em> after the last token
+ * was taken. Both values start from configuration and are learned from observed 429s:
+ * <ul>
+ *     <li>A 429 after <em>n</em> allowed requests lowers the capacity to <em>n</em>.</li>
+ *     <li>A 429 on the first request after a refill means the window was too short, so it grows.</li>
+ * </ul>
+ *
+ * <p>A 429 can be transient, so the learned values are probed back: every
+ * {@value #RECOVERY_WINDOWS} refills in a row without a 429, the capacity grows by one token and the
+ * window shrinks by the factor it grows by, never past their configured values.
+ *
+ * <p>Callers finding the bucket empty queue for at most <em>max-wait</em>. Calls are shed right
+ * away when the next token is further away than that, or when <em>max-queue</em> callers are
+ * already waiting.
+ */
+@Slf4j
+@Component
+public class UpstreamBudget implements MeterBinder {
+
+    private static final double WINDOW_GROWTH = 1.5;
+    private static final int RECOVERY_WINDOWS = 3;
+
+    private final int initialCapacity;
+    private final long initialWindowNanos;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final long maxWindowNanos;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition tokenAvailable = lock.newCondition();
+
+    private int capacity;
+    private long windowNanos;
+    private int tokens;
+    private int takenSinceRefill;
+    private long refillAtNanos;
+    private int waiting;
+    private int cleanWindows;
+    private boolean rateLimitedInWindow;
+
+    private final AtomicLong shed = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+
+    @Autowired
+    public UpstreamBudget(
+            @Value("${api.budget.initial-capacity}") int initialCapacity,
+            @Value("${api.budget.initial-window}") long initialWindow,
+            @Value("${api.budget.max-window}") long maxWindow,
+            @Value("${api.budget.max-wait}") long maxWait,
+            @Value("${api.budget.max-queue}") int maxQueue) {
+        this(
+                initialCapacity,
+                Duration.ofMillis(initialWindow),
+                Duration.ofMillis(maxWindow),
+                Duration.ofMillis(maxWait),
+                maxQueue);
+    }
+
+    public UpstreamBudget(
+            int initialCapacity,
+            @NonNull Duration initialWindow,
+            @NonNull Duration maxWindow,
+            @NonNull Duration maxWait,
+            int maxQueue) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Initial capacity must be at least 1.");
+        }
+        this.initialCapacity = initialCapacity;
+        this.initialWindowNanos = initialWindow.toNanos();
+        this.capacity = initialCapacity;
+        this.tokens = initialCapacity;
+        this.windowNanos = initialWindowNanos;
+        this.maxWindowNanos = Math.max(maxWindow.toNanos(), windowNanos);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.maxQueue = maxQueue;
+    }
+
+    /**
+     * Takes a token for one upstream request, waiting for the bucket to refill if needed.
+     *
+     * @throws UpstreamRateLimitedException    If no token can be had within <em>max-wait</em>
+     */
+    public void acquire() {
+        lock.lock();
+        try {
+            var now = System.nanoTime();
+            if (tryTake(now)) {
+                return;
+            }
+            if (waiting >= maxQueue || refillAtNanos - now > maxWaitNanos) {
+                throw shed(now);
+            }
+
+            waiting++;
+            try {
+                var deadline = now + maxWaitNanos;
+                while (true) {
+                    var remaining = deadline - now;
+                    if (remaining <= 0) {
+                        throw shed(now);
+                    }
+                    tokenAvailable.awaitNanos(Math.min(remaining, Math.max(refillAtNanos - now, 1)));
+                    now = System.nanoTime();
+                    if (tryTake(now)) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw shed(System.nanoTime());
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a 429 from the version 1 API and adapts the capacity or window accordingly.
+     *
+     * @param retryAfter    The <em>Retry-After</em> advertised by the upstream, if any
+     * @return              Returns how long until the bucket refills
+     */
+    public Duration onRateLimited(Duration retryAfter) {
+        lock.lock();
+        try {
+            rateLimited.incrementAndGet();
+            rateLimitedInWindow = true;
+            if (takenSinceRefill > 1) {
+                capacity = takenSinceRefill - 1;
+            } else {
+                windowNanos = Math.min(maxWindowNanos, (long) (windowNanos * WINDOW_GROWTH));
+            }
+            var backoff = retryAfter == null ? windowNanos : Math.max(windowNanos, retryAfter.toNanos());
+            tokens = 0;
+            refillAtNanos = System.nanoTime() + backoff;
+            log.warn(
+                    "Upstream rate limited; capacity is now {} requests per {} ms window.",
+                    capacity,
+                    TimeUnit.NANOSECONDS.toMillis(windowNanos));
+            return Duration.ofNanos(backoff);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getAvailableTokens() {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            return tokens;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        lock.lock();
+        try {
+            return capacity;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Duration getWindow() {
+        lock.lock();
+        try {
+            return Duration.ofNanos(windowNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return    Returns the estimated time until a token is available, zero if one is available now
+     */
+    public Duration getTimeToNextToken() {
+        lock.lock();
+        try {
+            var now = System.nanoTime();
+            refill(now);
+            return tokens > 0 ? Duration.ZERO : Duration.ofNanos(Math.max(refillAtNanos - now, 0));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("upstream.budget.tokens", this, UpstreamBudget::getAvailableTokens)
+                .description("Tokens currently available for upstream requests")
+                .register(registry);
+        Gauge.builder("upstream.budget.capacity", this, UpstreamBudget::getCapacity)
+                .description("Learned number of upstream requests allowed per window")
+                .register(registry);
+        Gauge.builder("upstream.budget.window", this, budget -> budget.getWindow().toMillis())
+                .baseUnit("milliseconds")
+                .description("Learned backoff window after the upstream request tokens run out")
+                .register(registry);
+        Gauge.builder("upstream.budget.queue.depth", this, UpstreamBudget::getQueueDepth)
+                .description("Callers waiting for an upstream request token")
+                .register(registry);
+        Gauge.builder("upstream.budget.next.token", this, budget -> budget.getTimeToNextToken().toMillis())
+                .baseUnit("milliseconds")
+                .description("Estimated time until the next upstream request token")
+                .register(registry);
+        FunctionCounter.builder("upstream.budget.shed", shed, AtomicLong::get)
+                .description("Upstream requests shed before being sent")
+                .register(registry);
+        FunctionCounter.builder("upstream.budget.rate.limited", rateLimited, AtomicLong::get)
+                .description("Upstream requests refused with a 429")
+                .register(registry);
+    }
+
+    private boolean tryTake(long now) {
+        refill(now);
+        if (tokens == 0) {
+            return false;
+        }
+        tokens--;
+        takenSinceRefill++;
+        if (tokens == 0) {
+            refillAtNanos = now + windowNanos;
+        }
+        return true;
+    }
+
+    private void refill(long now) {
+        if (tokens == 0 && now - refillAtNanos >= 0) {
+            recover();
+            tokens = capacity;
+            takenSinceRefill = 0;
+            tokenAvailable.signalAll();
+        }
+    }
+
+    /*
+     * Counts the window that just ended, and probes the capacity and window back towards their
+     * configured values once enough windows in a row ended without a 429.
+     */
+    private void recover() {
+        if (rateLimitedInWindow) {
+            rateLimitedInWindow = false;
+            cleanWindows = 0;
+            return;
+        }
+        if (++cleanWindows < RECOVERY_WINDOWS) {
+            return;
+        }
+        cleanWindows = 0;
+        if (capacity < initialCapacity || windowNanos > initialWindowNanos) {
+            capacity = Math.min(initialCapacity, capacity + 1);
+            windowNanos = Math.max(initialWindowNanos, (long) (windowNanos / WINDOW_GROWTH));
+            log.info(
+                    "Upstream budget recovering; capacity is now {} requests per {} ms window.",
+                    capacity,
+                    TimeUnit.NANOSECONDS.toMillis(windowNanos));
+        }
+    }
+
+    private UpstreamRateLimitedException shed(long now) {
+        shed.incrementAndGet();
+        var retryAfter = Duration.ofNanos(Math.max(refillAtNanos - now, 0));
+        return new UpstreamRateLimitedException("Upstream request budget exhausted.", retryAfter);
+    }
+}
@@ -0,0 +1,109 @@
+package com.reliaquest.api.upstream;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caps the number of concurrent calls to the version 1 API per {@link Operation}, so that slow
+ * writes cannot take every connection and starve reads, or the other way around.
+ *
+ * <p>A caller finding its operation at capacity waits at most <em>max-wait</em> for a permit
+ * before being refused with an {@link UpstreamUnavailableException}.
+ */
+@Component
+public class UpstreamBulkhead implements MeterBinder {
+
+    public enum Operation {
+        READ,
+        WRITE
+    }
+
+    private final Map<Operation, Semaphore> permits = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> rejected = new EnumMap<>(Operation.class);
+    private final Duration maxWait;
+
+    @Autowired
+    public UpstreamBulkhead(
+            @Value("${api.bulkhead.read}") int maxReads,
+            @Value("${api.bulkhead.write}") int maxWrites,
+            @Value("${api.bulkhead.max-wait}") long maxWait) {
+        this(maxReads, maxWrites, Duration.ofMillis(maxWait));
+    }
+
+    public UpstreamBulkhead(int maxReads, int maxWrites, @NonNull Duration maxWait) {
+        permits.put(Operation.READ, new Semaphore(maxReads, true));
+        permits.put(Operation.WRITE, new Semaphore(maxWrites, true));
+        for (var operation : Operation.values()) {
+            rejected.put(operation, new AtomicLong());
+        }
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Runs the specified <b>call</b> once a permit for its <b>operation</b> is available.
+     *
+     * @param operation    The kind of call being made
+     * @param call         The call to the version 1 API
+     * @return             Returns the result of the <b>call</b>
+     * @param <T>          The result type of the <b>call</b>
+     * @throws UpstreamUnavailableException    If no permit is available within <em>max-wait</em>
+     */
+    public <T> T execute(@NonNull Operation operation, @NonNull Supplier<T> call) {
+        var semaphore = permits.get(operation);
+        if (!tryAcquire(semaphore)) {
+            rejected.get(operation).incrementAndGet();
+            throw new UpstreamUnavailableException(
+                    "Too many concurrent upstream " + name(operation) + " requests.", maxWait);
+        }
+        try {
+            return call.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    public int getAvailablePermits(@NonNull Operation operation) {
+        return permits.get(operation).availablePermits();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        for (var operation : Operation.values()) {
+            Gauge.builder("upstream.bulkhead.available", this, bulkhead -> bulkhead.getAvailablePermits(operation))
+                    .tag("operation", name(operation))
+                    .description("Permits available for concurrent upstream requests")
+                    .register(registry);
+            FunctionCounter.builder("upstream.bulkhead.rejected", rejected.get(operation), AtomicLong::get)
+                    .tag("operation", name(operation))
+                    .description("Upstream requests refused because the bulkhead was full")
+                    .register(registry);
+        }
+    }
+
+    private boolean tryAcquire(Semaphore semaphore) {
+        try {
+            return semaphore.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String name(Operation operation) {
+        return operation.name().toLowerCase(Locale.ROOT);
+    }
+}
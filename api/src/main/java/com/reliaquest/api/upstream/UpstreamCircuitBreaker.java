@@ -0,0 +1,170 @@
+package com.reliaquest.api.upstream;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Circuit breaker around calls to the version 1 API.
+ *
+ * <p>The breaker opens after <em>failure-threshold</em> consecutive failures, where a failure is
+ * a 429, a 5xx, or an I/O error such as a timeout. While open, calls are refused right away with an
+ * {@link UpstreamUnavailableException} instead of waiting out the timeouts. After
+ * <em>open-duration</em> a single trial call is let through (half-open): its success closes the
+ * breaker, its failure opens it again.
+ *
+ * <p>Other errors, such as a 404, mean the upstream is answering and count as a success. Calls
+ * shed locally by the {@link UpstreamBudget} never reached the upstream and are not counted.
+ */
+@Slf4j
+@Component
+public class UpstreamCircuitBreaker implements MeterBinder {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private enum Outcome {
+        SUCCESS,
+        FAILURE,
+        IGNORED
+    }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+    private boolean trialInFlight;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Autowired
+    public UpstreamCircuitBreaker(
+            @Value("${api.circuit-breaker.failure-threshold}") int failureThreshold,
+            @Value("${api.circuit-breaker.open-duration}") long openDuration) {
+        this(failureThreshold, Duration.ofMillis(openDuration), Clock.systemUTC());
+    }
+
+    public UpstreamCircuitBreaker(int failureThreshold, @NonNull Duration openDuration, @NonNull Clock clock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold must be at least 1.");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    /**
+     * Runs the specified <b>call</b> if the breaker permits it, and records its outcome.
+     *
+     * @param call    The call to the version 1 API
+     * @return        Returns the result of the <b>call</b>
+     * @param <T>     The result type of the <b>call</b>
+     * @throws UpstreamUnavailableException    If the breaker is open
+     */
+    public <T> T execute(@NonNull Supplier<T> call) {
+        acquirePermission();
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException ex) {
+            record(classify(ex));
+            throw ex;
+        }
+        record(Outcome.SUCCESS);
+        return result;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("upstream.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("State of the upstream circuit breaker: 0 closed, 1 open, 2 half-open")
+                .register(registry);
+        FunctionCounter.builder("upstream.circuit.rejected", rejected, AtomicLong::get)
+                .description("Upstream requests refused while the circuit breaker was open")
+                .register(registry);
+    }
+
+    private synchronized void acquirePermission() {
+        if (state == State.OPEN) {
+            var reopenAt = openedAt.plus(openDuration);
+            var now = clock.instant();
+            if (now.isBefore(reopenAt)) {
+                throw reject(Duration.between(now, reopenAt));
+            }
+            state = State.HALF_OPEN;
+            log.info("Upstream circuit breaker half-open, sending a trial request.");
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                throw reject(openDuration);
+            }
+            trialInFlight = true;
+        }
+    }
+
+    private synchronized void record(Outcome outcome) {
+        var trial = state == State.HALF_OPEN && trialInFlight;
+        trialInFlight = false;
+        switch (outcome) {
+            case SUCCESS -> {
+                consecutiveFailures = 0;
+                if (state != State.CLOSED) {
+                    state = State.CLOSED;
+                    log.info("Upstream circuit breaker closed.");
+                }
+            }
+            case FAILURE -> {
+                consecutiveFailures++;
+                if (trial || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                    state = State.OPEN;
+                    openedAt = clock.instant();
+                    log.warn(
+                            "Upstream circuit breaker opened after {} consecutive failures.",
+                            consecutiveFailures);
+                }
+            }
+            case IGNORED -> {}
+        }
+    }
+
+    private UpstreamUnavailableException reject(Duration retryAfter) {
+        rejected.incrementAndGet();
+        return new UpstreamUnavailableException("Upstream circuit breaker is open.", retryAfter);
+    }
+
+    private static Outcome classify(RuntimeException ex) {
+        if (ex instanceof HttpClientErrorException.TooManyRequests
+                || ex instanceof HttpServerErrorException
+                || ex instanceof ResourceAccessException) {
+            return Outcome.FAILURE;
+        }
+        if (ex instanceof UpstreamRateLimitedException) {
+            return Outcome.IGNORED;
+        }
+        return Outcome.SUCCESS;
+    }
+}
@@ -0,0 +1,72 @@
+package com.reliaquest.api.upstream;
+
+import com.reliaquest.api.upstream.UpstreamBulkhead.Operation;
+import io.micrometer.common.util.StringUtils;
+import java.time.Duration;
+import java.util.function.Supplier;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * The single path every call to the version 1 API takes, whatever client makes it:
+ * <ol>
+ *     <li>the {@link UpstreamBulkhead} limits the concurrent reads and writes</li>
+ *     <li>the {@link UpstreamCircuitBreaker} refuses calls while the upstream is failing</li>
+ *     <li>the {@link UpstreamBudget} paces the calls under the upstream rate limit</li>
+ *     <li>the {@link UpstreamMetrics} time the call</li>
+ * </ol>
+ *
+ * <p>A <em>429</em>, thrown by the call as a {@link HttpClientErrorException.TooManyRequests}, is
+ * reported to the budget and rethrown as an {@link UpstreamRateLimitedException}.
+ */
+@Component
+@RequiredArgsConstructor
+public class UpstreamGuard {
+
+    private final UpstreamBudget upstreamBudget;
+    private final UpstreamCircuitBreaker circuitBreaker;
+    private final UpstreamBulkhead bulkhead;
+    private final UpstreamMetrics upstreamMetrics;
+
+    /**
+     * Runs the specified <b>call</b> to <b>path</b> once the bulkhead, circuit breaker and budget
+     * permit it.
+     *
+     * @param method    The HTTP method of the call, GET calls are reads and any other a write
+     * @param path      The path called, relative to the version 1 API
+     * @param call      The call to the version 1 API
+     * @return          Returns the result of the <b>call</b>
+     * @param <T>       The result type of the <b>call</b>
+     * @throws UpstreamUnavailableException     If the bulkhead is full or the breaker is open
+     * @throws UpstreamRateLimitedException     If the budget is exhausted or the call got a 429
+     */
+    public <T> T execute(@NonNull HttpMethod method, @NonNull String path, @NonNull Supplier<T> call) {
+        var operation = HttpMethod.GET.equals(method) ? Operation.READ : Operation.WRITE;
+        try {
+            return bulkhead.execute(operation, () -> circuitBreaker.execute(() -> {
+                upstreamBudget.acquire();
+                return upstreamMetrics.record(method, path, call);
+            }));
+        } catch (HttpClientErrorException.TooManyRequests ex) {
+            var retryAfter = upstreamBudget.onRateLimited(retryAfter(ex));
+            throw new UpstreamRateLimitedException("Upstream rate limit reached.", retryAfter);
+        }
+    }
+
+    private static Duration retryAfter(HttpClientErrorException ex) {
+        var headers = ex.getResponseHeaders();
+        var value = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException ignored) {
+            return null;
+        }
+    }
+}
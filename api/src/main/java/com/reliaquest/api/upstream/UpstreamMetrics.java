@@ -0,0 +1,154 @@
+package com.reliaquest.api.upstream;
+
+import com.reliaquest.server.model.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import lombok.NonNull;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Records the calls made to the version 1 API:
+ * <ul>
+ *     <li><b>upstream.requests</b> - a timer with a percentile histogram per <em>method</em> and
+ *     <em>uri</em> template, tagged with the HTTP <em>status</em>, <em>outcome</em> and
+ *     <em>exception</em>, so its count is also the number of responses per HTTP status. Calls
+ *     failing without a response are tagged <em>IO_ERROR</em>, or <em>UNKNOWN</em> when the error
+ *     is not an I/O error, and name the exception's class</li>
+ *     <li><b>upstream.responses</b> - a counter per <em>uri</em> and version 1
+ *     {@link Response.Status}</li>
+ *     <li><b>upstream.fanout</b> - the number of version 1 calls made on behalf of each version 2
+ *     request, see {@link #recordFanOut()}</li>
+ * </ul>
+ *
+ * <p>Meters are registered once the registry is bound, and are no-ops before that.
+ */
+@Component
+public class UpstreamMetrics implements MeterBinder {
+
+    private static final String CALLS_ATTRIBUTE = UpstreamMetrics.class.getName() + ".calls";
+    private static final Pattern ID = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private final CompositeMeterRegistry registry = new CompositeMeterRegistry();
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        this.registry.add(registry);
+    }
+
+    /**
+     * Times the specified <b>call</b> to <b>path</b> and counts it towards the fan-out of the
+     * current version 2 request, if any.
+     *
+     * @param method    The HTTP method of the call
+     * @param path      The path called, relative to the version 1 API
+     * @param call      The call to the version 1 API
+     * @return          Returns the result of the <b>call</b>
+     */
+    public <T> T record(@NonNull HttpMethod method, @NonNull String path, @NonNull Supplier<T> call) {
+        var uri = uri(path);
+        countCall();
+        var sample = Timer.start(registry);
+        String status = "UNKNOWN";
+        String outcome = "UNKNOWN";
+        String exception = "none";
+        try {
+            var result = call.get();
+            status = "200";
+            if (result instanceof ResponseEntity<?> entity) {
+                status = String.valueOf(entity.getStatusCode().value());
+                if (entity.getBody() instanceof Response<?> response && response.status() != null) {
+                    countResponse(uri, response.status());
+                }
+            }
+            outcome = outcome(Integer.parseInt(status));
+            return result;
+        } catch (RuntimeException ex) {
+            exception = exceptionName(ex);
+            if (ex instanceof RestClientResponseException response) {
+                status = String.valueOf(response.getStatusCode().value());
+                outcome = outcome(response.getStatusCode().value());
+            } else if (ex instanceof ResourceAccessException) {
+                status = "IO_ERROR";
+            }
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder("upstream.requests")
+                    .description("Requests made to the version 1 API")
+                    .tags("method", method.name(), "uri", uri, "status", status, "outcome", outcome)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Records how many version 1 calls the current version 2 request made. Called once the request
+     * completes, does nothing outside of one.
+     */
+    public void recordFanOut() {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        var calls = (AtomicInteger) attributes.getAttribute(CALLS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        DistributionSummary.builder("upstream.fanout")
+                .description("Version 1 calls made per version 2 request")
+                .register(registry)
+                .record(calls == null ? 0 : calls.get());
+    }
+
+    private void countCall() {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        var calls = (AtomicInteger) attributes.getAttribute(CALLS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (calls == null) {
+            calls = new AtomicInteger();
+            attributes.setAttribute(CALLS_ATTRIBUTE, calls, RequestAttributes.SCOPE_REQUEST);
+        }
+        calls.incrementAndGet();
+    }
+
+    private void countResponse(String uri, Response.Status status) {
+        Counter.builder("upstream.responses")
+                .description("Version 1 responses per response status")
+                .tags("uri", uri, "status", status.name())
+                .register(registry)
+                .increment();
+    }
+
+    private static String uri(String path) {
+        var query = path.indexOf('?');
+        return ID.matcher(query < 0 ? path : path.substring(0, query)).replaceAll("{id}");
+    }
+
+    private static String exceptionName(Throwable ex) {
+        var name = ex.getClass().getSimpleName();
+        return name.isEmpty() ? ex.getClass().getName() : name;
+    }
+
+    private static String outcome(int status) {
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        return status >= 300 ? "REDIRECTION" : "SUCCESS";
+    }
+}
@@ -0,0 +1,20 @@
+package com.reliaquest.api.upstream;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Thrown when a call to the version 1 API is refused because of its rate limit, either by the
+ * upstream itself or locally by the {@link UpstreamBudget} before any quota is wasted.
+ */
+@Getter
+public class UpstreamRateLimitedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public UpstreamRateLimitedException(@NonNull String message, @NonNull Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
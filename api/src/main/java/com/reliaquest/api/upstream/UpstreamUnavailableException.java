@@ -0,0 +1,20 @@
+package com.reliaquest.api.upstream;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Thrown when a call to the version 1 API is not attempted because the upstream is considered
+ * unhealthy by the {@link UpstreamCircuitBreaker}, or because its {@link UpstreamBulkhead} is full.
+ */
+@Getter
+public class UpstreamUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public UpstreamUnavailableException(@NonNull String message, @NonNull Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
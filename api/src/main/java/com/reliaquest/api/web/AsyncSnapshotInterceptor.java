@@ -0,0 +1,94 @@
+package com.reliaquest.api.web;
+
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.cache.EmployeeSnapshotCache;
+import com.reliaquest.api.service.EmployeeService;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Serves the version 2 reads as async requests when <em>api.execution.mode</em> is <b>async</b>.
+ *
+ * <p>A read that the held {@link EmployeeSnapshot} can answer proceeds as usual. Otherwise the
+ * request is suspended, releasing its Tomcat thread, while the snapshot is loaded with
+ * {@link EmployeeService#getSnapshotAsync()}, and dispatched again once it is. The handler then
+ * reads the loaded snapshot, see {@link #preloaded()}, and a failed load is rethrown on that
+ * dispatch so it is answered as any other failure. However many reads wait on a slow version 1 API,
+ * a single thread does, see {@link EmployeeSnapshotCache#getAsync}.
+ *
+ * <p>Writes, and reads of an employee missing from the snapshot, still hold their thread while
+ * the version 1 API answers.
+ */
+@Component
+@ConditionalOnProperty(name = "api.execution.mode", havingValue = "async")
+@RequiredArgsConstructor
+public class AsyncSnapshotInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    private static final String SNAPSHOT = AsyncSnapshotInterceptor.class.getName() + ".snapshot";
+    private static final String FAILURE = AsyncSnapshotInterceptor.class.getName() + ".failure";
+
+    private final EmployeeSnapshotCache snapshotCache;
+    private final EmployeeService employeeService;
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/api/v2/employee", "/api/v2/employee/**");
+    }
+
+    @Override
+    public boolean preHandle(
+            @NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler)
+            throws Exception {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            var failure = request.getAttribute(FAILURE);
+            if (failure instanceof Exception ex) {
+                throw ex;
+            }
+            if (failure instanceof Error error) {
+                throw error;
+            }
+            return true;
+        }
+        if (!HttpMethod.GET.matches(request.getMethod()) || snapshotCache.peek().isPresent()) {
+            return true;
+        }
+
+        var asyncContext = request.startAsync(request, response);
+        employeeService.getSnapshotAsync().whenComplete((snapshot, ex) -> {
+            if (ex != null) {
+                var cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                request.setAttribute(FAILURE, cause);
+            } else {
+                request.setAttribute(SNAPSHOT, snapshot);
+            }
+            asyncContext.dispatch();
+        });
+        return false;
+    }
+
+    /**
+     * @return    Returns the {@link EmployeeSnapshot} loaded for the current web request while it was
+     *            suspended, empty outside of one or if none was
+     */
+    public static Optional<EmployeeSnapshot> preloaded() {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.empty();
+        }
+        var snapshot = attributes.getAttribute(SNAPSHOT, RequestAttributes.SCOPE_REQUEST);
+        return Optional.ofNullable((EmployeeSnapshot) snapshot);
+    }
+}
@@ -0,0 +1,44 @@
+package com.reliaquest.api.web;
+
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import java.time.Instant;
+import java.util.Optional;
+import lombok.NonNull;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Remembers which {@link EmployeeSnapshot} served the current web request, so that
+ * {@link SnapshotHeaderAdvice} can tell the client how old the response is and tag it.
+ *
+ * @param version      The version of the serving snapshot
+ * @param fetchedAt    The instant the serving snapshot was fetched from the version 1 API
+ * @param stale        Whether the snapshot was older than the cache <em>ttl</em>
+ */
+public record ServedSnapshot(long version, @NonNull Instant fetchedAt, boolean stale) {
+
+    private static final String ATTRIBUTE = ServedSnapshot.class.getName();
+
+    /**
+     * Records the <b>snapshot</b> serving the current web request. Does nothing outside of one.
+     *
+     * @param snapshot    The snapshot the response is computed from
+     * @param stale       Whether the snapshot was older than the cache <em>ttl</em>
+     */
+    public static void record(@NonNull EmployeeSnapshot snapshot, boolean stale) {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            var served = new ServedSnapshot(snapshot.version(), snapshot.fetchedAt(), stale);
+            attributes.setAttribute(ATTRIBUTE, served, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    static Optional<ServedSnapshot> current() {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.empty();
+        }
+        var served = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return Optional.ofNullable((ServedSnapshot) served);
+    }
+}
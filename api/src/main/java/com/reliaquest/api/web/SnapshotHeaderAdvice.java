@@ -0,0 +1,84 @@
+package com.reliaquest.api.web;
+
+import com.reliaquest.api.controller.EmployeeController;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.NonNull;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds cache headers to <em>GET</em> responses served from an employee snapshot:
+ * <ul>
+ *     <li><em>ETag</em> derived from the snapshot version, answering a matching
+ *     <em>If-None-Match</em> with <em>304 Not Modified</em></li>
+ *     <li><em>Age</em> since the snapshot was fetched from the version 1 API</li>
+ *     <li><em>X-Cache-Stale: true</em> when the snapshot was past its <em>ttl</em>, e.g. because
+ *     the version 1 API is unavailable</li>
+ * </ul>
+ *
+ * <p>RFC 9111 obsoleted the <em>Warning</em> header, so staleness is flagged by the custom header,
+ * and can also be told from an <em>Age</em> above the <em>ttl</em>.
+ *
+ * <p>Snapshot versions restart with the application, so the entity tag also carries an epoch
+ * unique to this instance.
+ */
+@ControllerAdvice(assignableTypes = EmployeeController.class)
+public class SnapshotHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String CACHE_STALE = "X-Cache-Stale";
+
+    private static final String EPOCH = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+
+    @Override
+    public boolean supports(
+            @NonNull MethodParameter returnType, @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            @NonNull MethodParameter returnType,
+            @NonNull MediaType selectedContentType,
+            @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            @NonNull ServerHttpRequest request,
+            @NonNull ServerHttpResponse response) {
+        if (!HttpMethod.GET.equals(request.getMethod())) {
+            return body;
+        }
+        var served = ServedSnapshot.current();
+        if (served.isEmpty()) {
+            return body;
+        }
+
+        var age = Duration.between(served.get().fetchedAt(), Instant.now());
+        response.getHeaders().set(HttpHeaders.AGE, String.valueOf(Math.max(age.toSeconds(), 0)));
+        if (served.get().stale()) {
+            response.getHeaders().set(CACHE_STALE, "true");
+        }
+
+        var etag = "\"%s-%d\"".formatted(EPOCH, served.get().version());
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && response instanceof ServletServerHttpResponse servletResponse) {
+            var webRequest =
+                    new ServletWebRequest(servletRequest.getServletRequest(), servletResponse.getServletResponse());
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+        }
+        response.getHeaders().setETag(etag);
+        return body;
+    }
+}
@@ -0,0 +1,39 @@
+package com.reliaquest.api.web;
+
+import com.reliaquest.api.upstream.UpstreamMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Records the version 1 calls made by every version 2 request once it completes, see
+ * {@link UpstreamMetrics#recordFanOut()}. Requests answered from the snapshot record zero.
+ */
+@Component
+@RequiredArgsConstructor
+public class UpstreamFanOutInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    private final UpstreamMetrics upstreamMetrics;
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/api/v2/**");
+    }
+
+    @Override
+    public void afterCompletion(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull Object handler,
+            Exception ex) {
+        // A request suspended by the AsyncSnapshotInterceptor completes on its async dispatch
+        if (!request.isAsyncStarted()) {
+            upstreamMetrics.recordFanOut();
+        }
+    }
+}
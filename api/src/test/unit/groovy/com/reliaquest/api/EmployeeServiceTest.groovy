@@ -1,28 +1,72 @@
 package com.reliaquest.api
 
+import com.fasterxml.jackson.core.type.TypeReference
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.dataformat.smile.SmileFactory
+import com.reliaquest.api.config.WireFormatConfig
+import com.reliaquest.api.cache.EmployeeSnapshotCache
 import com.reliaquest.api.model.Employee
+import com.reliaquest.api.model.EmployeeChange
+import com.reliaquest.api.model.EmployeeChanges
+import com.reliaquest.api.model.SalaryStatistics
 import com.reliaquest.api.service.EmployeeService
-import org.mockito.Mock
+import com.reliaquest.api.upstream.InFlightRequests
+import com.reliaquest.api.upstream.UpstreamBudget
+import com.reliaquest.api.upstream.UpstreamBulkhead
+import com.reliaquest.api.upstream.UpstreamCircuitBreaker
+import com.reliaquest.api.upstream.UpstreamGuard
+import com.reliaquest.api.upstream.UpstreamMetrics
+import com.reliaquest.api.upstream.UpstreamUnavailableException
+import com.reliaquest.server.model.CreateMockEmployeeInput
+import com.reliaquest.server.model.Response
+import org.springframework.core.ParameterizedTypeReference
+import org.springframework.http.HttpEntity
+import org.springframework.http.HttpMethod
+import org.springframework.http.HttpStatus
+import org.springframework.http.ResponseEntity
+import org.springframework.http.client.ClientHttpResponse
+import org.springframework.mock.http.client.MockClientHttpResponse
+import org.springframework.web.client.HttpServerErrorException
+import org.springframework.web.client.ResourceAccessException
+import org.springframework.web.client.ResponseExtractor
 import org.springframework.web.client.RestTemplate
 import spock.lang.Specification
 
+import java.time.Clock
+import java.time.Duration
+import java.time.Instant
+import java.time.ZoneId
+import java.time.ZoneOffset
+import java.util.concurrent.Executors
 import java.util.stream.IntStream
 
 class EmployeeServiceTest extends Specification {
 
     private EmployeeService employeeService
 
-    @Mock
-    private RestTemplate restTemplate
+    private RestTemplate restTemplate = Mock()
+
+    private ObjectMapper mapper = new ObjectMapper()
+
+    private MutableClock clock = new MutableClock()
+
+    private EmployeeSnapshotCache snapshotCache = new EmployeeSnapshotCache(
+        Duration.ofSeconds(30), Duration.ofMinutes(5), clock, Executors.newSingleThreadExecutor())
+
+    private UpstreamCircuitBreaker circuitBreaker = new UpstreamCircuitBreaker(2, Duration.ofSeconds(10), clock)
+
+    private UpstreamBulkhead bulkhead = new UpstreamBulkhead(20, 5, Duration.ofMillis(100))
 
     void setup() {
-        employeeService = Spy(new EmployeeService(restTemplate))
+        var budget = new UpstreamBudget(10, Duration.ofSeconds(30), Duration.ofMinutes(2), Duration.ofSeconds(2), 50)
+        var upstreamGuard = new UpstreamGuard(budget, circuitBreaker, bulkhead, new UpstreamMetrics())
+        employeeService = Spy(new EmployeeService(restTemplate, snapshotCache, new InFlightRequests(), upstreamGuard, mapper))
     }
 
     def "test get employees by name search" () {
         given:
         var employees = getEmployees(5)
-        (error == null ? 1 : 0) * employeeService.getAllEmployees() >> employees
+        (error == null ? 1 : 0) * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(employees))
 
         when:
         var result = employeeService.getEmployeesByNameSearch(search)
@@ -46,7 +90,7 @@ class EmployeeServiceTest extends Specification {
     def "test get highest salary" () {
         given:
         var employees = getEmployees(numEmployees)
-        1 * employeeService.getAllEmployees() >> employees
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(employees))
 
         when:
         var result = employeeService.getHighestSalary()
@@ -68,7 +112,7 @@ class EmployeeServiceTest extends Specification {
     def "test get top ten highest earning employee names" () {
         given:
         var employees = getEmployees(15)
-        1 * employeeService.getAllEmployees() >> employees
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(employees))
 
         when:
         var result = employeeService.getTopTenHighestEarningEmployeeNames()
@@ -78,9 +122,459 @@ class EmployeeServiceTest extends Specification {
         result == ["Employee 15", "Employee 14", "Employee 13", "Employee 12", "Employee 11", "Employee 10", "Employee 9", "Employee 8", "Employee 7", "Employee 6"]
     }
 
+    def "test highest salary and top ten are served from the same snapshot" () {
+        given:
+        var employees = getEmployees(12)
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(employees))
+
+        when:
+        var highest = employeeService.getHighestSalary()
+        var top = employeeService.getTopTenHighestEarningEmployeeNames()
+
+        then:
+        highest == 12000
+        top.size() == 10
+        top.first() == "Employee 12"
+    }
+
+    def "test top earners and salary percentiles are served from the snapshot" () {
+        given:
+        var employees = getEmployees(15)
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(employees))
+
+        when:
+        var topThree = employeeService.getTopEarners(3)
+        var all = employeeService.getTopEarners(20)
+        var percentiles = employeeService.getSalaryPercentiles([0d, 50d, 100d])
+
+        then:
+        topThree*.name() == ["Employee 15", "Employee 14", "Employee 13"]
+        all.size() == 15
+        all.last().name() == "Employee 1"
+        percentiles.keySet().toList() == [0d, 50d, 100d]
+        Math.abs(percentiles[0d] - 1000) <= 10
+        Math.abs(percentiles[50d] - 8000) <= 80
+        Math.abs(percentiles[100d] - 15000) <= 150
+    }
+
+    def "test salary statistics are grouped by title and age band" () {
+        given:
+        var employees = getEmployees(12)
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(employees))
+
+        when:
+        var byTitle = employeeService.getSalaryStatisticsByTitle()
+        var byAgeBand = employeeService.getSalaryStatisticsByAgeBand()
+
+        then:
+        byTitle.size() == 12
+        byTitle["Title 3"] == new SalaryStatistics(1, 3000, 3000, 3000, 3000d)
+        byAgeBand.keySet().toList() == ["20-29", "30-39"]
+        byAgeBand["20-29"] == new SalaryStatistics(4, 10000, 1000, 4000, 2500d)
+        byAgeBand["30-39"] == new SalaryStatistics(8, 68000, 5000, 12000, 8500d)
+    }
+
+    def "test employees are filtered by several fields from the snapshot" () {
+        given:
+        var employees = getEmployees(20)
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(employees))
+
+        when:
+        var result = employeeService.getEmployees("salary:5000..15000;age:..35;domain:company.com")
+
+        then:
+        result == employees[4..9]
+    }
+
+    def "test malformed filter is rejected" () {
+        when:
+        employeeService.getEmployees("salary:high")
+
+        then:
+        thrown(IllegalArgumentException)
+        0 * restTemplate.exchange(*_)
+    }
+
+    def "test get employee is served from the snapshot" () {
+        given:
+        var employees = getEmployees(5)
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(employees))
+        employeeService.getAllEmployees()
+
+        when:
+        var result = employeeService.getEmployee(employees[2].id().toString())
+
+        then:
+        0 * restTemplate.exchange(*_)
+        result == employees[2]
+    }
+
+    def "test get employee falls back to the version 1 API on a miss" () {
+        given:
+        var employee = getEmployees(1).first()
+
+        when:
+        var result = employeeService.getEmployee(employee.id().toString())
+
+        then:
+        1 * restTemplate.exchange("/employee/${employee.id()}", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(employee))
+        result == employee
+    }
+
+    def "test delete employee resolves the name locally" () {
+        given:
+        var employees = getEmployees(3)
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(employees))
+        employeeService.getAllEmployees()
+
+        when:
+        var result = employeeService.deleteEmployee(employees[1].id().toString())
+
+        then:
+        1 * restTemplate.exchange("/employee", HttpMethod.DELETE, _, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(true))
+        0 * restTemplate.exchange(*_)
+        result == "Employee 2"
+    }
+
+    def "test created employee is readable without another fetch" () {
+        given:
+        var employees = getEmployees(3)
+        var created = new Employee(UUID.randomUUID(), "Created", 99000, 30, "Title", "created@company.com")
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(employees))
+        employeeService.getAllEmployees()
+
+        when:
+        employeeService.createEmployee(new CreateMockEmployeeInput(name: "Created", salary: 99000, age: 30, title: "Title"))
+        var all = employeeService.getAllEmployees()
+        var highest = employeeService.getHighestSalary()
+        var byId = employeeService.getEmployee(created.id().toString())
+
+        then:
+        1 * restTemplate.exchange("/employee", HttpMethod.POST, _, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(created))
+        0 * restTemplate.exchange(*_)
+        all.size() == 4
+        highest == 99000
+        byId == created
+    }
+
+    def "test batch create costs a single upstream call and reports every input" () {
+        given:
+        var employees = getEmployees(2)
+        var created = new Employee(UUID.randomUUID(), "Created", 1000, 30, "Title", "created@company.com")
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(employees))
+        employeeService.getAllEmployees()
+
+        when:
+        var results = employeeService.createEmployees([
+                new CreateMockEmployeeInput(name: "Created", salary: 1000, age: 30, title: "Title"),
+                new CreateMockEmployeeInput(name: "", salary: 1000, age: 30, title: "Title")])
+        var all = employeeService.getAllEmployees()
+
+        then:
+        1 * restTemplate.exchange("/employee/batch", HttpMethod.POST, _, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith([Response.handledWith(created), Response.error("name must not be blank")]))
+        0 * restTemplate.exchange(*_)
+        results*.data() == [created, null]
+        results[1].error() == "name must not be blank"
+        all.size() == 3
+    }
+
+    def "test batch delete resolves names locally and skips unknown ids" () {
+        given:
+        var employees = getEmployees(3)
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(employees))
+        employeeService.getAllEmployees()
+
+        when:
+        var results = employeeService.deleteEmployees([employees[0].id().toString(), "not-a-uuid", employees[2].id().toString()])
+        var all = employeeService.getAllEmployees()
+
+        then:
+        1 * restTemplate.exchange("/employee/batch", HttpMethod.DELETE, { HttpEntity entity -> entity.body*.name == ["Employee 1", "Employee 3"] }, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith([Response.handledWith(true), Response.handledWith(false)]))
+        0 * restTemplate.exchange(*_)
+        results*.data() == ["Employee 1", null, null]
+        results[1].error() == "Employee not found."
+        all*.name() == ["Employee 2", "Employee 3"]
+    }
+
+    def "test batch delete on a cold cache costs a single list call and no call per id" () {
+        given:
+        var employees = getEmployees(2)
+        var unknown = UUID.randomUUID()
+
+        when:
+        var results = employeeService.deleteEmployees([employees[0].id().toString(), unknown.toString(), employees[1].id().toString()])
+
+        then:
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(employees))
+        1 * restTemplate.exchange("/employee/batch", HttpMethod.DELETE, { HttpEntity entity -> entity.body*.name == ["Employee 1", "Employee 2"] }, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith([Response.handledWith(true), Response.handledWith(true)]))
+        0 * restTemplate.exchange(*_)
+        results*.data() == ["Employee 1", null, "Employee 2"]
+        results[1].error() == "Employee not found."
+        snapshotCache.peek().get().employees().isEmpty()
+    }
+
+    def "test batch create applies the created employees as one change" () {
+        given:
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(getEmployees(2)))
+        employeeService.getAllEmployees()
+        var version = snapshotCache.peek().get().version()
+        var created = [
+                new Employee(UUID.randomUUID(), "Created 1", 1000, 30, "Title", "c1@company.com"),
+                new Employee(UUID.randomUUID(), "Created 2", 2000, 40, "Title", "c2@company.com")]
+
+        when:
+        employeeService.createEmployees([
+                new CreateMockEmployeeInput(name: "Created 1", salary: 1000, age: 30, title: "Title"),
+                new CreateMockEmployeeInput(name: "Created 2", salary: 2000, age: 40, title: "Title")])
+        var snapshot = snapshotCache.peek().get()
+
+        then:
+        1 * restTemplate.exchange("/employee/batch", HttpMethod.POST, _, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(created.collect { Response.handledWith(it) }))
+        snapshot.version() == version + 1
+        snapshot.employees()*.name() == ["Employee 1", "Employee 2", "Created 1", "Created 2"]
+    }
+
+    def "test stream employees parses the version 1 response inline" () {
+        given:
+        var employees = getEmployees(12)
+        var body = mapper.writeValueAsBytes(Response.handledWith(employees))
+        var out = new ByteArrayOutputStream()
+
+        when:
+        employeeService.streamEmployees(search, out)
+        List<Employee> result = mapper.readValue(out.toByteArray(), new TypeReference<List<Employee>>() {})
+
+        then:
+        1 * restTemplate.execute(*_) >> { args -> args[3].extractData(new MockClientHttpResponse(body, HttpStatus.OK)) }
+        result == employees.findAll { search == null || it.name().toLowerCase().contains(URLDecoder.decode(search, "UTF-8").toLowerCase()) }
+
+        where:
+        search << [null, "EMPLOYEE 1", "employee%2012", "zzz"]
+    }
+
+    def "test stream employees parses a Smile response from the version 1 API" () {
+        given:
+        var employees = getEmployees(5)
+        var smileMapper = new ObjectMapper(new SmileFactory())
+        var response = new MockClientHttpResponse(smileMapper.writeValueAsBytes(Response.handledWith(employees)), HttpStatus.OK)
+        response.getHeaders().setContentType(WireFormatConfig.APPLICATION_SMILE)
+        var out = new ByteArrayOutputStream()
+
+        when:
+        employeeService.streamEmployees(null, out)
+        List<Employee> result = mapper.readValue(out.toByteArray(), new TypeReference<List<Employee>>() {})
+
+        then:
+        1 * restTemplate.execute(*_) >> { args -> args[3].extractData(response) }
+        result == employees
+    }
+
+    def "test stream employees populates the snapshot" () {
+        given:
+        var employees = getEmployees(6)
+        var response = new MockClientHttpResponse(mapper.writeValueAsBytes(Response.handledWith(employees)), HttpStatus.OK)
+        response.getHeaders().setETag('"v1"')
+        var out = new ByteArrayOutputStream()
+
+        when:
+        employeeService.streamEmployees("employee 3", out)
+        List<Employee> streamed = mapper.readValue(out.toByteArray(), new TypeReference<List<Employee>>() {})
+        var all = employeeService.getAllEmployees()
+
+        then:
+        1 * restTemplate.execute(*_) >> { args -> args[3].extractData(response) }
+        0 * restTemplate.exchange(*_)
+        streamed == [employees[2]]
+        all == employees
+        snapshotCache.peek().get().etag() == '"v1"'
+    }
+
+    def "test stream employees writes the snapshot without calling the version 1 API" () {
+        given:
+        var employees = getEmployees(3)
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(employees))
+        employeeService.getAllEmployees()
+        var out = new ByteArrayOutputStream()
+
+        when:
+        employeeService.streamEmployees("employee 2", out)
+        List<Employee> result = mapper.readValue(out.toByteArray(), new TypeReference<List<Employee>>() {})
+
+        then:
+        0 * restTemplate.execute(*_)
+        result == [employees[1]]
+    }
+
+    def "test stream employees writes nothing when the version 1 response is cut off" () {
+        given:
+        var body = mapper.writeValueAsBytes(Response.handledWith(getEmployees(5)))
+        var truncated = Arrays.copyOf(body, body.length.intdiv(2))
+        var out = new ByteArrayOutputStream()
+
+        when:
+        employeeService.streamEmployees(null, out)
+
+        then:
+        1 * restTemplate.execute(*_) >> { args -> extractData(args[3], new MockClientHttpResponse(truncated, HttpStatus.OK)) }
+        thrown(ResourceAccessException)
+        out.size() == 0
+        snapshotCache.peek().isEmpty()
+    }
+
+    def "test stream employees writes the last snapshot when the version 1 response is cut off" () {
+        given:
+        var employees = getEmployees(3)
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(employees))
+        employeeService.getAllEmployees()
+        clock.advance(Duration.ofMinutes(10))
+        var body = mapper.writeValueAsBytes(Response.handledWith(getEmployees(5)))
+        var truncated = Arrays.copyOf(body, body.length.intdiv(2))
+        var out = new ByteArrayOutputStream()
+
+        when:
+        employeeService.streamEmployees(null, out)
+        List<Employee> result = mapper.readValue(out.toByteArray(), new TypeReference<List<Employee>>() {})
+
+        then:
+        1 * restTemplate.execute(*_) >> { args -> extractData(args[3], new MockClientHttpResponse(truncated, HttpStatus.OK)) }
+        result == employees
+    }
+
+    def "test reads fall back to the last snapshot while the upstream is failing" () {
+        given:
+        var employees = getEmployees(4)
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(employees))
+        employeeService.getAllEmployees()
+        clock.advance(Duration.ofMinutes(6))
+
+        when:
+        var first = employeeService.getAllEmployees()
+        var second = employeeService.getHighestSalary()
+        var third = employeeService.getTopTenHighestEarningEmployeeNames()
+
+        then:
+        2 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> {
+            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR)
+        }
+        first == employees
+        second == 4000
+        third.size() == 4
+        circuitBreaker.getState() == UpstreamCircuitBreaker.State.OPEN
+    }
+
+    def "test open circuit breaker is surfaced when there is no snapshot to fall back to" () {
+        given:
+        2 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> {
+            throw new ResourceAccessException("Read timed out")
+        }
+        2.times {
+            try {
+                employeeService.getAllEmployees()
+            } catch (ResourceAccessException ignored) {
+            }
+        }
+
+        when:
+        employeeService.getAllEmployees()
+
+        then:
+        0 * restTemplate.exchange(*_)
+        thrown(UpstreamUnavailableException)
+    }
+
+    def "test expired snapshot is revalidated with its entity tag" () {
+        given:
+        var employees = getEmployees(3)
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok().eTag('"opaque"').body(Response.handledWith(employees))
+        employeeService.getAllEmployees()
+        clock.advance(Duration.ofMinutes(6))
+
+        when:
+        var result = employeeService.getAllEmployees()
+
+        then:
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, { HttpEntity request -> request.headers.getIfNoneMatch() == ['"opaque"'] }, _ as ParameterizedTypeReference) >> ResponseEntity.status(HttpStatus.NOT_MODIFIED).build()
+        result == employees
+        snapshotCache.isFresh(snapshotCache.lastGood().get())
+    }
+
+    def "test expired snapshot catches up from the change log" () {
+        given:
+        var employees = getEmployees(3)
+        var created = new Employee(UUID.randomUUID(), "Created", 99000, 30, "Title", "created@company.com")
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok().eTag('"e-4"').body(Response.handledWith(employees))
+        employeeService.getAllEmployees()
+        clock.advance(Duration.ofMinutes(6))
+        var changes = new EmployeeChanges("e", 6, false, [
+            new EmployeeChange(5, EmployeeChange.Type.DELETED, employees[0]),
+            new EmployeeChange(6, EmployeeChange.Type.CREATED, created)])
+
+        when:
+        var result = employeeService.getAllEmployees()
+        var highest = employeeService.getHighestSalary()
+
+        then:
+        1 * restTemplate.exchange("/employee/changes?since=4", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(changes))
+        0 * restTemplate.exchange(*_)
+        result == [employees[1], employees[2], created]
+        highest == 99000
+        snapshotCache.lastGood().get().etag() == '"e-6"'
+    }
+
+    def "test change log asking for a resync falls back to the full list" () {
+        given:
+        var employees = getEmployees(3)
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok().eTag('"e-4"').body(Response.handledWith(employees))
+        employeeService.getAllEmployees()
+        clock.advance(Duration.ofMinutes(6))
+
+        when:
+        var result = employeeService.getAllEmployees()
+
+        then:
+        1 * restTemplate.exchange("/employee/changes?since=4", HttpMethod.GET, null, _ as ParameterizedTypeReference) >> ResponseEntity.ok(Response.handledWith(new EmployeeChanges("e", 2000, true, [])))
+        1 * restTemplate.exchange("/employee", HttpMethod.GET, _ as HttpEntity, _ as ParameterizedTypeReference) >> ResponseEntity.ok().eTag('"e-2000"').body(Response.handledWith(employees.take(1)))
+        result == employees.take(1)
+    }
+
     private List<Employee> getEmployees(int count) {
         return IntStream.rangeClosed(1, count)
             .mapToObj { i -> new Employee(UUID.randomUUID(), "Employee $i", 1000 * i, 25 + i, "Title $i", "$i@company.com") }
             .toList()
     }
+
+    /*
+     * Extracts the response as RestTemplate does, an IOException of the extractor surfacing as a
+     * ResourceAccessException.
+     */
+    private static Object extractData(ResponseExtractor extractor, ClientHttpResponse response) {
+        try {
+            return extractor.extractData(response)
+        } catch (IOException ex) {
+            throw new ResourceAccessException(ex.message, ex)
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant = Instant.parse("2024-01-01T00:00:00Z")
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration)
+        }
+
+        @Override
+        ZoneId getZone() {
+            return ZoneOffset.UTC
+        }
+
+        @Override
+        Clock withZone(ZoneId zone) {
+            return this
+        }
+
+        @Override
+        Instant instant() {
+            return instant
+        }
+    }
 }
@@ -0,0 +1,282 @@
+package com.reliaquest.api.cache
+
+import com.reliaquest.api.model.Employee
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+
+import java.time.Clock
+import java.time.Duration
+import java.time.Instant
+import java.time.ZoneId
+import java.time.ZoneOffset
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Supplier
+
+import static com.reliaquest.api.cache.EmployeeLoader.unconditional
+
+class EmployeeSnapshotCacheTest extends Specification {
+
+    private MutableClock clock
+    private ExecutorService executor
+    private EmployeeSnapshotCache cache
+
+    void setup() {
+        clock = new MutableClock()
+        executor = Executors.newSingleThreadExecutor()
+        cache = new EmployeeSnapshotCache(Duration.ofSeconds(30), Duration.ofMinutes(5), clock, executor)
+    }
+
+    void cleanup() {
+        executor.shutdownNow()
+    }
+
+    def "test first read loads the snapshot and later reads hit it" () {
+        given:
+        Supplier<List<Employee>> loader = Mock()
+
+        when:
+        var first = cache.get(unconditional(loader))
+        var second = cache.get(unconditional(loader))
+
+        then:
+        1 * loader.get() >> getEmployees(3)
+        first.is(second)
+        first.version() == 1
+        first.employees().size() == 3
+        cache.getStats().hits() == 1
+        cache.getStats().misses() == 1
+        cache.getStats().refreshes() == 1
+    }
+
+    def "test cache stats are published as counters" () {
+        given:
+        var registry = new SimpleMeterRegistry()
+        cache.bindTo(registry)
+
+        when:
+        2.times { cache.get(unconditional { getEmployees(2) }) }
+
+        then:
+        registry.get("employee.cache.hits").functionCounter().count() == 1
+        registry.get("employee.cache.misses").functionCounter().count() == 1
+        registry.get("employee.cache.refreshes").functionCounter().count() == 1
+        registry.get("employee.cache.stale.hits").functionCounter().count() == 0
+        registry.get("employee.cache.refresh.failures").functionCounter().count() == 0
+    }
+
+    def "test stale snapshot is served while it is refreshed in the background" () {
+        given:
+        Supplier<List<Employee>> loader = Mock()
+        loader.get() >>> [getEmployees(1), getEmployees(2)]
+        var stale = cache.get(unconditional(loader))
+        clock.advance(Duration.ofSeconds(31))
+
+        when:
+        var served = cache.get(unconditional(loader))
+        executor.shutdown()
+        executor.awaitTermination(5, TimeUnit.SECONDS)
+        var refreshed = cache.get(unconditional(loader))
+
+        then:
+        served.is(stale)
+        refreshed.version() == 2
+        refreshed.employees().size() == 2
+        cache.getStats().staleHits() == 1
+        cache.getStats().refreshes() == 2
+    }
+
+    def "test expired snapshot is reloaded synchronously" () {
+        given:
+        Supplier<List<Employee>> loader = Mock()
+        loader.get() >>> [getEmployees(1), getEmployees(4)]
+        cache.get(unconditional(loader))
+        clock.advance(Duration.ofMinutes(6))
+
+        when:
+        var result = cache.get(unconditional(loader))
+
+        then:
+        result.version() == 2
+        result.employees().size() == 4
+        cache.getStats().misses() == 2
+    }
+
+    def "test failed load is propagated when there is nothing to serve" () {
+        given:
+        Supplier<List<Employee>> loader = { throw new IllegalStateException("Upstream down") }
+
+        when:
+        cache.get(unconditional(loader))
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.message == "Upstream down"
+    }
+
+    def "test async misses share one load on the refresh thread" () {
+        given:
+        var release = new CountDownLatch(1)
+        var loads = new AtomicInteger()
+        var loader = unconditional {
+            loads.incrementAndGet()
+            release.await(5, TimeUnit.SECONDS)
+            getEmployees(3)
+        }
+
+        when:
+        var first = cache.getAsync(loader)
+        var second = cache.getAsync(loader)
+
+        then:
+        !first.isDone()
+        first.is(second)
+
+        when:
+        release.countDown()
+
+        then:
+        first.get(5, TimeUnit.SECONDS).employees().size() == 3
+        loads.get() == 1
+        cache.getAsync(loader).isDone()
+        cache.getStats().misses() == 2
+        cache.getStats().hits() == 1
+    }
+
+    def "test failed async load completes the future exceptionally" () {
+        when:
+        cache.getAsync(unconditional { throw new IllegalStateException("Upstream down") }).get(5, TimeUnit.SECONDS)
+
+        then:
+        def e = thrown(ExecutionException)
+        e.cause instanceof IllegalStateException
+        cache.peek().isEmpty()
+    }
+
+    def "test delta is applied to the current snapshot" () {
+        given:
+        Supplier<List<Employee>> loader = Mock()
+        loader.get() >> getEmployees(2)
+        cache.get(unconditional(loader))
+        var created = new Employee(UUID.randomUUID(), "Created", 1, 20, "Title", "c@company.com")
+
+        when:
+        cache.apply(new EmployeeDelta.Created(created))
+        var result = cache.get(unconditional(loader))
+
+        then:
+        result.version() == 2
+        result.employees().size() == 3
+        cache.getStats().refreshes() == 1
+    }
+
+    def "test delta applied while loading is replayed on the loaded list" () {
+        given:
+        var created = new Employee(UUID.randomUUID(), "Created", 1, 20, "Title", "c@company.com")
+        Supplier<List<Employee>> loader = {
+            cache.apply(new EmployeeDelta.Created(created))
+            return getEmployees(2)
+        }
+
+        when:
+        var result = cache.get(unconditional(loader))
+
+        then:
+        result.employees().size() == 3
+        result.findById(created.id()).isPresent()
+    }
+
+    def "test unchanged list is revalidated without bumping the version" () {
+        given:
+        var employees = getEmployees(3)
+        EmployeeLoader loader = Mock()
+        loader.load(null) >> EmployeeLoader.Loaded.of(employees, '"v1"')
+        var first = cache.get(loader)
+        clock.advance(Duration.ofMinutes(6))
+
+        when:
+        var revalidated = cache.get(loader)
+
+        then:
+        1 * loader.load('"v1"') >> EmployeeLoader.Loaded.notModified()
+        revalidated.version() == first.version()
+        revalidated.employees().is(first.employees())
+        revalidated.etag() == '"v1"'
+        revalidated.fetchedAt() == first.fetchedAt().plus(Duration.ofMinutes(6))
+    }
+
+    def "test feed confirms a snapshot at its entity tag and only patches any other" () {
+        given:
+        EmployeeLoader loader = Mock()
+        loader.load(null) >> EmployeeLoader.Loaded.of(getEmployees(2), '"e-4"')
+        var loaded = cache.get(loader)
+        clock.advance(Duration.ofSeconds(20))
+        var created = new Employee(UUID.randomUUID(), "Created", 1, 20, "Title", "c@company.com")
+
+        when:
+        cache.applyFromFeed([new EmployeeDelta.Created(created)], '"e-4"', '"e-5"')
+        var confirmed = cache.lastGood().orElseThrow()
+
+        then:
+        confirmed.etag() == '"e-5"'
+        confirmed.employees().size() == 3
+        confirmed.fetchedAt() == loaded.fetchedAt().plus(Duration.ofSeconds(20))
+
+        when:
+        clock.advance(Duration.ofSeconds(20))
+        cache.applyFromFeed([new EmployeeDelta.Deleted(created)], '"e-7"', '"e-8"')
+        var patched = cache.lastGood().orElseThrow()
+
+        then:
+        patched.etag() == '"e-5"'
+        patched.employees().size() == 2
+        patched.fetchedAt() == confirmed.fetchedAt()
+    }
+
+    def "test feed compares entity tags weakly" () {
+        given:
+        EmployeeLoader loader = Mock()
+        loader.load(null) >> EmployeeLoader.Loaded.of(getEmployees(2), 'W/"e-4"')
+        var loaded = cache.get(loader)
+        clock.advance(Duration.ofSeconds(20))
+
+        when:
+        cache.applyFromFeed([], '"e-4"', '"e-4"')
+        var confirmed = cache.lastGood().orElseThrow()
+
+        then:
+        confirmed.etag() == '"e-4"'
+        confirmed.fetchedAt() == loaded.fetchedAt().plus(Duration.ofSeconds(20))
+    }
+
+    private static List<Employee> getEmployees(int count) {
+        return (1..count).collect { i -> new Employee(UUID.randomUUID(), "Employee $i", 1000 * i, 25 + i, "Title $i", "$i@company.com") }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant = Instant.parse("2024-01-01T00:00:00Z")
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration)
+        }
+
+        @Override
+        ZoneId getZone() {
+            return ZoneOffset.UTC
+        }
+
+        @Override
+        Clock withZone(ZoneId zone) {
+            return this
+        }
+
+        @Override
+        Instant instant() {
+            return instant
+        }
+    }
+}
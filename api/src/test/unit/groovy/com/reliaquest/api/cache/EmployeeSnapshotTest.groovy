@@ -0,0 +1,131 @@
+package com.reliaquest.api.cache
+
+import com.reliaquest.api.index.EmployeeFilter
+import com.reliaquest.api.model.Employee
+import spock.lang.Specification
+
+import java.time.Instant
+
+class EmployeeSnapshotTest extends Specification {
+
+    private static final Instant FETCHED_AT = Instant.parse("2024-01-01T00:00:00Z")
+
+    def "test created employee is patched into every derived structure" () {
+        given:
+        var snapshot = EmployeeSnapshot.of(getEmployees(3), FETCHED_AT)
+        var created = new Employee(UUID.randomUUID(), "Brand New", 9000, 40, "Title", "new@company.com")
+
+        when:
+        var next = snapshot.apply(new EmployeeDelta.Created(created))
+
+        then:
+        next.version() == snapshot.version() + 1
+        next.fetchedAt() == FETCHED_AT
+        next.employees().last() == created
+        next.findById(created.id()).get() == created
+        next.searchByName("brand") == [created]
+        next.salaryAggregates().highestSalary() == 9000
+        next.salaryAggregates().topNames().first() == "Brand New"
+        snapshot.employees().size() == 3
+    }
+
+    def "test deleted employee is removed from every derived structure" () {
+        given:
+        var employees = getEmployees(3)
+        var snapshot = EmployeeSnapshot.of(employees, FETCHED_AT)
+
+        when:
+        var next = snapshot.apply(new EmployeeDelta.Deleted(employees[2]))
+
+        then:
+        next.version() == snapshot.version() + 1
+        next.employees() == employees.take(2)
+        next.findById(employees[2].id()).isEmpty()
+        next.searchByName("employee") == employees.take(2)
+        next.salaryAggregates().highestSalary() == 2000
+    }
+
+    def "test deltas are idempotent" () {
+        given:
+        var employees = getEmployees(2)
+        var snapshot = EmployeeSnapshot.of(employees, FETCHED_AT)
+        var unknown = new Employee(UUID.randomUUID(), "Unknown", 1, 20, "Title", "u@company.com")
+
+        expect:
+        snapshot.apply(new EmployeeDelta.Created(employees[0])).is(snapshot)
+        snapshot.apply(new EmployeeDelta.Deleted(unknown)).is(snapshot)
+    }
+
+    def "test batch of deltas is applied with a single version bump" () {
+        given:
+        var employees = getEmployees(3)
+        var snapshot = EmployeeSnapshot.of(employees, FETCHED_AT)
+        var created = new Employee(UUID.randomUUID(), "Created", 5000, 30, "Title 1", "c@company.com")
+
+        when:
+        var applied = snapshot.applyAll([
+                new EmployeeDelta.Deleted(employees[0]),
+                new EmployeeDelta.Created(created),
+                new EmployeeDelta.Deleted(employees[2])])
+
+        then:
+        applied.version() == snapshot.version() + 1
+        applied.employees() == [employees[1], created]
+        applied.findById(employees[0].id()).isEmpty()
+        applied.salaryAggregates().highestSalary() == 5000
+        snapshot.applyAll([new EmployeeDelta.Created(employees[1])]).is(snapshot)
+    }
+
+    def "test employees repeating an ID are dropped so a delete removes the ID entirely" () {
+        given:
+        var employees = getEmployees(2)
+        var duplicate = employees[0].toBuilder().name("Duplicate").build()
+        var snapshot = EmployeeSnapshot.of(employees + [duplicate], FETCHED_AT)
+
+        when:
+        var next = snapshot.apply(new EmployeeDelta.Deleted(employees[0]))
+
+        then:
+        snapshot.employees() == employees
+        next.employees() == [employees[1]]
+        next.searchByName("duplicate") == []
+        next.findById(employees[0].id()).isEmpty()
+    }
+
+    def "test patched snapshots agree with rebuilt ones across compactions" () {
+        given:
+        var random = new Random(3)
+        var employees = getEmployees(200)
+        var snapshot = EmployeeSnapshot.of(employees, FETCHED_AT)
+        var expected = new ArrayList<Employee>(employees)
+
+        when:
+        1000.times { i ->
+            if (expected.isEmpty() || random.nextInt(3) == 0) {
+                var created = new Employee(UUID.randomUUID(), "Created ${i % 7} Employee", 100 * i, 30, "Title ${i % 3}", "$i@company.com")
+                snapshot = snapshot.apply(new EmployeeDelta.Created(created))
+                expected.add(created)
+            } else {
+                var deleted = expected.remove(random.nextInt(expected.size()))
+                snapshot = snapshot.apply(new EmployeeDelta.Deleted(deleted))
+            }
+        }
+        var rebuilt = EmployeeSnapshot.of(expected, FETCHED_AT)
+
+        then:
+        snapshot.employees() == expected
+        expected.every { snapshot.findById(it.id()).get() == it }
+        ["created 3", "employee 1", "ee"].every { snapshot.searchByName(it) == rebuilt.searchByName(it) }
+        ["created 3", "employ"].every { snapshot.searchByNamePrefix(it) == rebuilt.searchByNamePrefix(it) }
+        snapshot.searchByNameFuzzy("employe", 1) == rebuilt.searchByNameFuzzy("employe", 1)
+        ["title:title 1", "salary:10000..40000"].every { query ->
+            var filter = EmployeeFilter.parse(query)
+            snapshot.filter(filter) == rebuilt.filter(filter)
+        }
+        snapshot.salaryAggregates().topEmployees() == rebuilt.salaryAggregates().topEmployees()
+    }
+
+    private static List<Employee> getEmployees(int count) {
+        return (1..count).collect { i -> new Employee(UUID.randomUUID(), "Employee $i", 1000 * i, 25 + i, "Title $i", "$i@company.com") }
+    }
+}
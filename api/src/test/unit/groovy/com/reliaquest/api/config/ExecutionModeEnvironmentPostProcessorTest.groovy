@@ -0,0 +1,82 @@
+package com.reliaquest.api.config
+
+import org.springframework.boot.autoconfigure.AutoConfigurations
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration
+import org.springframework.boot.autoconfigure.web.embedded.TomcatVirtualThreadsWebServerFactoryCustomizer
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner
+import org.springframework.mock.env.MockEnvironment
+import spock.lang.IgnoreIf
+import spock.lang.Requires
+import spock.lang.Specification
+
+class ExecutionModeEnvironmentPostProcessorTest extends Specification {
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(EmbeddedWebServerFactoryCustomizerAutoConfiguration))
+            .withInitializer { context ->
+                new ExecutionModeEnvironmentPostProcessor().postProcessEnvironment(context.getEnvironment(), null)
+            }
+
+    def "test blocking mode keeps requests on the tomcat pool" () {
+        expect:
+        contextRunner.withPropertyValues("api.execution.mode=blocking").run { context ->
+            assert !context.getEnvironment().containsProperty(ExecutionModeEnvironmentPostProcessor.VIRTUAL_THREADS)
+            assert context.getBeansOfType(TomcatVirtualThreadsWebServerFactoryCustomizer).isEmpty()
+        }
+    }
+
+    def "test async mode keeps platform threads on any java version" () {
+        expect:
+        contextRunner.withPropertyValues("api.execution.mode=async").run { context ->
+            assert context.getStartupFailure() == null
+            assert !context.getEnvironment().containsProperty(ExecutionModeEnvironmentPostProcessor.VIRTUAL_THREADS)
+            assert context.getBeansOfType(TomcatVirtualThreadsWebServerFactoryCustomizer).isEmpty()
+        }
+    }
+
+    @Requires({ Runtime.version().feature() >= 21 })
+    def "test virtual mode enables boot's virtual threads" () {
+        expect:
+        contextRunner.withPropertyValues("api.execution.mode=virtual").run { context ->
+            assert context.getEnvironment().getProperty(ExecutionModeEnvironmentPostProcessor.VIRTUAL_THREADS) == "true"
+            assert context.getBeansOfType(TomcatVirtualThreadsWebServerFactoryCustomizer).size() == 1
+        }
+    }
+
+    @Requires({ Runtime.version().feature() >= 21 })
+    def "test explicit virtual threads property takes precedence over the mode" () {
+        given:
+        var environment = new MockEnvironment()
+                .withProperty("api.execution.mode", "virtual")
+                .withProperty(ExecutionModeEnvironmentPostProcessor.VIRTUAL_THREADS, "false")
+
+        when:
+        new ExecutionModeEnvironmentPostProcessor().postProcessEnvironment(environment, null)
+
+        then:
+        environment.getProperty(ExecutionModeEnvironmentPostProcessor.VIRTUAL_THREADS) == "false"
+    }
+
+    @IgnoreIf({ Runtime.version().feature() >= 21 })
+    def "test virtual mode fails before java 21" () {
+        given:
+        var environment = new MockEnvironment().withProperty("api.execution.mode", "virtual")
+
+        when:
+        new ExecutionModeEnvironmentPostProcessor().postProcessEnvironment(environment, null)
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "test unknown mode is rejected" () {
+        given:
+        var environment = new MockEnvironment().withProperty("api.execution.mode", "reactive")
+
+        when:
+        new ExecutionModeEnvironmentPostProcessor().postProcessEnvironment(environment, null)
+
+        then:
+        thrown(IllegalStateException)
+    }
+}
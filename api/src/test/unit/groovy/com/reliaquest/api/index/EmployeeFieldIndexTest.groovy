@@ -0,0 +1,57 @@
+package com.reliaquest.api.index
+
+import com.reliaquest.api.model.Employee
+import spock.lang.Specification
+
+class EmployeeFieldIndexTest extends Specification {
+
+    def "test candidates come from the most selective indexed clause" () {
+        given:
+        var list = [
+                employee("Engineer", 100),
+                employee("Engineer", 300),
+                employee("Manager", 200),
+                employee("Engineer", 200),
+                employee(null, null),
+                employee("Engineer", 500)]
+        var index = EmployeeFieldIndex.of(list)
+
+        expect:
+        index.candidates(EmployeeFilter.parse(query)) as List == candidates
+
+        where:
+        query                               | candidates
+        "title:manager"                     | [2]
+        "salary:200..300"                   | [1, 2, 3]
+        "title:engineer;salary:150..250"    | [2, 3]
+        "title:manager;salary:0.."          | [2]
+        "title:director"                    | []
+        "age:30..40"                        | null
+        "title:engineer;salary:0.."         | [0, 1, 3, 5]
+    }
+
+    def "test appended and removed employees keep the indexes in order" () {
+        given:
+        var list = [employee("Engineer", 300), employee("Manager", 100), employee("Engineer", 200)]
+        var created = employee("Manager", 200)
+
+        when:
+        var patched = EmployeeFieldIndex.of(list).plus(created).minus(1, list[1])
+        var slots = list + [created]
+        var remaining = [list[0], list[2], created]
+        var rebuilt = EmployeeFieldIndex.of(remaining)
+
+        then:
+        ["title:manager", "title:engineer", "salary:150..250", "salary:..300"].every { query ->
+            var filter = EmployeeFilter.parse(query)
+            patched.candidates(filter).collect { slots[it] } == rebuilt.candidates(filter).collect { remaining[it] }
+        }
+        patched.candidates(EmployeeFilter.parse("salary:200")) as List == [2, 3]
+        patched.candidates(EmployeeFilter.parse("salary:100")) as List == []
+        patched.candidates(EmployeeFilter.parse("title:manager")) as List == [3]
+    }
+
+    private static Employee employee(String title, Integer salary) {
+        return new Employee(UUID.randomUUID(), "Employee", salary, 30, title, "e@company.com")
+    }
+}
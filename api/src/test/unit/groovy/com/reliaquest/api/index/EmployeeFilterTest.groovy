@@ -0,0 +1,49 @@
+package com.reliaquest.api.index
+
+import com.reliaquest.api.model.Employee
+import spock.lang.Specification
+
+class EmployeeFilterTest extends Specification {
+
+    private static final Employee EMPLOYEE = new Employee(UUID.randomUUID(), "Tiger Nixon", 320800, 61, "System Architect", "tnixon@Company.com")
+
+    def "test filter matches when every clause does" () {
+        expect:
+        EmployeeFilter.parse(query).test(EMPLOYEE) == matches
+
+        where:
+        query                                                   | matches
+        "title:system architect"                                | true
+        "title:Architect"                                       | false
+        "domain:company.com"                                    | true
+        "domain:pany.com"                                       | false
+        "salary:300000..400000"                                 | true
+        "salary:..320800"                                       | true
+        "salary:320801.."                                       | false
+        "age:61"                                                | true
+        " title : System Architect ; age : 60..70 ;"            | true
+        "title:System Architect;domain:company.com;age:..60"    | false
+    }
+
+    def "test employees without the filtered field do not match" () {
+        given:
+        var employee = new Employee(UUID.randomUUID(), "Nobody", null, null, null, null)
+
+        expect:
+        !EmployeeFilter.parse(query).test(employee)
+
+        where:
+        query << ["title:Architect", "domain:company.com", "salary:0..", "age:..100"]
+    }
+
+    def "test malformed filter is rejected" () {
+        when:
+        EmployeeFilter.parse(query)
+
+        then:
+        thrown(MalformedFilterException)
+
+        where:
+        query << ["", " ; ", "title", "title:", "name:Tiger", "salary:abc", "age:40..30", "age:1;age:2"]
+    }
+}
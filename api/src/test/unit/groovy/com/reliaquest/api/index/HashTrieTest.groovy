@@ -0,0 +1,89 @@
+package com.reliaquest.api.index
+
+import spock.lang.Specification
+
+class HashTrieTest extends Specification {
+
+    def "test entries are added, replaced and removed without changing the original" () {
+        given:
+        var trie = HashTrie.<String, Integer>empty().plus("a", 1).plus("b", 2)
+
+        when:
+        var replaced = trie.plus("a", 10)
+        var removed = trie.minus("b")
+
+        then:
+        trie.get("a") == 1
+        trie.size() == 2
+        replaced.get("a") == 10
+        replaced.size() == 2
+        removed.get("b") == null
+        removed.size() == 1
+        removed.minus("b").is(removed)
+        trie.minus("missing").is(trie)
+    }
+
+    def "test agrees with a hash map under random updates" () {
+        given:
+        var random = new Random(11)
+        var trie = HashTrie.<Integer, Integer>empty()
+        var map = new HashMap<Integer, Integer>()
+
+        when:
+        20_000.times {
+            var key = random.nextInt(5000)
+            if (random.nextInt(3) == 0) {
+                trie = trie.minus(key)
+                map.remove(key)
+            } else {
+                trie = trie.plus(key, it)
+                map.put(key, it)
+            }
+        }
+        var entries = new HashMap<Integer, Integer>()
+        trie.forEach { key, value -> entries.put(key, value) }
+
+        then:
+        trie.size() == map.size()
+        entries == map
+        (0..<5000).every { key -> trie.get(key) == map.get(key) }
+    }
+
+    def "test keys with colliding hashes are kept apart" () {
+        given:
+        var trie = HashTrie.<Collision, String>empty()
+                .plus(new Collision(1), "one")
+                .plus(new Collision(2), "two")
+                .plus(new Collision(3), "three")
+
+        when:
+        var removed = trie.minus(new Collision(2))
+
+        then:
+        trie.get(new Collision(2)) == "two"
+        trie.size() == 3
+        removed.get(new Collision(1)) == "one"
+        removed.get(new Collision(2)) == null
+        removed.get(new Collision(3)) == "three"
+        removed.size() == 2
+        removed.minus(new Collision(1)).minus(new Collision(3)).isEmpty()
+    }
+
+    private static final class Collision {
+        private final int value
+
+        private Collision(int value) {
+            this.value = value
+        }
+
+        @Override
+        boolean equals(Object other) {
+            return other instanceof Collision && ((Collision) other).value == value
+        }
+
+        @Override
+        int hashCode() {
+            return 42
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.reliaquest.api.index
+
+import com.reliaquest.api.model.Employee
+import spock.lang.Specification
+
+class NameTrigramIndexTest extends Specification {
+
+    private static final List<String> NAMES = ["Tiger Nixon", "Garrett Winters", "Ashton Cox", null, "  ", "Tiger Woods", "Cedric Kelly"]
+
+    def "test search matches the same employees as a linear scan" () {
+        given:
+        var index = NameTrigramIndex.of(employees(NAMES))
+
+        expect:
+        index.search(search) as List == expected
+
+        where:
+        search          | expected
+        "tiger"         | [0, 5]
+        "iger n"        | [0]
+        "er"            | [0, 1, 5]
+        "c"             | [2, 6]
+        "on"            | [0, 2]
+        "kelly"         | [6]
+        "tiger wood x"  | []
+        "zzz"           | []
+    }
+
+    def "test appended employee is searchable" () {
+        given:
+        var index = NameTrigramIndex.of(employees(NAMES))
+
+        when:
+        var patched = index.plus(new Employee(UUID.randomUUID(), "Brielle Tiger", 1000, 30, "Title", "b@company.com"))
+
+        then:
+        patched.search("tiger") as List == [0, 5, 7]
+        index.search("tiger") as List == [0, 5]
+    }
+
+    def "test removed employee keeps the slots of the others" () {
+        given:
+        var index = NameTrigramIndex.of(employees(NAMES))
+
+        when:
+        var removed = index.minus(0)
+
+        then:
+        removed.search("tiger") as List == [5]
+        removed.search("on") as List == [2]
+        removed.search("nixon") as List == []
+        removed.minus(0).is(removed)
+        index.search("tiger") as List == [0, 5]
+    }
+
+    private static List<Employee> employees(List<String> names) {
+        return names.collect { name -> new Employee(UUID.randomUUID(), name, 1000, 30, "Title", "e@company.com") }
+    }
+}
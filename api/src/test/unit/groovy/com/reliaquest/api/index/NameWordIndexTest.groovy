@@ -0,0 +1,106 @@
+package com.reliaquest.api.index
+
+import com.reliaquest.api.model.Employee
+import spock.lang.Specification
+
+class NameWordIndexTest extends Specification {
+
+    private static final List<String> NAMES = ["Tiger Nixon", "Garrett Winters", "Ashton Cox", null, "  ", "Tiger Woods", "Cedric Kelly"]
+
+    def "test prefix search matches every query word against the start of a name word" () {
+        given:
+        var index = NameWordIndex.of(employees(NAMES))
+
+        expect:
+        index.prefix(search) as List == expected
+
+        where:
+        search          | expected
+        "ti"            | [0, 5]
+        "tiger w"       | [5]
+        "w"             | [1, 5]
+        "c"             | [2, 6]
+        "iger"          | []
+        "  "            | []
+    }
+
+    def "test fuzzy search matches name words within the distance" () {
+        given:
+        var index = NameWordIndex.of(employees(NAMES))
+
+        expect:
+        index.fuzzy(search, distance) as List == expected
+
+        where:
+        search          | distance | expected
+        "tiger"         | 0        | [0, 5]
+        "tigre"         | 1        | []
+        "tigre"         | 2        | [0, 5]
+        "nixen"         | 1        | [0]
+        "tiger wods"    | 1        | [5]
+        "kely cedrik"   | 1        | [6]
+        "cox"           | 1        | [2]
+        "zzzzz"         | 2        | []
+    }
+
+    def "test fuzzy search agrees with a linear scan" () {
+        given:
+        var random = new Random(7)
+        var words = (1..2000).collect { (1..(3 + random.nextInt(6))).collect { (('a' as char) + random.nextInt(6)) as char }.join() }
+        var names = words.collate(2).collect { it.join(" ") }
+        var index = NameWordIndex.of(employees(names))
+
+        expect:
+        ["abcd", "fedcba", "aaa", "bcdefa"].every { search ->
+            var expected = names.findIndexValues { name ->
+                name.split(" ").any { word -> NameWordIndex.distance(word, search) <= 2 }
+            }.collect { it as int }
+            index.fuzzy(search, 2) as List == expected
+        }
+    }
+
+    def "test appended and removed employees are searchable" () {
+        given:
+        var list = employees(NAMES)
+        var index = NameWordIndex.of(list)
+
+        when:
+        var created = new Employee(UUID.randomUUID(), "Brielle Tigger", 1000, 30, "Title", "b@company.com")
+        var patched = index.plus(created)
+        var removed = patched.minus(0, list[0])
+
+        then:
+        patched.prefix("tig") as List == [0, 5, 7]
+        patched.fuzzy("brielle", 0) as List == [7]
+        index.prefix("tig") as List == [0, 5]
+        removed.prefix("tig") as List == [5, 7]
+        removed.fuzzy("nixon", 1) as List == []
+        removed.prefix("nix") as List == []
+    }
+
+    def "test words no longer used are dropped once they are the majority" () {
+        given:
+        var list = employees(["Tiger Nixon", "Garrett Winters", "Ashton Cox", "Cedric Kelly"])
+        var index = NameWordIndex.of(list)
+
+        when:
+        var removed = index.minus(0, list[0]).minus(1, list[1]).minus(2, list[2])
+
+        then:
+        removed.prefix("c") as List == [3]
+        removed.fuzzy("kely", 1) as List == [3]
+        removed.prefix("t") as List == []
+    }
+
+    def "test distance beyond the maximum is rejected" () {
+        when:
+        NameWordIndex.of(employees(NAMES)).fuzzy("tiger", NameWordIndex.MAX_DISTANCE + 1)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    private static List<Employee> employees(List<String> names) {
+        return names.collect { name -> new Employee(UUID.randomUUID(), name, 1000, 30, "Title", "e@company.com") }
+    }
+}
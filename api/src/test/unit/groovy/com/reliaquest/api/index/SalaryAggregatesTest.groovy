@@ -0,0 +1,95 @@
+package com.reliaquest.api.index
+
+import com.reliaquest.api.model.Employee
+import spock.lang.Specification
+
+class SalaryAggregatesTest extends Specification {
+
+    def "test aggregates of an employee list" () {
+        when:
+        var aggregates = SalaryAggregates.of(employees(salaries), 3)
+
+        then:
+        aggregates.highestSalary() == highest
+        aggregates.topNames() == top
+
+        where:
+        salaries                    | highest | top
+        []                          | 0       | []
+        [500]                       | 500     | ["Employee 0"]
+        [100, 400, 300, 200]        | 400     | ["Employee 1", "Employee 2", "Employee 3"]
+        [300, 300, 100, 300, 300]   | 300     | ["Employee 0", "Employee 1", "Employee 3"]
+        [100, null, 200]            | 200     | ["Employee 2", "Employee 0"]
+    }
+
+    def "test created employee is ranked incrementally" () {
+        given:
+        var aggregates = SalaryAggregates.of(employees([100, 400, 300, 200]), 3)
+
+        when:
+        var outranking = aggregates.plus(employee("New", 350))
+        var tied = aggregates.plus(employee("Tied", 200))
+
+        then:
+        outranking.highestSalary() == 400
+        outranking.topNames() == ["Employee 1", "New", "Employee 2"]
+        tied.topNames() == ["Employee 1", "Employee 2", "Employee 3"]
+    }
+
+    def "test deleted top earner rebuilds the heap and adjusts the sketch" () {
+        given:
+        var list = employees([100, 400, 300, 200])
+        var aggregates = SalaryAggregates.of(list, 3)
+
+        when:
+        var withoutTop = aggregates.minus(list[1], list - list[1])
+        var withoutOther = aggregates.minus(list[0], list - list[0])
+
+        then:
+        withoutTop.highestSalary() == 300
+        withoutTop.topNames() == ["Employee 2", "Employee 3", "Employee 0"]
+        withoutTop.salarySketch().count() == 3
+        Math.abs(withoutTop.salarySketch().quantile(1) - 300) <= 3
+        withoutOther.topNames() == aggregates.topNames()
+        withoutOther.salarySketch().count() == 3
+    }
+
+    def "test top k earners are selected with a bounded heap" () {
+        given:
+        var list = employees([300, 100, 500, null, 300, 200])
+
+        expect:
+        SalaryAggregates.top(list, k)*.name() == top
+
+        where:
+        k   | top
+        1   | ["Employee 2"]
+        3   | ["Employee 2", "Employee 0", "Employee 4"]
+        10  | ["Employee 2", "Employee 0", "Employee 4", "Employee 5", "Employee 1"]
+    }
+
+    def "test salary sketch follows created and deleted employees" () {
+        given:
+        var list = employees([100, 400, 300, 200])
+        var aggregates = SalaryAggregates.of(list, 3)
+
+        when:
+        var created = aggregates.plus(employee("New", 1000))
+        var deleted = created.minus(list[0], list - list[0])
+
+        then:
+        aggregates.salarySketch().count() == 4
+        created.salarySketch().count() == 5
+        Math.abs(created.salarySketch().quantile(1) - 1000) <= 10
+        deleted.salarySketch().count() == 4
+        Math.abs(deleted.salarySketch().quantile(0) - 200) <= 2
+    }
+
+    private static List<Employee> employees(List<Integer> salaries) {
+        return salaries.withIndex().collect { salary, i -> employee("Employee $i", salary) }
+    }
+
+    private static Employee employee(String name, Integer salary) {
+        return new Employee(UUID.randomUUID(), name, salary, 30, "Title", "${name}@company.com")
+    }
+}
@@ -0,0 +1,74 @@
+package com.reliaquest.api.index
+
+import com.reliaquest.api.model.Employee
+import spock.lang.Specification
+
+class SalaryGroupsTest extends Specification {
+
+    def "test groups of an employee list" () {
+        when:
+        var groups = SalaryGroups.of([
+                employee("Engineer", 34, 100),
+                employee("Engineer", 38, 300),
+                employee("Manager", 45, 500),
+                employee(null, 31, 200),
+                employee("Manager", null, 700),
+                employee("Engineer", 29, null)])
+
+        then:
+        groups.byTitle().keySet().toList() == ["Engineer", "Manager"]
+        groups.byTitle()["Engineer"] == new SalaryStats(2, 400, 100, 1, 300, 1)
+        groups.byTitle()["Manager"].average() == 600d
+        groups.byAgeBand().keySet().toList() == ["30-39", "40-49"]
+        groups.byAgeBand()["30-39"] == new SalaryStats(3, 600, 100, 1, 300, 1)
+    }
+
+    def "test created employee only replaces its own groups" () {
+        given:
+        var groups = SalaryGroups.of([employee("Engineer", 34, 100), employee("Manager", 45, 500)])
+
+        when:
+        var next = groups.plus(employee("Engineer", 52, 50))
+
+        then:
+        next.byTitle()["Engineer"] == new SalaryStats(2, 150, 50, 1, 100, 1)
+        next.byTitle()["Manager"].is(groups.byTitle()["Manager"])
+        next.byAgeBand().keySet().toList() == ["30-39", "40-49", "50-59"]
+        groups.byTitle()["Engineer"].count() == 1
+    }
+
+    def "test deleted employee is removed incrementally or rescanned at an extreme" () {
+        given:
+        var list = [
+                employee("Engineer", 34, 100),
+                employee("Engineer", 35, 200),
+                employee("Engineer", 36, 200),
+                employee("Engineer", 37, 300)]
+        var groups = SalaryGroups.of(list)
+
+        when:
+        var middle = groups.minus(list[1], list - list[1])
+        var lowest = groups.minus(list[0], list - list[0])
+
+        then:
+        middle.byTitle()["Engineer"] == new SalaryStats(3, 600, 100, 1, 300, 1)
+        lowest.byTitle()["Engineer"] == new SalaryStats(3, 700, 200, 2, 300, 1)
+        lowest.byAgeBand()["30-39"] == lowest.byTitle()["Engineer"]
+    }
+
+    def "test deleting the last employee of a group removes it" () {
+        given:
+        var list = [employee("Engineer", 34, 100), employee("Manager", 45, 500)]
+
+        when:
+        var groups = SalaryGroups.of(list).minus(list[1], list - list[1])
+
+        then:
+        groups.byTitle().keySet().toList() == ["Engineer"]
+        groups.byAgeBand().keySet().toList() == ["30-39"]
+    }
+
+    private static Employee employee(String title, Integer age, Integer salary) {
+        return new Employee(UUID.randomUUID(), "Employee", salary, age, title, "employee@company.com")
+    }
+}
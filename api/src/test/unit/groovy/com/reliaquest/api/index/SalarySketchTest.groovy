@@ -0,0 +1,74 @@
+package com.reliaquest.api.index
+
+import spock.lang.Specification
+
+class SalarySketchTest extends Specification {
+
+    def "test quantiles are within the relative accuracy" () {
+        given:
+        var random = new Random(42)
+        int[] salaries = (1..100_000).collect { 20_000 + random.nextInt(480_000) } as int[]
+        var sorted = salaries.toList().sort()
+        var sketch = SalarySketch.of(salaries)
+
+        expect:
+        [0.0d, 0.1d, 0.5d, 0.9d, 0.99d, 1.0d].every { q ->
+            var exact = sorted[(int) Math.floor(q * (sorted.size() - 1))]
+            Math.abs(sketch.quantile(q) - exact) <= exact * SalarySketch.DEFAULT_RELATIVE_ACCURACY
+        }
+        sketch.count() == 100_000
+    }
+
+    def "test empty sketch answers zero" () {
+        expect:
+        SalarySketch.empty().quantile(0.5) == 0
+        SalarySketch.of(new int[0]).count() == 0
+        SalarySketch.of([0, 0] as int[]).quantile(1) == 0
+    }
+
+    def "test merged sketch equals the sketch of both salary lists" () {
+        given:
+        int[] low = [1000, 2000, 3000]
+        int[] high = [50_000, 60_000]
+
+        when:
+        var merged = SalarySketch.of(low).merge(SalarySketch.of(high))
+        var whole = SalarySketch.of((low.toList() + high.toList()) as int[])
+
+        then:
+        merged.count() == 5
+        [0.0d, 0.25d, 0.5d, 0.75d, 1.0d].every { q -> merged.quantile(q) == whole.quantile(q) }
+    }
+
+    def "test salaries are added and removed incrementally" () {
+        given:
+        var sketch = SalarySketch.of([1000, 2000] as int[])
+
+        when:
+        var adjusted = sketch.plus(90_000).minus(1000)
+
+        then:
+        adjusted.count() == 2
+        Math.abs(adjusted.quantile(0) - 2000) <= 20
+        Math.abs(adjusted.quantile(1) - 90_000) <= 900
+        sketch.count() == 2
+    }
+
+    def "test salary is added to an empty sketch" () {
+        when:
+        var sketch = SalarySketch.empty().plus(5000)
+
+        then:
+        sketch.count() == 1
+        Math.abs(sketch.quantile(0.5d) - 5000) <= 50
+        SalarySketch.empty().count() == 0
+    }
+
+    def "test removing an uncounted salary fails" () {
+        when:
+        SalarySketch.of([1000] as int[]).minus(5000)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,69 @@
+package com.reliaquest.api.index
+
+import spock.lang.Specification
+
+class SlotVectorTest extends Specification {
+
+    def "test removed elements keep the slots of the others" () {
+        given:
+        var vector = SlotVector.of(["a", "b", "c"])
+
+        when:
+        var removed = vector.minus(1)
+        var appended = removed.plus("d")
+
+        then:
+        vector == ["a", "b", "c"]
+        removed == ["a", "c"]
+        removed.slot(1) == null
+        removed.slot(2) == "c"
+        removed.minus(1).is(removed)
+        appended == ["a", "c", "d"]
+        appended.slot(3) == "d"
+        appended.slots() == 4
+        appended.get(2) == "d"
+    }
+
+    def "test agrees with a list under random updates" () {
+        given:
+        var random = new Random(5)
+        var vector = SlotVector.of((0..<1000).toList())
+        var slots = (0..<1000).toList()
+
+        when:
+        5000.times {
+            if (random.nextBoolean()) {
+                vector = vector.plus(slots.size())
+                slots.add(slots.size())
+            } else {
+                var slot = random.nextInt(slots.size())
+                vector = vector.minus(slot)
+                slots.set(slot, null)
+            }
+        }
+        var live = slots.findAll { it != null }
+        var visited = []
+        vector.forEachSlot { element, slot -> visited << [element, slot] }
+
+        then:
+        vector.size() == live.size()
+        vector.slots() == slots.size()
+        vector as List == live
+        (0..<live.size()).every { vector.get(it) == live[it] }
+        (0..<slots.size()).every { vector.slot(it) == slots[it] }
+        visited == live.collect { [it, it] }
+    }
+
+    def "test appending grows the trie past a full level" () {
+        given:
+        var vector = SlotVector.<Integer>empty()
+
+        when:
+        2000.times { vector = vector.plus(it) }
+
+        then:
+        vector == (0..<2000).toList()
+        vector.slot(1999) == 1999
+        vector.get(1024) == 1024
+    }
+}
@@ -0,0 +1,71 @@
+package com.reliaquest.api.mapper
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.exc.InvalidFormatException
+import com.fasterxml.jackson.databind.exc.MismatchedInputException
+import com.fasterxml.jackson.dataformat.smile.SmileFactory
+import com.reliaquest.api.model.Employee
+import com.reliaquest.server.model.MockEmployee
+import spock.lang.Specification
+
+class EmployeeDeserializerTest extends Specification {
+
+    private ObjectMapper mapper = new ObjectMapper()
+
+    def "test version 1 wire format is mapped onto the employee" () {
+        given:
+        var mock = new MockEmployee(UUID.randomUUID(), "Jane Doe", 52000, 41, "Engineer", "jane@company.com")
+
+        when:
+        var result = mapper.readValue(mapper.writeValueAsString(mock), Employee)
+
+        then:
+        result == new Employee(mock.id, mock.name, mock.salary, mock.age, mock.title, mock.email)
+    }
+
+    def "test version 1 Smile format is mapped onto the employee" () {
+        given:
+        var smileMapper = new ObjectMapper(new SmileFactory())
+        var mock = new MockEmployee(UUID.randomUUID(), "Jane Doe", 52000, 41, "Engineer", "jane@company.com")
+
+        when:
+        var result = smileMapper.readValue(smileMapper.writeValueAsBytes(mock), Employee)
+
+        then:
+        result == new Employee(mock.id, mock.name, mock.salary, mock.age, mock.title, mock.email)
+    }
+
+    def "test field names are matched with or without the prefix, ignoring case" () {
+        given:
+        var id = UUID.randomUUID()
+        var json = """{"ID":"$id","Employee_Name":"Jane","name_extra":"x","salary":"1000","EMPLOYEE_AGE":null,"nested":{"a":[1,2]},"employee_title":"T"}"""
+
+        when:
+        var result = mapper.readValue(json, Employee)
+
+        then:
+        result == new Employee(id, "Jane", 1000, null, "T", null)
+    }
+
+    def "test employee round trips through the version 2 format" () {
+        given:
+        var employee = new Employee(UUID.randomUUID(), "Jane", 1000, 30, "T", "j@company.com")
+
+        expect:
+        mapper.readValue(mapper.writeValueAsString(employee), Employee) == employee
+    }
+
+    def "test malformed values are rejected" () {
+        when:
+        mapper.readValue(json, Employee)
+
+        then:
+        thrown(expected)
+
+        where:
+        json                              | expected
+        '{"id":"not-a-uuid"}'             | InvalidFormatException
+        '{"employee_salary":"lots"}'      | InvalidFormatException
+        '["employee_name"]'               | MismatchedInputException
+    }
+}
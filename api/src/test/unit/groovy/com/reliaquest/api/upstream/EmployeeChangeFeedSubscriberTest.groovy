@@ -0,0 +1,100 @@
+package com.reliaquest.api.upstream
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.reliaquest.api.cache.EmployeeLoader
+import com.reliaquest.api.cache.EmployeeSnapshotCache
+import com.reliaquest.api.model.Employee
+import spock.lang.Specification
+
+import java.time.Clock
+import java.time.Duration
+import java.time.Instant
+import java.time.ZoneOffset
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+class EmployeeChangeFeedSubscriberTest extends Specification {
+
+    private static final UUID CREATED_ID = UUID.fromString("5255f1a5-f9f7-4be5-829a-134bde088d17")
+
+    private ExecutorService executor
+    private EmployeeSnapshotCache cache
+    private EmployeeChangeFeedSubscriber subscriber
+
+    void setup() {
+        executor = Executors.newSingleThreadExecutor()
+        var clock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC)
+        cache = new EmployeeSnapshotCache(Duration.ofSeconds(30), Duration.ofMinutes(5), clock, executor)
+        var budget = new UpstreamBudget(10, Duration.ofSeconds(30), Duration.ofMinutes(2), Duration.ofSeconds(1), 10)
+        var upstreamGuard = new UpstreamGuard(
+            budget, new UpstreamCircuitBreaker(2, Duration.ofSeconds(10), clock), new UpstreamBulkhead(2, 1, Duration.ZERO), new UpstreamMetrics())
+        subscriber = new EmployeeChangeFeedSubscriber(cache, upstreamGuard, new ObjectMapper(), "http://localhost:8112/api/v1", 1000, 1000)
+    }
+
+    void cleanup() {
+        executor.shutdownNow()
+    }
+
+    def "test pushed change is applied and confirms the snapshot" () {
+        given:
+        cache.get({ etag -> EmployeeLoader.Loaded.of(getEmployees(2), '"e-4"') } as EmployeeLoader)
+
+        when:
+        subscriber.consume([
+                "id: e-4",
+                "event: position",
+                'data: {"epoch":"e","sequence":4,"resync":false,"changes":[]}',
+                "",
+                ": heartbeat",
+                "id: e-5",
+                "event: change",
+                'data: {"sequence":5,"type":"CREATED","employee":',
+                "data: {\"id\":\"$CREATED_ID\",\"employee_name\":\"Pushed\",\"employee_salary\":1}}",
+                "",
+        ].stream())
+        var snapshot = cache.peek().orElseThrow()
+
+        then:
+        snapshot.etag() == '"e-5"'
+        snapshot.employees().size() == 3
+        snapshot.findById(CREATED_ID).map(Employee::name).orElseThrow() == "Pushed"
+    }
+
+    def "test heartbeat confirms a snapshot loaded with a weak entity tag" () {
+        given:
+        cache.get({ etag -> EmployeeLoader.Loaded.of(getEmployees(2), 'W/"e-4"') } as EmployeeLoader)
+
+        when:
+        subscriber.consume([
+                "id: e-4",
+                "event: position",
+                'data: {"epoch":"e","sequence":4,"resync":false,"changes":[]}',
+                "",
+                ": heartbeat",
+        ].stream())
+
+        then:
+        cache.peek().orElseThrow().etag() == '"e-4"'
+    }
+
+    def "test resync expires the snapshot" () {
+        given:
+        cache.get({ etag -> EmployeeLoader.Loaded.of(getEmployees(2), '"old-9"') } as EmployeeLoader)
+
+        when:
+        subscriber.consume([
+                "id: e-3",
+                "event: position",
+                'data: {"epoch":"e","sequence":3,"resync":true,"changes":[]}',
+                "",
+        ].stream())
+
+        then:
+        cache.peek().isEmpty()
+        cache.lastGood().isPresent()
+    }
+
+    private static List<Employee> getEmployees(int count) {
+        return (1..count).collect { i -> new Employee(UUID.randomUUID(), "Employee $i", 1000 * i, 25 + i, "Title $i", "$i@company.com") }
+    }
+}
@@ -0,0 +1,91 @@
+package com.reliaquest.api.upstream
+
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class InFlightRequestsTest extends Specification {
+
+    private InFlightRequests inFlightRequests = new InFlightRequests()
+
+    def "test concurrent callers of the same key share one request" () {
+        given:
+        var callers = 50
+        var executor = Executors.newFixedThreadPool(callers)
+        var upstreamCalls = new AtomicInteger()
+        var release = new CountDownLatch(1)
+
+        when:
+        List<Future<Integer>> futures = (1..callers).collect {
+            executor.submit({
+                inFlightRequests.execute("/employee") {
+                    upstreamCalls.incrementAndGet()
+                    release.await(5, TimeUnit.SECONDS)
+                    return 42
+                }
+            } as Callable<Integer>)
+        }
+        waitForJoiners()
+        release.countDown()
+        var results = futures.collect { it.get(5, TimeUnit.SECONDS) }
+        executor.shutdown()
+
+        then:
+        upstreamCalls.get() == 1
+        results.every { it == 42 }
+        inFlightRequests.size() == 0
+    }
+
+    def "test waiters receive the exception of the shared request" () {
+        given:
+        var executor = Executors.newFixedThreadPool(2)
+        var release = new CountDownLatch(1)
+        executor.submit({
+            inFlightRequests.execute("/employee") {
+                release.await(5, TimeUnit.SECONDS)
+                throw new IllegalStateException("Upstream down")
+            }
+        } as Callable<Object>)
+        waitForJoiners()
+        var waiter = executor.submit({
+            inFlightRequests.execute("/employee") { "not called" }
+        } as Callable<Object>)
+
+        when:
+        Thread.sleep(100)
+        release.countDown()
+        waiter.get(5, TimeUnit.SECONDS)
+
+        then:
+        def e = thrown(ExecutionException)
+        e.cause instanceof IllegalStateException
+        e.cause.message == "Upstream down"
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "test requests for different keys are not coalesced" () {
+        when:
+        var first = inFlightRequests.execute("/employee/1") { "first" }
+        var second = inFlightRequests.execute("/employee/2") { "second" }
+
+        then:
+        first == "first"
+        second == "second"
+    }
+
+    private void waitForJoiners() {
+        var deadline = System.currentTimeMillis() + 5_000
+        while (inFlightRequests.size() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+        }
+        Thread.sleep(200)
+    }
+}
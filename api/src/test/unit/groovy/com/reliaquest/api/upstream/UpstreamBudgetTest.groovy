@@ -0,0 +1,118 @@
+package com.reliaquest.api.upstream
+
+import spock.lang.Specification
+
+import java.time.Duration
+
+class UpstreamBudgetTest extends Specification {
+
+    def "test requests are granted until the bucket is empty" () {
+        given:
+        var budget = new UpstreamBudget(3, Duration.ofMinutes(1), Duration.ofMinutes(2), Duration.ofMillis(100), 10)
+
+        when:
+        3.times { budget.acquire() }
+
+        then:
+        budget.getAvailableTokens() == 0
+        budget.getTimeToNextToken() > Duration.ofSeconds(50)
+
+        when:
+        budget.acquire()
+
+        then:
+        def e = thrown(UpstreamRateLimitedException)
+        e.retryAfter > Duration.ofSeconds(50)
+    }
+
+    def "test caller waits for the bucket to refill within max wait" () {
+        given:
+        var budget = new UpstreamBudget(1, Duration.ofMillis(200), Duration.ofSeconds(1), Duration.ofSeconds(2), 10)
+        budget.acquire()
+
+        when:
+        var start = System.nanoTime()
+        budget.acquire()
+        var waited = Duration.ofNanos(System.nanoTime() - start)
+
+        then:
+        waited >= Duration.ofMillis(150)
+        budget.getQueueDepth() == 0
+    }
+
+    def "test 429 after allowed requests lowers the capacity" () {
+        given:
+        var budget = new UpstreamBudget(10, Duration.ofMillis(100), Duration.ofSeconds(1), Duration.ofSeconds(2), 10)
+        6.times { budget.acquire() }
+
+        when:
+        var retryAfter = budget.onRateLimited(null)
+
+        then:
+        budget.getCapacity() == 5
+        budget.getAvailableTokens() == 0
+        retryAfter == Duration.ofMillis(100)
+    }
+
+    def "test 429 on the first request after a refill grows the window" () {
+        given:
+        var budget = new UpstreamBudget(5, Duration.ofMillis(100), Duration.ofMillis(400), Duration.ofSeconds(2), 10)
+        budget.acquire()
+
+        when:
+        var first = budget.onRateLimited(null)
+        Thread.sleep(first.toMillis() + 20)
+        budget.acquire()
+        var second = budget.onRateLimited(null)
+
+        then:
+        first == Duration.ofMillis(150)
+        second == Duration.ofMillis(225)
+        budget.getCapacity() == 5
+    }
+
+    def "test retry after from the upstream is honoured" () {
+        given:
+        var budget = new UpstreamBudget(5, Duration.ofMillis(100), Duration.ofSeconds(1), Duration.ofSeconds(2), 10)
+        2.times { budget.acquire() }
+
+        when:
+        var retryAfter = budget.onRateLimited(Duration.ofSeconds(30))
+
+        then:
+        retryAfter == Duration.ofSeconds(30)
+    }
+
+    def "test capacity recovers after a transient 429" () {
+        given:
+        var budget = new UpstreamBudget(4, Duration.ofMillis(20), Duration.ofSeconds(1), Duration.ofSeconds(1), 10)
+        3.times { budget.acquire() }
+        budget.onRateLimited(null)
+
+        expect:
+        budget.getCapacity() == 2
+
+        when:
+        20.times { budget.acquire() }
+
+        then:
+        budget.getCapacity() == 4
+    }
+
+    def "test window decays back to its initial value after clean windows" () {
+        given:
+        var budget = new UpstreamBudget(2, Duration.ofMillis(20), Duration.ofSeconds(1), Duration.ofSeconds(1), 10)
+        budget.acquire()
+        budget.onRateLimited(null)
+
+        expect:
+        budget.getWindow() == Duration.ofMillis(30)
+
+        when:
+        20.times { budget.acquire() }
+
+        then:
+        budget.getWindow() == Duration.ofMillis(20)
+        budget.getCapacity() == 2
+    }
+}
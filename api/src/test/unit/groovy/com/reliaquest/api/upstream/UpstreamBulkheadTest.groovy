@@ -0,0 +1,51 @@
+package com.reliaquest.api.upstream
+
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class UpstreamBulkheadTest extends Specification {
+
+    def "test full write bulkhead does not block reads" () {
+        given:
+        var bulkhead = new UpstreamBulkhead(1, 1, Duration.ofMillis(50))
+        var executor = Executors.newSingleThreadExecutor()
+        var started = new CountDownLatch(1)
+        var release = new CountDownLatch(1)
+        executor.submit {
+            bulkhead.execute(UpstreamBulkhead.Operation.WRITE) {
+                started.countDown()
+                release.await(5, TimeUnit.SECONDS)
+            }
+        }
+        started.await(5, TimeUnit.SECONDS)
+
+        when:
+        var read = bulkhead.execute(UpstreamBulkhead.Operation.READ) { "read" }
+        bulkhead.execute(UpstreamBulkhead.Operation.WRITE) { "write" }
+
+        then:
+        read == "read"
+        thrown(UpstreamUnavailableException)
+        bulkhead.getAvailablePermits(UpstreamBulkhead.Operation.READ) == 1
+
+        cleanup:
+        release.countDown()
+        executor.shutdownNow()
+    }
+
+    def "test permit is released when the call fails" () {
+        given:
+        var bulkhead = new UpstreamBulkhead(1, 1, Duration.ofMillis(50))
+
+        when:
+        bulkhead.execute(UpstreamBulkhead.Operation.READ) { throw new IllegalStateException("Boom") }
+
+        then:
+        thrown(IllegalStateException)
+        bulkhead.getAvailablePermits(UpstreamBulkhead.Operation.READ) == 1
+    }
+}
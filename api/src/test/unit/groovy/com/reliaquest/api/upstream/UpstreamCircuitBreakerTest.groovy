@@ -0,0 +1,87 @@
+package com.reliaquest.api.upstream
+
+import org.springframework.http.HttpStatus
+import org.springframework.web.client.HttpClientErrorException
+import org.springframework.web.client.HttpServerErrorException
+import spock.lang.Specification
+
+import java.time.Clock
+import java.time.Duration
+import java.time.Instant
+import java.time.ZoneOffset
+
+class UpstreamCircuitBreakerTest extends Specification {
+
+    private Instant now = Instant.parse("2024-01-01T00:00:00Z")
+    private Clock clock = Stub() {
+        instant() >> { now }
+        getZone() >> ZoneOffset.UTC
+    }
+    private UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(3, Duration.ofSeconds(10), clock)
+
+    def "test breaker opens after consecutive failures and refuses calls" () {
+        given:
+        3.times { fail(new HttpServerErrorException(HttpStatus.BAD_GATEWAY)) }
+
+        when:
+        breaker.execute { "called" }
+
+        then:
+        breaker.getState() == UpstreamCircuitBreaker.State.OPEN
+        def e = thrown(UpstreamUnavailableException)
+        e.retryAfter == Duration.ofSeconds(10)
+    }
+
+    def "test success resets the consecutive failure count" () {
+        given:
+        2.times { fail(new HttpServerErrorException(HttpStatus.BAD_GATEWAY)) }
+        breaker.execute { "ok" }
+        2.times { fail(new HttpServerErrorException(HttpStatus.BAD_GATEWAY)) }
+
+        expect:
+        breaker.getState() == UpstreamCircuitBreaker.State.CLOSED
+    }
+
+    def "test client errors and local shedding are not failures" () {
+        given:
+        3.times { fail(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null)) }
+        3.times { fail(new UpstreamRateLimitedException("Shed", Duration.ofSeconds(1))) }
+
+        expect:
+        breaker.getState() == UpstreamCircuitBreaker.State.CLOSED
+    }
+
+    def "test half-open trial closes the breaker on success" () {
+        given:
+        3.times { fail(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many", null, null, null)) }
+        now = now.plusSeconds(11)
+
+        when:
+        var result = breaker.execute { "trial" }
+
+        then:
+        result == "trial"
+        breaker.getState() == UpstreamCircuitBreaker.State.CLOSED
+    }
+
+    def "test half-open trial failure opens the breaker again" () {
+        given:
+        3.times { fail(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE)) }
+        now = now.plusSeconds(11)
+
+        when:
+        fail(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE))
+        breaker.execute { "called" }
+
+        then:
+        thrown(UpstreamUnavailableException)
+        breaker.getState() == UpstreamCircuitBreaker.State.OPEN
+    }
+
+    private void fail(RuntimeException ex) {
+        try {
+            breaker.execute { throw ex }
+        } catch (RuntimeException ignored) {
+        }
+    }
+}
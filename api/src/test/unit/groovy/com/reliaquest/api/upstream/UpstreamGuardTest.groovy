@@ -0,0 +1,67 @@
+package com.reliaquest.api.upstream
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.http.HttpHeaders
+import org.springframework.http.HttpMethod
+import org.springframework.http.HttpStatus
+import org.springframework.web.client.HttpClientErrorException
+import org.springframework.web.client.ResourceAccessException
+import spock.lang.Specification
+
+import java.time.Clock
+import java.time.Duration
+
+class UpstreamGuardTest extends Specification {
+
+    private SimpleMeterRegistry registry = new SimpleMeterRegistry()
+    private UpstreamBudget budget = new UpstreamBudget(10, Duration.ofSeconds(30), Duration.ofMinutes(2), Duration.ofSeconds(1), 10)
+    private UpstreamCircuitBreaker circuitBreaker = new UpstreamCircuitBreaker(2, Duration.ofSeconds(10), Clock.systemUTC())
+    private UpstreamGuard guard
+
+    void setup() {
+        var metrics = new UpstreamMetrics()
+        metrics.bindTo(registry)
+        guard = new UpstreamGuard(budget, circuitBreaker, new UpstreamBulkhead(2, 1, Duration.ZERO), metrics)
+    }
+
+    def "test call is taken from the budget and timed" () {
+        when:
+        var result = guard.execute(HttpMethod.GET, "/employee/changes/stream") { "connected" }
+
+        then:
+        result == "connected"
+        budget.getAvailableTokens() == 9
+        registry.get("upstream.requests").tags("uri", "/employee/changes/stream", "outcome", "SUCCESS").timer().count() == 1
+    }
+
+    def "test 429 is reported to the budget and rethrown as rate limited" () {
+        given:
+        var headers = new HttpHeaders()
+        headers.set(HttpHeaders.RETRY_AFTER, "20")
+
+        when:
+        guard.execute(HttpMethod.GET, "/employee") {
+            throw HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "", headers, null, null)
+        }
+
+        then:
+        def e = thrown(UpstreamRateLimitedException)
+        e.retryAfter >= Duration.ofSeconds(20)
+        budget.getAvailableTokens() == 0
+    }
+
+    def "test failing calls open the circuit breaker" () {
+        when:
+        2.times {
+            try {
+                guard.execute(HttpMethod.GET, "/employee") { throw new ResourceAccessException("timeout") }
+            } catch (ResourceAccessException ignored) {
+            }
+        }
+        guard.execute(HttpMethod.GET, "/employee") { "not called" }
+
+        then:
+        thrown(UpstreamUnavailableException)
+        circuitBreaker.getState() == UpstreamCircuitBreaker.State.OPEN
+    }
+}
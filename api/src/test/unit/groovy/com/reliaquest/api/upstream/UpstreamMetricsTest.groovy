@@ -0,0 +1,72 @@
+package com.reliaquest.api.upstream
+
+import com.reliaquest.server.model.Response
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.http.HttpMethod
+import org.springframework.http.HttpStatus
+import org.springframework.http.ResponseEntity
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.web.client.HttpClientErrorException
+import org.springframework.web.client.ResourceAccessException
+import org.springframework.web.context.request.RequestContextHolder
+import org.springframework.web.context.request.ServletRequestAttributes
+import spock.lang.Specification
+
+class UpstreamMetricsTest extends Specification {
+
+    private SimpleMeterRegistry registry = new SimpleMeterRegistry()
+    private UpstreamMetrics metrics = new UpstreamMetrics()
+
+    void setup() {
+        metrics.bindTo(registry)
+    }
+
+    void cleanup() {
+        RequestContextHolder.resetRequestAttributes()
+    }
+
+    def "test calls are timed per uri template and status" () {
+        given:
+        var id = UUID.randomUUID()
+
+        when:
+        metrics.record(HttpMethod.GET, "/employee/$id") { ResponseEntity.ok(Response.handledWith("found")) }
+        metrics.record(HttpMethod.GET, "/employee/changes?since=4") { ResponseEntity.status(HttpStatus.NOT_MODIFIED).build() }
+        metrics.record(HttpMethod.GET, "/employee") { throw HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "", null, null, null) }
+
+        then:
+        thrown(HttpClientErrorException)
+        registry.get("upstream.requests").tags("uri", "/employee/{id}", "status", "200", "outcome", "SUCCESS").timer().count() == 1
+        registry.get("upstream.requests").tags("uri", "/employee/changes", "status", "304", "outcome", "REDIRECTION").timer().count() == 1
+        registry.get("upstream.requests").tags("uri", "/employee", "status", "429", "outcome", "CLIENT_ERROR", "exception", "TooManyRequests").timer().count() == 1
+        registry.get("upstream.requests").tags("uri", "/employee/{id}", "exception", "none").timer().count() == 1
+        registry.get("upstream.responses").tags("uri", "/employee/{id}", "status", "HANDLED").counter().count() == 1
+    }
+
+    def "test calls failing without a response are tagged with the exception" () {
+        when:
+        metrics.record(HttpMethod.GET, "/employee") { throw failure }
+
+        then:
+        thrown(RuntimeException)
+        registry.get("upstream.requests").tags("status", status, "outcome", "UNKNOWN", "exception", exception).timer().count() == 1
+
+        where:
+        failure                                  | status     | exception
+        new ResourceAccessException("timeout")   | "IO_ERROR" | "ResourceAccessException"
+        new IllegalStateException("bad body")    | "UNKNOWN"  | "IllegalStateException"
+    }
+
+    def "test calls made by a request are recorded as its fan-out" () {
+        given:
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()))
+
+        when:
+        2.times { metrics.record(HttpMethod.GET, "/employee") { "body" } }
+        metrics.recordFanOut()
+
+        then:
+        registry.get("upstream.fanout").summary().count() == 1
+        registry.get("upstream.fanout").summary().totalAmount() == 2
+    }
+}
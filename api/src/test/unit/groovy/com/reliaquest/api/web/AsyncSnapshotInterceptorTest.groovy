@@ -0,0 +1,97 @@
+package com.reliaquest.api.web
+
+import com.reliaquest.api.cache.EmployeeSnapshot
+import com.reliaquest.api.cache.EmployeeSnapshotCache
+import com.reliaquest.api.service.EmployeeService
+import com.reliaquest.api.upstream.UpstreamUnavailableException
+import jakarta.servlet.DispatcherType
+import org.springframework.mock.web.MockAsyncContext
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import org.springframework.web.context.request.RequestContextHolder
+import org.springframework.web.context.request.ServletRequestAttributes
+import spock.lang.Specification
+
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.CompletableFuture
+
+class AsyncSnapshotInterceptorTest extends Specification {
+
+    private EmployeeSnapshotCache snapshotCache = Mock()
+    private EmployeeService employeeService = Mock()
+    private AsyncSnapshotInterceptor interceptor = new AsyncSnapshotInterceptor(snapshotCache, employeeService)
+    private MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/employee/highestSalary")
+    private MockHttpServletResponse response = new MockHttpServletResponse()
+
+    void setup() {
+        request.setAsyncSupported(true)
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request))
+    }
+
+    void cleanup() {
+        RequestContextHolder.resetRequestAttributes()
+    }
+
+    def "test read served by the held snapshot proceeds without suspending" () {
+        when:
+        var proceed = interceptor.preHandle(request, response, new Object())
+
+        then:
+        1 * snapshotCache.peek() >> Optional.of(EmployeeSnapshot.of([], Instant.now()))
+        0 * employeeService._
+        proceed
+        !request.isAsyncStarted()
+    }
+
+    def "test read is suspended until the snapshot is loaded" () {
+        given:
+        var load = new CompletableFuture<EmployeeSnapshot>()
+        var snapshot = EmployeeSnapshot.of([], Instant.now())
+        snapshotCache.peek() >> Optional.empty()
+        employeeService.getSnapshotAsync() >> load
+
+        when:
+        var proceed = interceptor.preHandle(request, response, new Object())
+
+        then:
+        !proceed
+        request.isAsyncStarted()
+        (request.getAsyncContext() as MockAsyncContext).getDispatchedPath() == null
+
+        when:
+        load.complete(snapshot)
+        request.setDispatcherType(DispatcherType.ASYNC)
+
+        then:
+        (request.getAsyncContext() as MockAsyncContext).getDispatchedPath() == "/api/v2/employee/highestSalary"
+        interceptor.preHandle(request, response, new Object())
+        AsyncSnapshotInterceptor.preloaded().get().is(snapshot)
+    }
+
+    def "test failed load is rethrown on the async dispatch" () {
+        given:
+        var failure = new UpstreamUnavailableException("Upstream circuit breaker is open.", Duration.ofSeconds(5))
+        snapshotCache.peek() >> Optional.empty()
+        employeeService.getSnapshotAsync() >> CompletableFuture.failedFuture(failure)
+        interceptor.preHandle(request, response, new Object())
+        request.setDispatcherType(DispatcherType.ASYNC)
+
+        when:
+        interceptor.preHandle(request, response, new Object())
+
+        then:
+        def e = thrown(UpstreamUnavailableException)
+        e.is(failure)
+        AsyncSnapshotInterceptor.preloaded().isEmpty()
+    }
+
+    def "test writes are never suspended" () {
+        given:
+        request.setMethod("POST")
+
+        expect:
+        interceptor.preHandle(request, response, new Object())
+        !request.isAsyncStarted()
+    }
+}
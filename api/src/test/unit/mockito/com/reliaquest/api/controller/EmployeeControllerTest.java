@@ -3,16 +3,29 @@ package com.reliaquest.api.controller;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.cache.EmployeeSnapshotCache;
 import com.reliaquest.api.model.Employee;
 import com.reliaquest.api.service.EmployeeService;
+import com.reliaquest.api.upstream.InFlightRequests;
+import com.reliaquest.api.upstream.UpstreamBudget;
+import com.reliaquest.api.upstream.UpstreamBulkhead;
+import com.reliaquest.api.upstream.UpstreamCircuitBreaker;
+import com.reliaquest.api.upstream.UpstreamGuard;
+import com.reliaquest.api.upstream.UpstreamMetrics;
+import com.reliaquest.api.upstream.UpstreamUnavailableException;
+import com.reliaquest.api.web.SnapshotHeaderAdvice;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.Response;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -21,7 +34,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -32,6 +47,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.client.RestTemplate;
 
 @WebMvcTest(EmployeeController.class)
+@Import({
+    InFlightRequests.class,
+    UpstreamCircuitBreaker.class,
+    UpstreamBulkhead.class,
+    UpstreamMetrics.class,
+    UpstreamGuard.class
+})
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class EmployeeControllerTest {
 
@@ -46,6 +68,12 @@ class EmployeeControllerTest {
     @MockBean
     private RestTemplate restTemplate;
 
+    @MockBean
+    private UpstreamBudget upstreamBudget;
+
+    @MockBean
+    private EmployeeSnapshotCache snapshotCache;
+
     @BeforeAll
     public void classSetup() {
         RequestMapping requestMapping = EmployeeController.class.getAnnotation(RequestMapping.class);
@@ -97,7 +125,8 @@ class EmployeeControllerTest {
         Employee employee = createMockEmployee();
         String uri = String.format("%s/search/%s", controllerUri, URLEncoder.encode("ohn D", StandardCharsets.UTF_8));
 
-        doReturn(Collections.singletonList(employee)).when(employeeService).getAllEmployees();
+        when(snapshotCache.get(any()))
+                .thenReturn(EmployeeSnapshot.of(Arrays.asList(employee, createMockEmployee2()), Instant.now()));
 
         MvcResult result = mockMvc.perform(get(uri)).andExpect(status().isOk()).andReturn();
         ObjectMapper mapper = new ObjectMapper();
@@ -107,7 +136,109 @@ class EmployeeControllerTest {
         assertEquals(1, content.size());
         assertEquals(employee, content.get(0));
 
-        verify(employeeService, times(1)).getAllEmployees();
+        verify(snapshotCache, times(1)).get(any());
+    }
+
+    @Test
+    public void testEmployeesByFuzzyNameSearch() throws Exception {
+        Employee employee = createMockEmployee();
+        String uri = String.format("%s/search/%s", controllerUri, URLEncoder.encode("jhon", StandardCharsets.UTF_8));
+
+        when(snapshotCache.get(any()))
+                .thenReturn(EmployeeSnapshot.of(Arrays.asList(employee, createMockEmployee2()), Instant.now()));
+
+        MvcResult result = mockMvc.perform(get(uri).param("mode", "fuzzy").param("distance", "2"))
+                .andExpect(status().isOk())
+                .andReturn();
+        ObjectMapper mapper = new ObjectMapper();
+        List<Employee> content = mapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {});
+
+        assertEquals(List.of(employee), content);
+    }
+
+    @Test
+    public void testEmployeesByNameSearch_unknownModeIsBadRequest() throws Exception {
+        String uri = String.format("%s/search/%s", controllerUri, "john");
+
+        MvcResult result = mockMvc.perform(get(uri).param("mode", "bogus"))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, String> content =
+                mapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {});
+
+        assertEquals("Unknown search mode 'bogus'.", content.get("error"));
+        verify(snapshotCache, never()).get(any());
+    }
+
+    @Test
+    public void testEmployeesByNameSearch_distanceOutOfRangeIsBadRequest() throws Exception {
+        String uri = String.format("%s/search/%s", controllerUri, "john");
+
+        mockMvc.perform(get(uri).param("mode", "fuzzy").param("distance", "5"))
+                .andExpect(status().isBadRequest());
+        verify(snapshotCache, never()).get(any());
+    }
+
+    @Test
+    public void testTopEarners_malformedParameterIsBadRequest() throws Exception {
+        MvcResult result = mockMvc.perform(get(controllerUri + "/topEarners").param("k", "abc"))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, String> content =
+                mapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {});
+
+        assertEquals("Invalid value for parameter 'k'.", content.get("error"));
+    }
+
+    @Test
+    public void testSalaryPercentiles_malformedParameterIsBadRequest() throws Exception {
+        mockMvc.perform(get(controllerUri + "/salaryPercentiles").param("p", "abc"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(controllerUri + "/salaryPercentiles").param("p", "150"))
+                .andExpect(status().isBadRequest());
+        verify(snapshotCache, never()).get(any());
+    }
+
+    @Test
+    public void testIllegalArgumentIsServerError() throws Exception {
+        doThrow(new IllegalArgumentException("Internal detail")).when(employeeService).getAllEmployees();
+
+        mockMvc.perform(get(controllerUri)).andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    public void testGetEmployees_malformedFilterIsBadRequest() throws Exception {
+        MvcResult result = mockMvc.perform(get(controllerUri).param("filter", "rank:3"))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, String> content =
+                mapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {});
+
+        assertEquals("Unknown filter field 'rank'.", content.get("error"));
+        verify(snapshotCache, never()).get(any());
+    }
+
+    @Test
+    public void testStreamEmployees() throws Exception {
+        Employee employee = createMockEmployee();
+
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(Arrays.asList(employee, createMockEmployee2()), Instant.now());
+
+        when(snapshotCache.peek()).thenReturn(Optional.of(snapshot));
+
+        MvcResult async = mockMvc.perform(get(controllerUri + "/stream").param("search", "john"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result =
+                mockMvc.perform(asyncDispatch(async)).andExpect(status().isOk()).andReturn();
+        ObjectMapper mapper = new ObjectMapper();
+        List<Employee> content = mapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {});
+
+        assertEquals(List.of(employee), content);
+        verifyNoInteractions(restTemplate);
     }
 
     @Test
@@ -133,7 +264,7 @@ class EmployeeControllerTest {
     public void testGetHighestSalaryOfEmployees() throws Exception {
         List<Employee> employees = Arrays.asList(createMockEmployee(), createMockEmployee2());
 
-        doReturn(employees).when(employeeService).getAllEmployees();
+        when(snapshotCache.get(any())).thenReturn(EmployeeSnapshot.of(employees, Instant.now()));
 
         MvcResult result = mockMvc.perform(get(controllerUri + "/highestSalary"))
                 .andExpect(status().isOk())
@@ -142,14 +273,61 @@ class EmployeeControllerTest {
         Integer content = mapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {});
 
         assertEquals(56000, content);
-        verify(employeeService, times(1)).getAllEmployees();
+        verify(snapshotCache, times(1)).get(any());
+    }
+
+    @Test
+    public void testStaleSnapshotIsFlagged() throws Exception {
+        List<Employee> employees = Arrays.asList(createMockEmployee(), createMockEmployee2());
+
+        when(snapshotCache.get(any()))
+                .thenReturn(EmployeeSnapshot.of(employees, Instant.now().minusSeconds(45)));
+        when(snapshotCache.isFresh(any())).thenReturn(false);
+
+        MvcResult result = mockMvc.perform(get(controllerUri + "/highestSalary"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertTrue(Integer.parseInt(result.getResponse().getHeader(HttpHeaders.AGE)) >= 45);
+        assertEquals("true", result.getResponse().getHeader(SnapshotHeaderAdvice.CACHE_STALE));
+    }
+
+    @Test
+    public void testSnapshotEntityTag() throws Exception {
+        List<Employee> employees = Arrays.asList(createMockEmployee(), createMockEmployee2());
+
+        when(snapshotCache.get(any())).thenReturn(EmployeeSnapshot.of(employees, Instant.now()));
+        when(snapshotCache.isFresh(any())).thenReturn(true);
+
+        MvcResult result = mockMvc.perform(get(controllerUri + "/highestSalary"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotNull(etag);
+        assertNull(result.getResponse().getHeader(SnapshotHeaderAdvice.CACHE_STALE));
+
+        mockMvc.perform(get(controllerUri + "/highestSalary").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void testUpstreamUnavailable() throws Exception {
+        var ex = new UpstreamUnavailableException("Upstream circuit breaker is open.", Duration.ofSeconds(5));
+        when(snapshotCache.get(any())).thenThrow(ex);
+
+        MvcResult result = mockMvc.perform(get(controllerUri + "/highestSalary"))
+                .andExpect(status().isServiceUnavailable())
+                .andReturn();
+
+        assertEquals("5", result.getResponse().getHeader(HttpHeaders.RETRY_AFTER));
     }
 
     @Test
     public void testGetTopTenHighestEarningEmployeeNames() throws Exception {
         List<Employee> employees = Arrays.asList(createMockEmployee(), createMockEmployee2());
 
-        doReturn(employees).when(employeeService).getAllEmployees();
+        when(snapshotCache.get(any())).thenReturn(EmployeeSnapshot.of(employees, Instant.now()));
 
         MvcResult result = mockMvc.perform(get(controllerUri + "/topTenHighestEarningEmployeeNames"))
                 .andExpect(status().isOk())
@@ -162,7 +340,7 @@ class EmployeeControllerTest {
         assertTrue(content.contains("John Doe"));
         assertTrue(content.contains("Mr Smith"));
 
-        verify(employeeService, times(1)).getAllEmployees();
+        verify(snapshotCache, times(1)).get(any());
     }
 
     @Test
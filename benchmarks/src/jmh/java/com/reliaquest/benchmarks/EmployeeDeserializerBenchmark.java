@@ -0,0 +1,70 @@
+package com.reliaquest.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.reliaquest.api.mapper.EmployeeDeserializer;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.server.model.Response;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares parsing the version 1 employee list with {@link EmployeeDeserializer} against the
+ * annotation driven {@link JsonNaming @JsonNaming} mapping it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmployeeDeserializerBenchmark {
+
+    @Param({"50", "10000", "100000"})
+    private int employees;
+
+    private byte[] body;
+    private ObjectReader deserializerReader;
+    private ObjectReader namingReader;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        var mapper = new ObjectMapper();
+        body = mapper.writeValueAsBytes(Response.handledWith(Fixtures.mockEmployees(employees)));
+        deserializerReader = mapper.readerFor(new TypeReference<Response<List<Employee>>>() {});
+        namingReader = mapper.readerFor(new TypeReference<Response<List<NamingEmployee>>>() {});
+    }
+
+    @Benchmark
+    public Response<List<Employee>> employeeDeserializer() throws IOException {
+        return deserializerReader.readValue(body);
+    }
+
+    @Benchmark
+    public Response<List<NamingEmployee>> jsonNaming() throws IOException {
+        return namingReader.readValue(body);
+    }
+
+    @JsonNaming(NamingEmployee.PrefixNamingStrategy.class)
+    public record NamingEmployee(UUID id, String name, Integer salary, Integer age, String title, String email) {
+
+        static class PrefixNamingStrategy extends PropertyNamingStrategies.NamingBase {
+
+            @Override
+            public String translate(String propertyName) {
+                return "id".equals(propertyName) ? propertyName : "employee_" + propertyName;
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.reliaquest.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.cache.EmployeeLoader;
+import com.reliaquest.api.cache.EmployeeSnapshotCache;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.service.EmployeeService;
+import com.reliaquest.api.upstream.InFlightRequests;
+import com.reliaquest.api.upstream.UpstreamBudget;
+import com.reliaquest.api.upstream.UpstreamBulkhead;
+import com.reliaquest.api.upstream.UpstreamCircuitBreaker;
+import com.reliaquest.api.upstream.UpstreamGuard;
+import com.reliaquest.api.upstream.UpstreamMetrics;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Measures the read paths of {@link EmployeeService} once the snapshot is loaded, which is how
+ * almost every read is served. The snapshot never expires, so the version 1 API is never called.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmployeeServiceBenchmark {
+
+    @Param({"50", "10000", "1000000"})
+    private int employees;
+
+    @Param({"ann", "garcia 42"})
+    private String search;
+
+    private EmployeeService employeeService;
+
+    @Setup
+    public void setup() {
+        var snapshotCache = new EmployeeSnapshotCache(
+                Duration.ofDays(1), Duration.ofDays(1), Clock.systemUTC(), Executors.newSingleThreadExecutor());
+        var list = Fixtures.employees(employees);
+        snapshotCache.get(EmployeeLoader.unconditional(() -> list));
+        employeeService = new EmployeeService(
+                new RestTemplate(),
+                snapshotCache,
+                new InFlightRequests(),
+                new UpstreamGuard(
+                        new UpstreamBudget(10, Duration.ofSeconds(30), Duration.ofMinutes(2), Duration.ZERO, 0),
+                        new UpstreamCircuitBreaker(5, Duration.ofSeconds(10), Clock.systemUTC()),
+                        new UpstreamBulkhead(20, 5, Duration.ZERO),
+                        new UpstreamMetrics()),
+                new ObjectMapper());
+    }
+
+    @Benchmark
+    public List<Employee> searchByName() {
+        return employeeService.getEmployeesByNameSearch(search);
+    }
+
+    @Benchmark
+    public Integer highestSalary() {
+        return employeeService.getHighestSalary();
+    }
+
+    @Benchmark
+    public List<String> topTenHighestEarningEmployeeNames() {
+        return employeeService.getTopTenHighestEarningEmployeeNames();
+    }
+}
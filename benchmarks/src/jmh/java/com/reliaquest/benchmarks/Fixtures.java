@@ -0,0 +1,54 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generates deterministic employees for the benchmarks. Names are drawn from small pools, so
+ * searches match a realistic share of the employees at every size.
+ */
+final class Fixtures {
+
+    private static final String[] FIRST_NAMES = {
+        "Anna", "Ben", "Carla", "Dmitri", "Elena", "Farid", "Grace", "Hiro", "Ines", "Jonas", "Kemi", "Liam"
+    };
+    private static final String[] LAST_NAMES = {
+        "Anderson", "Brooks", "Castillo", "Dubois", "Eriksen", "Fischer", "Garcia", "Hansen", "Ivanova", "Jensen"
+    };
+    private static final String[] TITLES = {"Engineer", "Manager", "Analyst", "Designer", "Director"};
+
+    private Fixtures() {}
+
+    static List<MockEmployee> mockEmployees(int count) {
+        var random = new Random(count);
+        var employees = new ArrayList<MockEmployee>(count);
+        for (int i = 0; i < count; i++) {
+            var first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            var last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            employees.add(new MockEmployee(
+                    new UUID(random.nextLong(), random.nextLong()),
+                    first + " " + last + " " + i,
+                    random.nextInt(30000, 500000),
+                    random.nextInt(16, 70),
+                    TITLES[random.nextInt(TITLES.length)],
+                    (first + "." + last + i + "@company.com").toLowerCase()));
+        }
+        return employees;
+    }
+
+    static List<Employee> employees(int count) {
+        return mockEmployees(count).stream()
+                .map(mock -> new Employee(
+                        mock.getId(),
+                        mock.getName(),
+                        mock.getSalary(),
+                        mock.getAge(),
+                        mock.getTitle(),
+                        mock.getEmail()))
+                .toList();
+    }
+}
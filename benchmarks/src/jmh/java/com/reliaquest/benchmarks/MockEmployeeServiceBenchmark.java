@@ -0,0 +1,111 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.server.model.CreateMockEmployeeInput;
+import com.reliaquest.server.model.DeleteMockEmployeeInput;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.service.MockEmployeeStore;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import net.datafaker.Faker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the version 1 employee store. Deletes match by name, so {@link #delete()} creates the
+ * employee it deletes, keeping the store at its size.
+ *
+ * <p>The <em>readWrite</em> group reads by id and snapshots the list on three threads while a
+ * fourth keeps creating and deleting, to show that reads do not wait on writes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MockEmployeeServiceBenchmark {
+
+    @Param({"50", "10000", "1000000"})
+    private int employees;
+
+    private List<MockEmployee> mockEmployees;
+    private MockEmployeeService mockEmployeeService;
+    private UUID[] ids;
+    private CreateMockEmployeeInput createInput;
+    private DeleteMockEmployeeInput deleteInput;
+
+    @Setup
+    public void setup() {
+        mockEmployees = Fixtures.mockEmployees(employees);
+        ids = mockEmployees.stream().map(MockEmployee::getId).toArray(UUID[]::new);
+
+        createInput = new CreateMockEmployeeInput();
+        createInput.setName("Benchmark Employee");
+        createInput.setSalary(100000);
+        createInput.setAge(30);
+        createInput.setTitle("Engineer");
+        deleteInput = new DeleteMockEmployeeInput();
+        deleteInput.setName(createInput.getName());
+    }
+
+    /*
+     * Drops the employees created by the previous iteration of create.
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+        mockEmployeeService =
+                new MockEmployeeService(new Faker(Locale.ENGLISH), new MockEmployeeStore(mockEmployees), 1000);
+    }
+
+    @Benchmark
+    public Optional<MockEmployee> findById() {
+        return mockEmployeeService.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public int snapshot() {
+        return mockEmployeeService.getMockEmployees().size();
+    }
+
+    @Benchmark
+    public MockEmployee create() {
+        return mockEmployeeService.create(createInput);
+    }
+
+    @Benchmark
+    public boolean delete() {
+        mockEmployeeService.create(createInput);
+        return mockEmployeeService.delete(deleteInput);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public Optional<MockEmployee> readWriteFindById() {
+        return findById();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public int readWriteSnapshot() {
+        return snapshot();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    public boolean readWriteDelete() {
+        return delete();
+    }
+}
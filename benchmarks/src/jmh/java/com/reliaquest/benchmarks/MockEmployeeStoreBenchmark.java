@@ -0,0 +1,103 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.MockEmployeeStore;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link MockEmployeeStore} on its own, without the input mapping and change feed of the
+ * service. {@link #addAndRemove()} removes the employee it adds, keeping the store at its size.
+ *
+ * <p>With <em>removed</em> set, one employee is removed before every iteration, so snapshots are
+ * copies of the live entries rather than views of them. The <em>readWrite</em> group reads by id
+ * and walks snapshots on three threads while a fourth keeps adding and removing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MockEmployeeStoreBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int employees;
+
+    @Param({"false", "true"})
+    private boolean removed;
+
+    private List<MockEmployee> mockEmployees;
+    private MockEmployeeStore store;
+    private UUID[] ids;
+    private MockEmployee added;
+
+    @Setup
+    public void setup() {
+        mockEmployees = Fixtures.mockEmployees(employees);
+        ids = mockEmployees.stream().map(MockEmployee::getId).toArray(UUID[]::new);
+        added = new MockEmployee(
+                UUID.randomUUID(), "Benchmark Employee", 100000, 30, "Engineer", "benchmark@company.com");
+    }
+
+    /*
+     * Drops the entries removed by the previous iteration of addAndRemove.
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+        store = new MockEmployeeStore(mockEmployees);
+        if (removed) {
+            store.removeFirstByName(mockEmployees.get(0).getName());
+        }
+    }
+
+    @Benchmark
+    public Optional<MockEmployee> findById() {
+        return store.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public void snapshot(Blackhole blackhole) {
+        for (var employee : store.snapshot()) {
+            blackhole.consume(employee);
+        }
+    }
+
+    @Benchmark
+    public Optional<MockEmployee> addAndRemove() {
+        store.add(added);
+        return store.removeFirstByName(added.getName());
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public Optional<MockEmployee> readWriteFindById() {
+        return findById();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public void readWriteSnapshot(Blackhole blackhole) {
+        snapshot(blackhole);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    public Optional<MockEmployee> readWriteAddAndRemove() {
+        return addAndRemove();
+    }
+}
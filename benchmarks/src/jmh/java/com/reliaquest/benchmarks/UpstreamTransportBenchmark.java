@@ -0,0 +1,94 @@
+package com.reliaquest.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.config.UpstreamTransportConfig;
+import com.reliaquest.api.config.UpstreamTransportConfig.HttpClientType;
+import com.reliaquest.server.model.Response;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Compares the upstream transports of {@link UpstreamTransportConfig}, selected as
+ * <em>api.http.client</em> is, under concurrent load. Each call fetches a version 1 employee list
+ * from a local server that answers after <b>latency</b> milliseconds, as the version 1 API would.
+ *
+ * <p>Sampled, so the report lists the latency percentiles of every transport, p99 included.
+ * The pool limits are those of the default configuration, and the threads outnumber the
+ * connections per route, so connection reuse and waiting for a connection are both measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(32)
+public class UpstreamTransportBenchmark {
+
+    @Param({"SIMPLE", "POOLED", "JDK"})
+    private HttpClientType client;
+
+    @Param({"0", "5"})
+    private int latency;
+
+    private ExecutorService serverExecutor;
+    private HttpServer server;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private RestTemplate restTemplate;
+    private URI uri;
+
+    @Setup
+    public void setup() throws IOException {
+        var body = new ObjectMapper().writeValueAsBytes(Response.handledWith(Fixtures.mockEmployees(50)));
+        serverExecutor = Executors.newFixedThreadPool(64);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 512);
+        server.setExecutor(serverExecutor);
+        server.createContext("/api/v1/employee", exchange -> {
+            try {
+                if (latency > 0) {
+                    Thread.sleep(latency);
+                }
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/api/v1/employee");
+
+        var config = new UpstreamTransportConfig(3000, 3000, client, 50, 20, 60000, 30000, false);
+        connectionManager = config.upstreamConnectionManager();
+        restTemplate = new RestTemplate(config.upstreamRequestFactory(connectionManager));
+    }
+
+    @TearDown
+    public void tearDown() {
+        connectionManager.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public byte[] getEmployees() {
+        return restTemplate.getForObject(uri, byte[].class);
+    }
+}
@@ -0,0 +1,96 @@
+package com.reliaquest.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.server.model.Response;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the formats the version 1 employee list can be sent in: JSON, gzip compressed JSON as
+ * sent by default, and Smile with and without gzip. Each benchmark decodes the body the api would
+ * receive into employees. The size of every body is printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WireFormatBenchmark {
+
+    @Param({"10000", "100000"})
+    private int employees;
+
+    private byte[] json;
+    private byte[] gzipJson;
+    private byte[] smile;
+    private byte[] gzipSmile;
+    private ObjectReader jsonReader;
+    private ObjectReader smileReader;
+
+    @Setup
+    public void setup() throws IOException {
+        var jsonMapper = new ObjectMapper();
+        var smileMapper = new ObjectMapper(new SmileFactory());
+        var response = Response.handledWith(Fixtures.mockEmployees(employees));
+        json = jsonMapper.writeValueAsBytes(response);
+        smile = smileMapper.writeValueAsBytes(response);
+        gzipJson = gzip(json);
+        gzipSmile = gzip(smile);
+
+        var type = new TypeReference<Response<List<Employee>>>() {};
+        jsonReader = jsonMapper.readerFor(type);
+        smileReader = smileMapper.readerFor(type);
+
+        System.out.printf(
+                "%n%d employees: json %d B, gzip json %d B, smile %d B, gzip smile %d B%n",
+                employees, json.length, gzipJson.length, smile.length, gzipSmile.length);
+    }
+
+    @Benchmark
+    public Response<List<Employee>> json() throws IOException {
+        return jsonReader.readValue(json);
+    }
+
+    @Benchmark
+    public Response<List<Employee>> gzipJson() throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipJson))) {
+            return jsonReader.readValue(in);
+        }
+    }
+
+    @Benchmark
+    public Response<List<Employee>> smile() throws IOException {
+        return smileReader.readValue(smile);
+    }
+
+    @Benchmark
+    public Response<List<Employee>> gzipSmile() throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipSmile))) {
+            return smileReader.readValue(in);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,92 @@
+package com.reliaquest.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the mock server and the api from their boot jars on localhost, and stops them when closed.
+ * The output of each application is written to a log file next to the report. The api is run with
+ * the <em>loadtest.api.properties</em>, as command line arguments.
+ */
+final class Applications implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final URI SERVER_HEALTH = URI.create("http://localhost:8112/actuator/health");
+    private static final URI API_HEALTH = URI.create("http://localhost:8111/actuator/health");
+
+    private final List<Process> processes = new ArrayList<>();
+
+    static Applications start(LoadTestConfig config, HttpClient client, Path logs)
+            throws IOException, InterruptedException {
+        if (config.serverJar() == null || config.apiJar() == null) {
+            throw new IllegalArgumentException(
+                    "loadtest.server.jar and loadtest.api.jar are required unless loadtest.api.uri is set.");
+        }
+        Files.createDirectories(logs);
+        var applications = new Applications();
+        try {
+            applications.launch(config.serverJar(), List.of(), logs.resolve("server.log"));
+            awaitHealthy(client, SERVER_HEALTH);
+            applications.launch(config.apiJar(), config.apiProperties(), logs.resolve("api.log"));
+            awaitHealthy(client, API_HEALTH);
+            return applications;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            applications.close();
+            throw e;
+        }
+    }
+
+    private void launch(Path jar, List<String> properties, Path log) throws IOException {
+        var command = new ArrayList<String>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("-jar");
+        command.add(jar.toString());
+        properties.forEach(property -> command.add("--" + property));
+        processes.add(new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start());
+    }
+
+    private static void awaitHealthy(HttpClient client, URI health) throws InterruptedException {
+        var deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                var response =
+                        client.send(HttpRequest.newBuilder(health).build(), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException ignored) {
+                // Not listening yet.
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(health + " did not report healthy within " + STARTUP_TIMEOUT);
+    }
+
+    @Override
+    public void close() {
+        for (int i = processes.size() - 1; i >= 0; i--) {
+            var process = processes.get(i);
+            process.destroy();
+            try {
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.reliaquest.loadtest;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Drives the version 2 employee API with an open workload and reports the latency percentiles,
+ * throughput and errors of every operation, see {@link LoadTestConfig} for the settings.
+ *
+ * <p>Unless an already running api is targeted, the mock server and the api are started first
+ * and stopped once the run is over. Run with <em>./gradlew :loadtest:run</em>.
+ */
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        var config = LoadTestConfig.fromSystemProperties();
+        var timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        var directory = config.output().resolve(config.label() + "-" + timestamp);
+        var client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+        Applications applications = null;
+        try {
+            if (config.startApplications()) {
+                System.out.println("Starting the mock server and the api.");
+                applications = Applications.start(config, client, directory);
+            }
+
+            var workload = new Workload(config.apiUri());
+            workload.prime(client);
+            System.out.printf(
+                    "Driving %s at %.1f req/s for %s after a %s warmup, mix %s%n",
+                    config.apiUri(), config.rate(), config.duration(), config.warmup(), config.mix());
+
+            var results = new OpenModelDriver(config, client, workload).run();
+            Report.write(config, results, directory, System.out);
+        } finally {
+            if (applications != null) {
+                applications.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.reliaquest.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, read from <em>loadtest.</em> system properties:
+ * <ul>
+ *     <li><b>rate</b> - requests started per second, regardless of how fast earlier ones complete</li>
+ *     <li><b>duration</b> and <b>warmup</b> - in seconds, requests started during the warmup are
+ *     not reported</li>
+ *     <li><b>mix</b> - relative weights of the {@link Operation operations}, e.g.
+ *     <em>get-all=30,search=20,create=5</em></li>
+ *     <li><b>api.uri</b> - the employee endpoint of a running api. When set, the applications are
+ *     not started from <b>server.jar</b> and <b>api.jar</b></li>
+ *     <li><b>api.properties</b> - properties the started api is run with, e.g.
+ *     <em>api.execution.mode=async,server.tomcat.threads.max=50</em></li>
+ *     <li><b>label</b> - names the report, e.g. after the commit under test</li>
+ *     <li><b>output</b> - the directory reports are written to</li>
+ * </ul>
+ */
+record LoadTestConfig(
+        double rate,
+        Duration duration,
+        Duration warmup,
+        Map<Operation, Integer> mix,
+        URI apiUri,
+        boolean startApplications,
+        Path serverJar,
+        Path apiJar,
+        List<String> apiProperties,
+        String label,
+        Path output) {
+
+    private static final String DEFAULT_MIX =
+            "get-all=30,search=20,get-by-id=20,highest-salary=10,top-ten=10,create=5,delete=5";
+    private static final String DEFAULT_API_URI = "http://localhost:8111/api/v2/employee";
+
+    static LoadTestConfig fromSystemProperties() {
+        var apiUri = System.getProperty("loadtest.api.uri");
+        var rate = Double.parseDouble(System.getProperty("loadtest.rate", "50"));
+        if (rate <= 0) {
+            throw new IllegalArgumentException("loadtest.rate must be positive.");
+        }
+        return new LoadTestConfig(
+                rate,
+                Duration.ofSeconds(Long.parseLong(System.getProperty("loadtest.duration", "60"))),
+                Duration.ofSeconds(Long.parseLong(System.getProperty("loadtest.warmup", "10"))),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                URI.create(apiUri == null ? DEFAULT_API_URI : apiUri),
+                apiUri == null,
+                path("loadtest.server.jar"),
+                path("loadtest.api.jar"),
+                parseProperties(System.getProperty("loadtest.api.properties", "")),
+                System.getProperty("loadtest.label", "run"),
+                Path.of(System.getProperty("loadtest.output", "build/reports/loadtest")));
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        var weights = new EnumMap<Operation, Integer>(Operation.class);
+        for (var entry : mix.split(",")) {
+            var parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            var weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in mix entry: " + entry);
+            }
+            weights.put(Operation.fromLabel(parts[0]), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("The mix must have a positive weight.");
+        }
+        return weights;
+    }
+
+    static List<String> parseProperties(String properties) {
+        var parsed = new ArrayList<String>();
+        for (var property : properties.split(",")) {
+            if (property.isBlank()) {
+                continue;
+            }
+            if (property.indexOf('=') < 1) {
+                throw new IllegalArgumentException("Invalid api property: " + property);
+            }
+            parsed.add(property.trim());
+        }
+        return parsed;
+    }
+
+    private static Path path(String property) {
+        var value = System.getProperty(property);
+        return value == null ? null : Path.of(value);
+    }
+}
@@ -0,0 +1,106 @@
+package com.reliaquest.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts requests at a fixed rate, whether or not earlier requests have completed (an open
+ * workload model). Each request picks its {@link Operation} at random, weighted by the mix.
+ */
+final class OpenModelDriver {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+    private final LoadTestConfig config;
+    private final HttpClient client;
+    private final Workload workload;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    OpenModelDriver(LoadTestConfig config, HttpClient client, Workload workload) {
+        this.config = config;
+        this.client = client;
+        this.workload = workload;
+
+        var mix = config.mix().entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .toList();
+        this.operations = mix.stream().map(Map.Entry::getKey).toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        var sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += mix.get(i).getValue();
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    /**
+     * Runs the warmup and then the measured duration.
+     *
+     * @return    Returns the {@link Results} of the requests started after the warmup
+     */
+    Results run() throws InterruptedException {
+        var random = new SplittableRandom(42);
+        var intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.rate());
+        var start = System.nanoTime();
+        var measuredFrom = start + config.warmup().toNanos();
+        var end = measuredFrom + config.duration().toNanos();
+        var results = new Results();
+        var warmup = new Results();
+        var inFlight = new AtomicInteger();
+
+        for (long i = 0; ; i++) {
+            var intendedStart = start + i * intervalNanos;
+            if (intendedStart >= end) {
+                break;
+            }
+            parkUntil(intendedStart);
+
+            var operation = pick(random);
+            var target = intendedStart >= measuredFrom ? results : warmup;
+            inFlight.incrementAndGet();
+            client.sendAsync(workload.request(operation), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        target.record(operation, intendedStart, response, error);
+                        if (response != null) {
+                            workload.onResponse(operation, response);
+                        }
+                        inFlight.decrementAndGet();
+                    });
+        }
+
+        var deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        if (inFlight.get() > 0) {
+            System.err.printf("%d requests were still in flight after %s.%n", inFlight.get(), DRAIN_TIMEOUT);
+        }
+        return results;
+    }
+
+    private Operation pick(SplittableRandom random) {
+        var value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private static void parkUntil(long nanoTime) throws InterruptedException {
+        for (var remaining = nanoTime - System.nanoTime(); remaining > 0; remaining = nanoTime - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.reliaquest.loadtest;
+
+import java.util.Locale;
+
+/**
+ * The operations of the version 2 employee API, one per endpoint of its controller.
+ */
+enum Operation {
+    GET_ALL,
+    SEARCH,
+    GET_BY_ID,
+    HIGHEST_SALARY,
+    TOP_TEN,
+    CREATE,
+    DELETE;
+
+    /**
+     * @return    Returns the name used for the operation in mixes and reports, e.g. <em>get-by-id</em>
+     */
+    String label() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    static Operation fromLabel(String label) {
+        return valueOf(label.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
@@ -0,0 +1,106 @@
+package com.reliaquest.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Writes the {@link Results} of a run:
+ * <ul>
+ *     <li><b>summary.json</b> - throughput, p50/p95/p99/p99.9 latency in milliseconds and errors per
+ *     operation and in total, to compare runs across commits</li>
+ *     <li><b>&lt;operation&gt;.hgrm</b> - the full HDR percentile distribution of each operation,
+ *     which can be plotted with the HdrHistogram plotter</li>
+ * </ul>
+ * The summary is also printed as a table.
+ */
+final class Report {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private Report() {}
+
+    static void write(LoadTestConfig config, Results results, Path directory, PrintStream out) throws IOException {
+        Files.createDirectories(directory);
+        var seconds = config.duration().toMillis() / 1000.0;
+
+        var operations = new LinkedHashMap<String, Object>();
+        out.printf(
+                "%n%-16s %8s %9s %9s %9s %9s %9s %9s  %s%n",
+                "operation", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        for (var operation : Operation.values()) {
+            var histogram = results.latencies(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            var errors = results.errors(operation);
+            operations.put(operation.label(), summary(histogram, seconds, errors));
+            print(out, operation.label(), histogram, seconds, errors);
+            try (var hgrm = new PrintStream(Files.newOutputStream(directory.resolve(operation.label() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(hgrm, MICROS_PER_MILLI);
+            }
+        }
+
+        var total = results.totalLatencies();
+        var totalErrors = new LinkedHashMap<String, Long>();
+        for (var operation : Operation.values()) {
+            results.errors(operation).forEach((error, count) -> totalErrors.merge(error, count, Long::sum));
+        }
+        print(out, "total", total, seconds, totalErrors);
+        try (var hgrm = new PrintStream(Files.newOutputStream(directory.resolve("total.hgrm")))) {
+            total.outputPercentileDistribution(hgrm, MICROS_PER_MILLI);
+        }
+
+        var summary = new LinkedHashMap<String, Object>();
+        summary.put("label", config.label());
+        summary.put("rate", config.rate());
+        summary.put("durationSeconds", config.duration().toSeconds());
+        summary.put("warmupSeconds", config.warmup().toSeconds());
+        summary.put("mix", config.mix());
+        summary.put("apiProperties", config.apiProperties());
+        summary.put("operations", operations);
+        summary.put("total", summary(total, seconds, totalErrors));
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directory.resolve("summary.json").toFile(), summary);
+        out.printf("%nReport written to %s%n", directory.toAbsolutePath());
+    }
+
+    private static Map<String, Object> summary(Histogram histogram, double seconds, Map<String, Long> errors) {
+        var summary = new LinkedHashMap<String, Object>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("throughput", histogram.getTotalCount() / seconds);
+        summary.put("p50", millis(histogram, 50));
+        summary.put("p95", millis(histogram, 95));
+        summary.put("p99", millis(histogram, 99));
+        summary.put("p999", millis(histogram, 99.9));
+        summary.put("max", histogram.getMaxValue() / MICROS_PER_MILLI);
+        summary.put("errors", errors);
+        return summary;
+    }
+
+    private static void print(
+            PrintStream out, String label, Histogram histogram, double seconds, Map<String, Long> errors) {
+        out.printf(
+                "%-16s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                label,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds,
+                millis(histogram, 50),
+                millis(histogram, 95),
+                millis(histogram, 99),
+                millis(histogram, 99.9),
+                histogram.getMaxValue() / MICROS_PER_MILLI,
+                errors.isEmpty() ? "-" : errors);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
@@ -0,0 +1,72 @@
+package com.reliaquest.loadtest;
+
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies and errors per {@link Operation}. Latencies are measured from the instant a request
+ * was scheduled to start, not from when it was sent, so a stalled api is charged for the queue it
+ * builds up instead of hiding it (coordinated omission).
+ */
+final class Results {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<String, LongAdder>> errors = new EnumMap<>(Operation.class);
+
+    Results() {
+        for (var operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    void record(Operation operation, long intendedStartNanos, HttpResponse<?> response, Throwable error) {
+        var micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStartNanos);
+        latencies.get(operation).recordValue(Math.min(Math.max(micros, 1), HIGHEST_TRACKABLE_MICROS));
+        if (error != null) {
+            count(operation, rootCause(error).getClass().getSimpleName());
+        } else if (response.statusCode() / 100 != 2) {
+            count(operation, String.valueOf(response.statusCode()));
+        }
+    }
+
+    Histogram latencies(Operation operation) {
+        return latencies.get(operation);
+    }
+
+    Histogram totalLatencies() {
+        var total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        latencies.values().forEach(total::add);
+        return total;
+    }
+
+    /**
+     * @return    Returns the number of failed requests per HTTP status or exception
+     */
+    Map<String, Long> errors(Operation operation) {
+        var counts = new TreeMap<String, Long>();
+        errors.get(operation).forEach((error, count) -> counts.put(error, count.sum()));
+        return counts;
+    }
+
+    private void count(Operation operation, String error) {
+        errors.get(operation).computeIfAbsent(error, ignored -> new LongAdder()).increment();
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        var cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,119 @@
+package com.reliaquest.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Builds the request for each {@link Operation}. Reads target the employees listed when the run
+ * starts, and deletes target the employees created during the run, so the store keeps its size.
+ */
+final class Workload {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final URI apiUri;
+    private final List<String> ids = new ArrayList<>();
+    private final List<String> searches = new ArrayList<>();
+    private final Queue<String> created = new ConcurrentLinkedQueue<>();
+
+    Workload(URI apiUri) {
+        this.apiUri = apiUri;
+    }
+
+    /**
+     * Lists the employees the reads will target.
+     */
+    void prime(HttpClient client) throws IOException, InterruptedException {
+        var response = client.send(get(""), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(
+                    "Unable to list employees, the api responded with " + response.statusCode());
+        }
+        for (var employee : objectMapper.readTree(response.body())) {
+            ids.add(employee.path("id").asText());
+            var name = employee.path("name").asText();
+            if (name.length() >= 3) {
+                searches.add(name.substring(0, 3));
+            }
+        }
+        if (ids.isEmpty() || searches.isEmpty()) {
+            throw new IllegalStateException("The api has no employees to read.");
+        }
+    }
+
+    HttpRequest request(Operation operation) {
+        var random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case GET_ALL -> get("");
+            case SEARCH -> get("/search/" + encode(searches.get(random.nextInt(searches.size()))));
+            case GET_BY_ID -> get("/" + ids.get(random.nextInt(ids.size())));
+            case HIGHEST_SALARY -> get("/highestSalary");
+            case TOP_TEN -> get("/topTenHighestEarningEmployeeNames");
+            case CREATE -> HttpRequest.newBuilder(apiUri)
+                    .timeout(TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(createBody(random.nextInt(1_000_000))))
+                    .build();
+            case DELETE -> {
+                var id = created.poll();
+                yield HttpRequest.newBuilder(resolve("/" + (id == null ? UUID.randomUUID() : id)))
+                        .timeout(TIMEOUT)
+                        .DELETE()
+                        .build();
+            }
+        };
+    }
+
+    /**
+     * Remembers the employees created, so later deletes can remove them.
+     */
+    void onResponse(Operation operation, HttpResponse<String> response) {
+        if (operation != Operation.CREATE || response.statusCode() / 100 != 2) {
+            return;
+        }
+        try {
+            var id = objectMapper.readTree(response.body()).path("id").asText(null);
+            if (id != null) {
+                created.add(id);
+            }
+        } catch (IOException ignored) {
+            // Counted as a success, the employee is just not deleted later on.
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(resolve(path)).timeout(TIMEOUT).GET().build();
+    }
+
+    private URI resolve(String path) {
+        return URI.create(apiUri + path);
+    }
+
+    private String createBody(int n) {
+        try {
+            return objectMapper.writeValueAsString(Map.of(
+                    "name", "Load Test " + n, "salary", 50000 + n % 100000, "age", 18 + n % 50, "title", "Tester"));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
@@ -3,21 +3,33 @@ package com.reliaquest.server.controller;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChanges;
 import com.reliaquest.server.model.Response;
+import com.reliaquest.server.service.MockEmployeeChangeFeed;
 import com.reliaquest.server.service.MockEmployeeService;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v1/employee")
@@ -25,10 +37,33 @@ import org.springframework.web.bind.annotation.RestController;
 public class MockEmployeeController {
 
     private final MockEmployeeService mockEmployeeService;
+    private final MockEmployeeChangeFeed mockEmployeeChangeFeed;
+    private final Validator validator;
 
+    @Value("${mock.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    /*
+     * The entity tag is read before the employees, so a change racing the read can only make
+     * the tag older than the body, which costs the client a refetch but never a stale 304.
+     */
     @GetMapping()
-    public Response<List<MockEmployee>> getEmployees() {
-        return Response.handledWith(mockEmployeeService.getMockEmployees());
+    public ResponseEntity<Response<List<MockEmployee>>> getEmployees(WebRequest request) {
+        var etag = mockEmployeeService.getEntityTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(Response.handledWith(mockEmployeeService.getMockEmployees()));
+    }
+
+    @GetMapping("/changes")
+    public Response<MockEmployeeChanges> getChanges(@RequestParam("since") long since) {
+        return Response.handledWith(mockEmployeeService.changesSince(since));
+    }
+
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return mockEmployeeChangeFeed.subscribe(lastEventId);
     }
 
     @GetMapping("/{id}")
@@ -48,4 +83,72 @@ public class MockEmployeeController {
     public Response<Boolean> deleteEmployee(@Valid @RequestBody DeleteMockEmployeeInput input) {
         return Response.handledWith(mockEmployeeService.delete(input));
     }
+
+    /*
+     * Batches are validated item by item. Invalid items are reported in place, and the valid
+     * ones are applied together, so one request creates or deletes up to mock.batch.max-size
+     * employees.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Response<List<Response<MockEmployee>>>> createEmployees(
+            @RequestBody List<CreateMockEmployeeInput> inputs) {
+        if (inputs.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body(Response.error(batchTooLarge(inputs.size())));
+        }
+        var errors = validate(inputs);
+        var created = mockEmployeeService
+                .createAll(IntStream.range(0, inputs.size())
+                        .filter(i -> errors.get(i) == null)
+                        .mapToObj(inputs::get)
+                        .toList())
+                .iterator();
+        return ResponseEntity.ok(Response.handledWith(errors.stream()
+                .map(error -> error == null
+                        ? Response.handledWith(created.next())
+                        : Response.<MockEmployee>error(error))
+                .toList()));
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<Response<List<Response<Boolean>>>> deleteEmployees(
+            @RequestBody List<DeleteMockEmployeeInput> inputs) {
+        if (inputs.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body(Response.error(batchTooLarge(inputs.size())));
+        }
+        var errors = validate(inputs);
+        var deleted = mockEmployeeService
+                .deleteAll(IntStream.range(0, inputs.size())
+                        .filter(i -> errors.get(i) == null)
+                        .mapToObj(inputs::get)
+                        .toList())
+                .iterator();
+        return ResponseEntity.ok(Response.handledWith(errors.stream()
+                .map(error -> error == null ? Response.handledWith(deleted.next()) : Response.<Boolean>error(error))
+                .toList()));
+    }
+
+    private String batchTooLarge(int size) {
+        return "Batch of %d exceeds the maximum of %d.".formatted(size, maxBatchSize);
+    }
+
+    /*
+     * Returns the validation error of every input, or null where the input is valid.
+     */
+    private List<String> validate(List<?> inputs) {
+        var errors = new ArrayList<String>(inputs.size());
+        for (var input : inputs) {
+            if (input == null) {
+                errors.add("must not be null");
+                continue;
+            }
+            var violations = validator.validate(input);
+            errors.add(violations.isEmpty()
+                    ? null
+                    : violations.stream()
+                            .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining("; ")));
+        }
+        return errors;
+    }
 }
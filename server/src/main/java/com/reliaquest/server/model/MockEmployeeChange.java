@@ -0,0 +1,18 @@
+package com.reliaquest.server.model;
+
+import lombok.NonNull;
+
+/**
+ * A single entry of the {@link MockEmployee} change log.
+ *
+ * @param sequence    The position of the change in the log, starting at <em>1</em>
+ * @param type        Whether the employee was created or deleted
+ * @param employee    The employee as created, or as it was when deleted
+ */
+public record MockEmployeeChange(long sequence, @NonNull Type type, @NonNull MockEmployee employee) {
+
+    public enum Type {
+        CREATED,
+        DELETED
+    }
+}
@@ -0,0 +1,16 @@
+package com.reliaquest.server.model;
+
+import java.util.List;
+import lombok.NonNull;
+
+/**
+ * The changes made to the employees after a given sequence number.
+ *
+ * @param epoch       Identifies this server instance; sequence numbers of another epoch are meaningless
+ * @param sequence    The sequence number of the latest change, to ask for the next changes with
+ * @param resync      Whether the requested changes are no longer retained, in which case <b>changes</b>
+ *                    is empty and the full employee list must be fetched again
+ * @param changes     The retained changes in sequence order
+ */
+public record MockEmployeeChanges(
+        @NonNull String epoch, long sequence, boolean resync, @NonNull List<MockEmployeeChange> changes) {}
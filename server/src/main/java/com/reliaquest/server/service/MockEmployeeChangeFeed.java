@@ -0,0 +1,151 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployeeChange;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes the changes made to the employees to subscribers as server-sent events.
+ *
+ * <p>Every subscription starts with a <em>position</em> event carrying {@link MockEmployeeChanges}
+ * without changes, whose <em>resync</em> flag tells the subscriber whether it has to fetch the
+ * full list again. It is followed by a <em>change</em> event per {@link MockEmployeeChange}. Event
+ * IDs have the same <em>&lt;epoch&gt;-&lt;sequence&gt;</em> form as the list entity tag, so a
+ * subscriber reconnecting with <em>Last-Event-ID</em> resumes right after the last event it saw.
+ * Idle subscriptions receive a comment every <em>heartbeat</em>.
+ *
+ * <p>Events are sent from a single thread, which keeps them in sequence order and keeps slow
+ * subscribers from blocking writes to the employees.
+ */
+@Slf4j
+@Component
+public class MockEmployeeChangeFeed {
+
+    private final MockEmployeeService mockEmployeeService;
+    private final long streamTimeout;
+    private final ScheduledExecutorService sender;
+    private final Map<SseEmitter, MockEmployeeService.ChangeListener> subscriptions = new ConcurrentHashMap<>();
+
+    public MockEmployeeChangeFeed(
+            MockEmployeeService mockEmployeeService,
+            @Value("${mock.changes.stream-timeout:600000}") long streamTimeout,
+            @Value("${mock.changes.heartbeat:15000}") long heartbeat) {
+        this.mockEmployeeService = mockEmployeeService;
+        this.streamTimeout = streamTimeout;
+        this.sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "employee-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sender.scheduleAtFixedRate(this::heartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param lastEventId    The ID of the last event the subscriber saw, <em>null</em> if none
+     * @return               Returns the {@link SseEmitter} streaming the changes
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        var emitter = new SseEmitter(streamTimeout);
+        var since = sinceOf(lastEventId);
+        var foreign = lastEventId != null && since == null;
+
+        var listener = new MockEmployeeService.ChangeListener() {
+            @Override
+            public void onSubscribed(MockEmployeeChanges backlog) {
+                sender.execute(() -> sendBacklog(emitter, since, foreign, backlog));
+            }
+
+            @Override
+            public void onChange(MockEmployeeChange change) {
+                sender.execute(() -> sendChange(emitter, change));
+            }
+        };
+        subscriptions.put(emitter, listener);
+        emitter.onCompletion(() -> unsubscribe(emitter));
+        emitter.onTimeout(() -> unsubscribe(emitter));
+        emitter.onError(ex -> unsubscribe(emitter));
+        mockEmployeeService.subscribe(since, listener);
+        log.debug("Change feed subscribed from {}, {} subscribers.", lastEventId, subscriptions.size());
+        return emitter;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+        subscriptions.keySet().forEach(SseEmitter::complete);
+    }
+
+    private void sendBacklog(SseEmitter emitter, Long since, boolean foreign, MockEmployeeChanges backlog) {
+        var resync = foreign || backlog.resync();
+        var position = resync || since == null ? backlog.sequence() : since;
+        var event = new MockEmployeeChanges(backlog.epoch(), backlog.sequence(), resync, List.of());
+        send(emitter, SseEmitter.event()
+                .id(eventId(position))
+                .name("position")
+                .data(event, MediaType.APPLICATION_JSON));
+        backlog.changes().forEach(change -> sendChange(emitter, change));
+    }
+
+    private void sendChange(SseEmitter emitter, MockEmployeeChange change) {
+        send(emitter, SseEmitter.event()
+                .id(eventId(change.sequence()))
+                .name("change")
+                .data(change, MediaType.APPLICATION_JSON));
+    }
+
+    private void heartbeat() {
+        subscriptions.keySet().forEach(emitter -> send(emitter, SseEmitter.event().comment("heartbeat")));
+    }
+
+    private void send(SseEmitter emitter, @NonNull SseEmitter.SseEventBuilder event) {
+        if (!subscriptions.containsKey(emitter)) {
+            return;
+        }
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Change feed subscriber went away.", ex);
+            unsubscribe(emitter);
+            emitter.completeWithError(ex);
+        }
+    }
+
+    private void unsubscribe(SseEmitter emitter) {
+        var listener = subscriptions.remove(emitter);
+        if (listener != null) {
+            mockEmployeeService.unsubscribe(listener);
+        }
+    }
+
+    private String eventId(long sequence) {
+        return mockEmployeeService.getEpoch() + "-" + sequence;
+    }
+
+    private Long sinceOf(String lastEventId) {
+        if (lastEventId == null) {
+            return null;
+        }
+        var dash = lastEventId.lastIndexOf('-');
+        if (dash <= 0 || !lastEventId.substring(0, dash).equals(mockEmployeeService.getEpoch())) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException ignored) {
+            return null;
+        }
+    }
+}
@@ -4,55 +4,210 @@ import com.reliaquest.server.config.ServerConfiguration;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import lombok.Getter;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
-public class MockEmployeeService {
+public class MockEmployeeService implements MeterBinder {
 
     private final Faker faker;
+    private final MockEmployeeStore mockEmployeeStore;
 
-    @Getter
-    private final List<MockEmployee> mockEmployees;
+    /*
+     * Sequence number of the latest change to the employees, prefixed with an epoch unique to
+     * this instance since the employees are regenerated on every start.
+     */
+    private final AtomicLong version = new AtomicLong();
+    private final String epoch = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+
+    /*
+     * Guarded by the service's lock. Its size is mirrored in retainedCount for the gauge, which
+     * must not read the deque without the lock.
+     */
+    private final Deque<MockEmployeeChange> changes = new ArrayDeque<>();
+    private final AtomicInteger retainedCount = new AtomicInteger();
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final int retainedChanges;
+
+    public MockEmployeeService(
+            Faker faker,
+            MockEmployeeStore mockEmployeeStore,
+            @Value("${mock.changes.retained:1000}") int retainedChanges) {
+        this.faker = faker;
+        this.mockEmployeeStore = mockEmployeeStore;
+        this.retainedChanges = retainedChanges;
+    }
+
+    /**
+     * The entity tag has the form <em>"&lt;epoch&gt;-&lt;sequence&gt;"</em>, where <em>sequence</em>
+     * can be passed to {@link #changesSince(long)} to catch up from the tagged state.
+     *
+     * @return    Returns a strong entity tag identifying the current state of the employees
+     */
+    public String getEntityTag() {
+        return "\"%s-%d\"".formatted(epoch, version.get());
+    }
+
+    /**
+     * Returns the changes made after the specified <b>since</b> sequence number. When those are no
+     * longer retained, or <b>since</b> is ahead of this instance, a resync is requested instead.
+     *
+     * @param since    The sequence number of the last change the caller has seen
+     * @return         Returns the {@link MockEmployeeChanges} after <b>since</b>
+     */
+    public synchronized MockEmployeeChanges changesSince(long since) {
+        var sequence = version.get();
+        var oldest = changes.isEmpty() ? sequence : changes.peekFirst().sequence() - 1;
+        if (since > sequence || since < oldest) {
+            return new MockEmployeeChanges(epoch, sequence, true, List.of());
+        }
+        var after = changes.stream().filter(change -> change.sequence() > since).toList();
+        return new MockEmployeeChanges(epoch, sequence, false, after);
+    }
+
+    /**
+     * Registers the <b>listener</b> for every change made from now on. Its
+     * {@link ChangeListener#onSubscribed(MockEmployeeChanges) onSubscribed} is called first with
+     * the changes after <b>since</b>, so no change is missed or seen twice in between.
+     *
+     * @param since       The sequence number of the last change the listener has seen, or
+     *                    <em>null</em> to only listen for new changes
+     * @param listener    The listener to register
+     */
+    public synchronized void subscribe(Long since, @NonNull ChangeListener listener) {
+        var backlog = since == null
+                ? new MockEmployeeChanges(epoch, version.get(), false, List.of())
+                : changesSince(since);
+        listener.onSubscribed(backlog);
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(@NonNull ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * @return    Returns the employees as of the latest change, in creation order, see
+     *            {@link MockEmployeeStore#snapshot()}
+     */
+    public List<MockEmployee> getMockEmployees() {
+        return mockEmployeeStore.snapshot();
+    }
 
     public Optional<MockEmployee> findById(@NonNull UUID uuid) {
-        return mockEmployees.stream()
-                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getId())
-                        && mockEmployee.getId().equals(uuid))
-                .findFirst();
+        return mockEmployeeStore.findById(uuid);
     }
 
-    public MockEmployee create(@NonNull CreateMockEmployeeInput input) {
+    public synchronized MockEmployee create(@NonNull CreateMockEmployeeInput input) {
         final var mockEmployee = MockEmployee.from(
                 ServerConfiguration.EMAIL_TEMPLATE.formatted(
                         faker.twitter().userName().toLowerCase()),
                 input);
-        mockEmployees.add(mockEmployee);
+        mockEmployeeStore.add(mockEmployee);
+        record(MockEmployeeChange.Type.CREATED, mockEmployee);
         log.debug("Added employee: {}", mockEmployee);
         return mockEmployee;
     }
 
-    public boolean delete(@NonNull DeleteMockEmployeeInput input) {
-        final var mockEmployee = mockEmployees.stream()
-                .filter(employee -> Objects.nonNull(employee.getName())
-                        && employee.getName().equalsIgnoreCase(input.getName()))
-                .findFirst();
+    public synchronized boolean delete(@NonNull DeleteMockEmployeeInput input) {
+        final var mockEmployee = mockEmployeeStore.removeFirstByName(input.getName());
         if (mockEmployee.isPresent()) {
-            mockEmployees.remove(mockEmployee.get());
+            record(MockEmployeeChange.Type.DELETED, mockEmployee.get());
             log.debug("Removed employee: {}", mockEmployee.get());
             return true;
         }
 
         return false;
     }
+
+    /**
+     * Creates an employee for every input under a single lock, so the batch is recorded as one
+     * uninterrupted run of changes.
+     *
+     * @param inputs    The validated inputs, in order
+     * @return          Returns the created {@link MockEmployee employees} in input order
+     */
+    public synchronized List<MockEmployee> createAll(@NonNull List<CreateMockEmployeeInput> inputs) {
+        var created = new ArrayList<MockEmployee>(inputs.size());
+        for (var input : inputs) {
+            created.add(create(input));
+        }
+        return created;
+    }
+
+    /**
+     * Deletes an employee for every input under a single lock, so the batch is recorded as one
+     * uninterrupted run of changes. Like repeated calls to {@link #delete(DeleteMockEmployeeInput)},
+     * each input deletes the first remaining employee with its name, so a name given twice deletes
+     * two such employees.
+     *
+     * @param inputs    The validated inputs, in order
+     * @return          Returns whether each input deleted an employee, in input order
+     */
+    public synchronized List<Boolean> deleteAll(@NonNull List<DeleteMockEmployeeInput> inputs) {
+        var results = new ArrayList<Boolean>(inputs.size());
+        for (var input : inputs) {
+            results.add(delete(input));
+        }
+        return results;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("mock.employees", mockEmployeeStore, MockEmployeeStore::size)
+                .description("Employees in the store")
+                .register(registry);
+        Gauge.builder("mock.changes.retained", retainedCount, AtomicInteger::get)
+                .description("Changes retained for catching up")
+                .register(registry);
+        Gauge.builder("mock.changes.sequence", version, AtomicLong::get)
+                .description("Sequence number of the latest change")
+                .register(registry);
+        Gauge.builder("mock.changes.listeners", listeners, List::size)
+                .description("Listeners subscribed to the changes")
+                .register(registry);
+    }
+
+    private void record(MockEmployeeChange.Type type, MockEmployee mockEmployee) {
+        var change = new MockEmployeeChange(version.incrementAndGet(), type, mockEmployee);
+        changes.addLast(change);
+        while (changes.size() > retainedChanges) {
+            changes.removeFirst();
+        }
+        retainedCount.set(changes.size());
+        listeners.forEach(listener -> listener.onChange(change));
+    }
+
+    /**
+     * Receives the changes made to the employees. Both methods are called while the service is
+     * locked, in sequence order, and must not block.
+     */
+    public interface ChangeListener {
+
+        void onSubscribed(MockEmployeeChanges backlog);
+
+        void onChange(MockEmployeeChange change);
+    }
 }
@@ -0,0 +1,198 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.NonNull;
+
+/**
+ * Thread-safe, insertion-ordered store of the version 1 employees.
+ *
+ * <p>Writes are serialized by the store's lock, reads never take it:
+ * <ul>
+ *     <li>{@link #findById(UUID)} is a lookup in a concurrent hash index</li>
+ *     <li>{@link #snapshot()} returns the employees as of the latest completed write, in insertion
+ *     order, however many writes happen while it is iterated or serialized</li>
+ * </ul>
+ *
+ * <p>The employees are appended to an array of entries. Every write is numbered, and a removed
+ * entry is only marked with the number of the write that removed it, so a snapshot is the
+ * published array, its length and the number of the last write. The array is copied when it
+ * grows, and compacted once most of its entries are removed; snapshots taken before keep the old
+ * array. Employees are also indexed by their lowercased name, so the first employee with a name
+ * is removed without scanning the store.
+ */
+public final class MockEmployeeStore {
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final int COMPACT_THRESHOLD = 64;
+
+    private final Map<UUID, MockEmployee> byId = new ConcurrentHashMap<>();
+    private final Map<String, ArrayDeque<Entry>> byName = new HashMap<>();
+
+    private volatile Head head = new Head(NO_ENTRIES, 0, 0, 0);
+
+    public MockEmployeeStore() {}
+
+    /**
+     * @param employees    The initial employees, in insertion order
+     */
+    public MockEmployeeStore(@NonNull Collection<MockEmployee> employees) {
+        employees.forEach(this::add);
+    }
+
+    /**
+     * @return    Returns the number of employees as of the latest completed write
+     */
+    public int size() {
+        var current = head;
+        return current.count - current.removed;
+    }
+
+    public Optional<MockEmployee> findById(@NonNull UUID id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    /**
+     * Returns the employees as of the latest completed write, in insertion order. The list is
+     * unmodifiable and never changes afterwards. It is a view of the entries when none of them is
+     * removed, and a copy otherwise.
+     *
+     * @return    Returns a consistent, unmodifiable {@link List} of the employees
+     */
+    public List<MockEmployee> snapshot() {
+        var current = head;
+        if (current.removed == 0) {
+            return new View(current.entries, current.count);
+        }
+        var employees = new ArrayList<MockEmployee>(current.count - current.removed);
+        for (int i = 0; i < current.count; i++) {
+            var entry = current.entries[i];
+            if (entry.removedAt > current.sequence) {
+                employees.add(entry.employee);
+            }
+        }
+        return Collections.unmodifiableList(employees);
+    }
+
+    /**
+     * Appends the specified <b>employee</b>.
+     *
+     * @param employee    The employee to add
+     */
+    public synchronized void add(@NonNull MockEmployee employee) {
+        var current = head;
+        var entries = current.entries;
+        if (current.count == entries.length) {
+            entries = Arrays.copyOf(entries, Math.max(16, entries.length * 2));
+        }
+        var entry = new Entry(employee);
+        entries[current.count] = entry;
+        if (employee.getId() != null) {
+            byId.put(employee.getId(), employee);
+        }
+        if (employee.getName() != null) {
+            byName.computeIfAbsent(lowerName(employee.getName()), ignored -> new ArrayDeque<>())
+                    .addLast(entry);
+        }
+        head = new Head(entries, current.count + 1, current.removed, current.sequence + 1);
+    }
+
+    /**
+     * Removes the first employee, in insertion order, with the specified <b>name</b>, ignoring case.
+     *
+     * @param name    The name of the employee to remove
+     * @return        Returns an {@link Optional} of the removed employee
+     */
+    public synchronized Optional<MockEmployee> removeFirstByName(@NonNull String name) {
+        var key = lowerName(name);
+        var entries = byName.get(key);
+        if (entries == null) {
+            return Optional.empty();
+        }
+        var entry = entries.removeFirst();
+        if (entries.isEmpty()) {
+            byName.remove(key);
+        }
+
+        var current = head;
+        var sequence = current.sequence + 1;
+        entry.removedAt = sequence;
+        if (entry.employee.getId() != null) {
+            byId.remove(entry.employee.getId(), entry.employee);
+        }
+        var removed = current.removed + 1;
+        if (removed >= COMPACT_THRESHOLD && removed * 2 > current.count) {
+            head = compact(current, sequence);
+        } else {
+            head = new Head(current.entries, current.count, removed, sequence);
+        }
+        return Optional.of(entry.employee);
+    }
+
+    private static Head compact(Head current, long sequence) {
+        var live = new Entry[Math.max(16, (current.count - current.removed - 1) * 2)];
+        var count = 0;
+        for (int i = 0; i < current.count; i++) {
+            var entry = current.entries[i];
+            if (entry.removedAt == Long.MAX_VALUE) {
+                live[count++] = entry;
+            }
+        }
+        return new Head(live, count, 0, sequence);
+    }
+
+    private static String lowerName(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /*
+     * The published state of the store. The entries below count are never replaced in place, so
+     * a reader holding a head can walk them while the next writes are applied.
+     */
+    private record Head(Entry[] entries, int count, int removed, long sequence) {}
+
+    private static final class Entry {
+        private final MockEmployee employee;
+        private volatile long removedAt = Long.MAX_VALUE;
+
+        private Entry(MockEmployee employee) {
+            this.employee = employee;
+        }
+    }
+
+    private static final class View extends AbstractList<MockEmployee> implements RandomAccess {
+        private final Entry[] entries;
+        private final int count;
+
+        private View(Entry[] entries, int count) {
+            this.entries = entries;
+            this.count = count;
+        }
+
+        @Override
+        public MockEmployee get(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return entries[index].employee;
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+}
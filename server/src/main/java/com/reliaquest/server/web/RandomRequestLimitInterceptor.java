@@ -1,5 +1,8 @@
 package com.reliaquest.server.web;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.time.Duration;
@@ -18,6 +21,21 @@ public class RandomRequestLimitInterceptor implements HandlerInterceptor {
 
     private final AtomicReference<RequestLimit> requestLimit = new AtomicReference<>(RequestLimit.init());
 
+    private final Counter admitted;
+    private final Counter rejected;
+
+    public RandomRequestLimitInterceptor(MeterRegistry meterRegistry) {
+        this.admitted = Counter.builder("mock.requests.admitted")
+                .description("Requests let through by the request limit")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("mock.requests.rejected")
+                .description("Requests refused with 429 by the request limit")
+                .register(meterRegistry);
+        Gauge.builder("mock.requests.limit", () -> REQUEST_LIMIT)
+                .description("Requests allowed before backing off")
+                .register(meterRegistry);
+    }
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
         if (requestLimit.get().getCount() >= REQUEST_LIMIT) {
@@ -25,6 +43,7 @@ public class RandomRequestLimitInterceptor implements HandlerInterceptor {
                     .minus(REQUEST_BACKOFF_DURATION)
                     .isBefore(requestLimit.get().getLastRequested())) {
                 response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                rejected.increment();
                 return false;
             }
             if (Instant.now()
@@ -37,6 +56,7 @@ public class RandomRequestLimitInterceptor implements HandlerInterceptor {
                     currentRequestLimit -> new RequestLimit(currentRequestLimit.count() + 1, Instant.now()));
         }
 
+        admitted.increment();
         return true;
     }
 
@@ -0,0 +1,56 @@
+package com.reliaquest.server.web;
+
+import com.reliaquest.server.model.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.NonNull;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Counts the {@link Response responses} written per {@link Response.Status}. Responses per HTTP
+ * status are already counted by <em>http.server.requests</em>.
+ */
+@ControllerAdvice
+public class ResponseStatusMetricsAdvice implements ResponseBodyAdvice<Object> {
+
+    private final Map<Response.Status, Counter> counters = new EnumMap<>(Response.Status.class);
+
+    public ResponseStatusMetricsAdvice(MeterRegistry meterRegistry) {
+        for (var status : Response.Status.values()) {
+            counters.put(
+                    status,
+                    Counter.builder("mock.responses")
+                            .description("Responses written per response status")
+                            .tag("status", status.name())
+                            .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public boolean supports(
+            @NonNull MethodParameter returnType, @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            @NonNull MethodParameter returnType,
+            @NonNull MediaType selectedContentType,
+            @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            @NonNull ServerHttpRequest request,
+            @NonNull ServerHttpResponse response) {
+        if (body instanceof Response<?> employeeResponse && employeeResponse.status() != null) {
+            counters.get(employeeResponse.status()).increment();
+        }
+        return body;
+    }
+}
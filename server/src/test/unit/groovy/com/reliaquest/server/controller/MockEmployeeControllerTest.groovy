@@ -0,0 +1,89 @@
+package com.reliaquest.server.controller
+
+import com.reliaquest.server.model.CreateMockEmployeeInput
+import com.reliaquest.server.service.MockEmployeeChangeFeed
+import com.reliaquest.server.service.MockEmployeeService
+import com.reliaquest.server.service.MockEmployeeStore
+import jakarta.validation.Validation
+import net.datafaker.Faker
+import org.springframework.http.HttpMethod
+import org.springframework.http.MediaType
+import org.springframework.test.util.ReflectionTestUtils
+import org.springframework.test.web.servlet.MockMvc
+import org.springframework.test.web.servlet.setup.MockMvcBuilders
+import spock.lang.Specification
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status
+
+class MockEmployeeControllerTest extends Specification {
+
+    private MockEmployeeStore store = new MockEmployeeStore()
+    private MockEmployeeService service = new MockEmployeeService(new Faker(Locale.ENGLISH), store, 1000)
+    private MockMvc mockMvc
+
+    void setup() {
+        var controller = new MockEmployeeController(
+                service, new MockEmployeeChangeFeed(service, 1000, 60000), Validation.buildDefaultValidatorFactory().getValidator())
+        ReflectionTestUtils.setField(controller, "maxBatchSize", 3)
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new MockEmployeeControllerAdvice())
+                .build()
+    }
+
+    def "test batch create reports invalid inputs in place and creates the valid ones" () {
+        when:
+        var result = mockMvc.perform(request(HttpMethod.POST, "/api/v1/employee/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content('''[
+                    {"name": "Tiger Nixon", "salary": 320800, "age": 61, "title": "Architect"},
+                    {"name": "", "salary": 1000, "age": 30, "title": "Title"},
+                    null
+                ]'''))
+
+        then:
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath('$.data.length()').value(3))
+                .andExpect(jsonPath('$.data[0].data.employee_name').value("Tiger Nixon"))
+                .andExpect(jsonPath('$.data[1].error').value("name must not be blank"))
+                .andExpect(jsonPath('$.data[2].error').value("must not be null"))
+        store.snapshot()*.name == ["Tiger Nixon"]
+    }
+
+    def "test batch larger than the maximum is rejected without being applied" () {
+        given:
+        var items = (1..4).collect { '{"name": "Employee", "salary": 1000, "age": 30, "title": "Title"}' }
+
+        when:
+        var result = mockMvc.perform(request(method, "/api/v1/employee/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[${items.join(',')}]"))
+
+        then:
+        result.andExpect(status().isBadRequest())
+                .andExpect(jsonPath('$.error').value("Batch of 4 exceeds the maximum of 3."))
+        store.size() == 0
+
+        where:
+        method << [HttpMethod.POST, HttpMethod.DELETE]
+    }
+
+    def "test batch delete reports each input and deletes the known names" () {
+        given:
+        service.create(new CreateMockEmployeeInput(name: "Tiger Nixon", salary: 320800, age: 61, title: "Architect"))
+        service.create(new CreateMockEmployeeInput(name: "Garrett Winters", salary: 170750, age: 63, title: "Accountant"))
+
+        when:
+        var result = mockMvc.perform(request(HttpMethod.DELETE, "/api/v1/employee/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content('[{"name": "tiger nixon"}, {"name": "Nobody"}, {"name": " "}]'))
+
+        then:
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath('$.data[0].data').value(true))
+                .andExpect(jsonPath('$.data[1].data').value(false))
+                .andExpect(jsonPath('$.data[2].error').value("name must not be blank"))
+        store.snapshot()*.name == ["Garrett Winters"]
+    }
+}
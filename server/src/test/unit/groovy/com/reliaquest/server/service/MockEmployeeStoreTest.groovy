@@ -0,0 +1,214 @@
+package com.reliaquest.server.service
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.reliaquest.server.model.MockEmployee
+import spock.lang.Specification
+import spock.lang.Timeout
+
+import java.util.concurrent.Callable
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+
+class MockEmployeeStoreTest extends Specification {
+
+    def "test employees are kept in insertion order and found by id" () {
+        given:
+        var employees = employees("Employee", 3)
+        var store = new MockEmployeeStore(employees)
+
+        expect:
+        store.snapshot() == employees
+        store.size() == 3
+        store.findById(employees[1].id).get().is(employees[1])
+        store.findById(UUID.randomUUID()).isEmpty()
+    }
+
+    def "test first employee with the name is removed, ignoring case" () {
+        given:
+        var first = employee("Tiger Nixon")
+        var second = employee("Tiger Nixon")
+        var other = employee("Ashton Cox")
+        var store = new MockEmployeeStore([first, other, second])
+
+        when:
+        var removed = store.removeFirstByName("TIGER NIXON")
+
+        then:
+        removed.get().is(first)
+        store.snapshot() == [other, second]
+        store.findById(first.id).isEmpty()
+        store.removeFirstByName("tiger nixon").get().is(second)
+        store.removeFirstByName("tiger nixon").isEmpty()
+        store.size() == 1
+    }
+
+    def "test snapshot does not see later writes" () {
+        given:
+        var employees = employees("Employee", 4)
+        var store = new MockEmployeeStore(employees)
+        var view = store.snapshot()
+        store.removeFirstByName("Employee 2")
+        var copy = store.snapshot()
+
+        when:
+        store.add(employee("Created"))
+        store.removeFirstByName("Employee 3")
+
+        then:
+        view == employees
+        copy == [employees[0], employees[1], employees[3]]
+        store.snapshot()*.name == ["Employee 0", "Employee 1", "Created"]
+    }
+
+    def "test compaction keeps the remaining employees in order" () {
+        given:
+        var employees = employees("Employee", 200)
+        var store = new MockEmployeeStore(employees)
+        var before = store.snapshot()
+
+        when:
+        (0..<200).findAll { it % 4 != 0 }.each { store.removeFirstByName("Employee $it") }
+
+        then:
+        store.size() == 50
+        store.snapshot() == employees.findAll { it.name.split(" ")[1].toInteger() % 4 == 0 }
+        before == employees
+    }
+
+    @Timeout(60)
+    def "test concurrent writes never corrupt reads or serialization" () {
+        given:
+        var base = employees("Base", 1000)
+        var store = new MockEmployeeStore(base)
+        var mapper = new ObjectMapper()
+        var writers = 4
+        var readers = 4
+        var writes = 5000
+        var executor = Executors.newFixedThreadPool(writers + readers)
+        var start = new CountDownLatch(1)
+        var writing = new AtomicBoolean(true)
+        var failures = new ConcurrentLinkedQueue<Throwable>()
+        var snapshots = 0L
+
+        when:
+        var writerTasks = (0..<writers).collect { writer ->
+            executor.submit {
+                start.await()
+                for (int i = 0; i < writes; i++) {
+                    store.add(employee("Writer $writer $i"))
+                    if (i % 2 == 1) {
+                        assert store.removeFirstByName("Writer $writer ${i - 1}").isPresent()
+                    }
+                }
+            }
+        }
+        var readerTasks = (0..<readers).collect {
+            executor.submit({
+                start.await()
+                var random = new Random()
+                var read = 0L
+                try {
+                    while (writing.get()) {
+                        var snapshot = store.snapshot()
+                        assert snapshot.size() >= base.size()
+                        for (int i = 0; i < base.size(); i++) {
+                            assert snapshot[i].is(base[i])
+                        }
+                        assert snapshot.toSet().size() == snapshot.size()
+                        assert mapper.readTree(mapper.writeValueAsBytes(snapshot)).size() == snapshot.size()
+                        var id = base[random.nextInt(base.size())].id
+                        assert store.findById(id).isPresent()
+                        read++
+                    }
+                } catch (Throwable e) {
+                    failures.add(e)
+                }
+                return read
+            } as Callable<Long>)
+        }
+        start.countDown()
+        writerTasks*.get(30, TimeUnit.SECONDS)
+        writing.set(false)
+        snapshots = readerTasks.sum { it.get(30, TimeUnit.SECONDS) } as long
+        executor.shutdown()
+
+        then:
+        failures.isEmpty()
+        snapshots > 0
+        store.size() == base.size() + writers * writes / 2
+        store.snapshot().findAll { it.name.startsWith("Writer") }.every { it.name.split(" ")[2].toInteger() % 2 == 1 }
+        store.snapshot().toSet().size() == store.size()
+    }
+
+    @Timeout(60)
+    def "test snapshots taken after a delete never contain the deleted employee" () {
+        given:
+        var store = new MockEmployeeStore(employees("Base", 100))
+        var writers = 4
+        var readers = 4
+        var writes = 5000
+        var executor = Executors.newFixedThreadPool(writers + readers)
+        var start = new CountDownLatch(1)
+        var writing = new AtomicBoolean(true)
+        var deleted = ConcurrentHashMap.<MockEmployee> newKeySet()
+        var failures = new ConcurrentLinkedQueue<Throwable>()
+        var checks = 0L
+
+        when:
+        var writerTasks = (0..<writers).collect { writer ->
+            executor.submit {
+                start.await()
+                for (int i = 0; i < writes; i++) {
+                    store.add(employee("Writer $writer $i"))
+                    if (i % 2 == 1) {
+                        deleted.add(store.removeFirstByName("Writer $writer ${i - 1}").get())
+                    }
+                }
+            }
+        }
+        var readerTasks = (0..<readers).collect {
+            executor.submit({
+                start.await()
+                var checked = 0L
+                try {
+                    while (writing.get()) {
+                        var deletedBefore = deleted.toArray()
+                        var snapshot = Collections.newSetFromMap(new IdentityHashMap<MockEmployee, Boolean>())
+                        snapshot.addAll(store.snapshot())
+                        for (var employee : deletedBefore) {
+                            assert !snapshot.contains(employee)
+                            assert store.findById(employee.id).isEmpty()
+                        }
+                        checked++
+                    }
+                } catch (Throwable e) {
+                    failures.add(e)
+                }
+                return checked
+            } as Callable<Long>)
+        }
+        start.countDown()
+        writerTasks*.get(30, TimeUnit.SECONDS)
+        writing.set(false)
+        checks = readerTasks.sum { it.get(30, TimeUnit.SECONDS) } as long
+        executor.shutdown()
+
+        then:
+        failures.isEmpty()
+        checks > 0
+        deleted.size() == writers * writes / 2
+        store.snapshot().every { !deleted.contains(it) }
+    }
+
+    private static List<MockEmployee> employees(String prefix, int count) {
+        return (0..<count).collect { employee("$prefix $it") }
+    }
+
+    private static MockEmployee employee(String name) {
+        return new MockEmployee(UUID.randomUUID(), name, 50000, 30, "Engineer", "e@company.com")
+    }
+}